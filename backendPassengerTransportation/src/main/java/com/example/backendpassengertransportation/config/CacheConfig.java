@@ -0,0 +1,32 @@
+package com.example.backendpassengertransportation.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Конфигурация кэша каталога маршрутов
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String ROUTE_CATALOG_CACHE = "routeCatalog"; // Кэш полного списка маршрутов
+    public static final String ROUTE_BY_ID_CACHE = "routeById"; // Кэш маршрутов по ID
+
+    // Менеджер кэшей на основе Caffeine с вытеснением по размеру и времени жизни и сбором статистики попаданий
+    @Bean
+    public CacheManager cacheManager(@Value("${routes.cache.ttl:5m}") Duration ttl,
+                                     @Value("${routes.cache.maximum-size:10000}") long maximumSize) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(ROUTE_CATALOG_CACHE, ROUTE_BY_ID_CACHE);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats());
+        return cacheManager;
+    }
+}
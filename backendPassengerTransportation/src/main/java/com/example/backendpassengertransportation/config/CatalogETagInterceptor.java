@@ -0,0 +1,80 @@
+package com.example.backendpassengertransportation.config;
+
+import com.example.backendpassengertransportation.service.CatalogVersion;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.List;
+
+// Условные GET-запросы каталога маршрутов.
+// Ответ помечается версией каталога (ETag) и временем последнего изменения (Last-Modified).
+// Если версия в If-None-Match совпадает с текущей, запрос завершается статусом 304 до вызова контроллера:
+// без обращения к кэшу и базе данных и без сериализации JSON.
+// Версия читается до вызова контроллера, поэтому ответ никогда не помечается версией новее своих данных.
+// JSON и CBOR - разные представления одного ресурса, поэтому их ETag различаются
+public class CatalogETagInterceptor implements HandlerInterceptor {
+
+    // Параметр поиска относительно текущего времени: результат меняется без изменения каталога
+    private static final String TIME_RELATIVE_PARAMETER = "departsAfterMinutes";
+
+    private final CatalogVersion catalogVersion; // Версия каталога маршрутов
+
+    public CatalogETagInterceptor(CatalogVersion catalogVersion) {
+        this.catalogVersion = catalogVersion;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return true;
+        }
+        if (request.getParameter(TIME_RELATIVE_PARAMETER) != null) {
+            return true;
+        }
+
+        // Время изменения читается до версии (а записывается после нее): при одновременном изменении каталога
+        // время в ответе не окажется новее версии
+        long lastModified = catalogVersion.getLastModified();
+        String eTag = eTag(request, catalogVersion.getVersion());
+
+        // Проверка If-None-Match (и If-Modified-Since при его отсутствии); заголовки ETag и Last-Modified
+        // добавляются в ответ в обоих случаях
+        return !new ServletWebRequest(request, response).checkNotModified(eTag, lastModified);
+    }
+
+    // ETag версии каталога для формата ответа, выбранного по заголовку Accept
+    static String eTag(HttpServletRequest request, long version) {
+        return prefersCbor(request) ? "\"" + version + "-cbor\"" : CatalogVersion.toETag(version);
+    }
+
+    // Проверка, будет ли ответ записан в CBOR.
+    // Форматы из Accept перебираются в том же порядке, что и при выборе формата Spring MVC (по качеству
+    // и специфичности); JSON записывается первым подходящим конвертером, поэтому */* и application/* означают JSON
+    static boolean prefersCbor(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || !accept.contains("cbor")) {
+            return false;
+        }
+        try {
+            List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+            MimeTypeUtils.sortBySpecificity(mediaTypes);
+            for (MediaType mediaType : mediaTypes) {
+                if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                    return false;
+                }
+                if (mediaType.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                    return true;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            return false; // Некорректный заголовок Accept: ответ в формате по умолчанию
+        }
+        return false;
+    }
+}
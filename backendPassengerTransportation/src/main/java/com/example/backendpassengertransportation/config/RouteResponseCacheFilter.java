@@ -0,0 +1,155 @@
+package com.example.backendpassengertransportation.config;
+
+import com.example.backendpassengertransportation.service.CatalogVersion;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+// Кэш сериализованных ответов нагруженных запросов чтения каталога маршрутов.
+// Хранятся готовые байты JSON или CBOR (и их сжатая gzip копия) с версией каталога, для которой они получены.
+// Пока версия каталога не изменилась, ответ записывается в поток вывода напрямую, без вызова контроллера
+// и без сериализации Jackson; после изменения каталога запись считается устаревшей и заменяется при следующем запросе
+@Component
+public class RouteResponseCacheFilter extends OncePerRequestFilter {
+
+    // Кэшируемые запросы: весь каталог и поиск по типу транспорта, пункту отправления и пункту назначения
+    private static final Pattern CACHED_PATHS = Pattern.compile("/routes(/(transport|departure|destination)/[^/]+)?");
+
+    private static final int MIN_GZIP_SIZE = 1024; // Ответы меньшего размера не сжимаются
+
+    @Autowired
+    private CatalogVersion catalogVersion; // Версия каталога маршрутов
+
+    @Autowired
+    private MeterRegistry meterRegistry; // Статистика попаданий в кэш ответов
+
+    @Value("${routes.response-cache.enabled:true}")
+    private boolean enabled; // Признак включения кэша ответов
+
+    @Value("${routes.response-cache.maximum-size:64MB}")
+    private DataSize maximumSize; // Максимальный суммарный размер хранимых ответов
+
+    @Value("${routes.response-cache.gzip:true}")
+    private boolean gzip; // Хранение сжатой копии для клиентов, принимающих gzip
+
+    private Cache<String, CachedResponse> responses; // Ответы по адресу запроса
+
+    @PostConstruct
+    void init() {
+        responses = Caffeine.newBuilder()
+                .maximumWeight(maximumSize.toBytes())
+                .weigher((String key, CachedResponse response) -> response.weight())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "routeResponses");
+    }
+
+    // Потоковая выдача (stream=true) не кэшируется: ответ не должен собираться в памяти целиком
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+                || !HttpMethod.GET.matches(request.getMethod())
+                || request.getParameter("stream") != null
+                || !CACHED_PATHS.matcher(request.getRequestURI().substring(request.getContextPath().length())).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        // Формат ответа входит в ключ: JSON и CBOR одного запроса хранятся отдельно
+        boolean cbor = CatalogETagInterceptor.prefersCbor(request);
+        String uri = request.getQueryString() == null
+                ? request.getRequestURI()
+                : request.getRequestURI() + "?" + request.getQueryString();
+        String key = cbor ? "cbor:" + uri : uri;
+        boolean acceptsGzip = acceptsGzip(request);
+
+        // Версия читается до выполнения запроса: сохраненный ответ не может оказаться старше своей версии
+        long version = catalogVersion.getVersion();
+        CachedResponse cached = responses.getIfPresent(key);
+        if (cached != null && cached.version == version) {
+            // Условный запрос с текущей версией получает 304 так же, как без кэша ответов
+            if (new ServletWebRequest(request, response).checkNotModified(CatalogETagInterceptor.eTag(request, version), cached.lastModified)) {
+                return;
+            }
+            write(response, cached, acceptsGzip);
+            return;
+        }
+
+        long lastModified = catalogVersion.getLastModified();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+
+        // Сохраняются только успешные ответы; ответ 304 и сообщения об ошибках передаются клиенту как есть
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK || wrapper.getContentType() == null) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        byte[] body = wrapper.getContentAsByteArray();
+        byte[] compressed = gzip && body.length >= MIN_GZIP_SIZE ? compress(body) : null;
+        CachedResponse stored = new CachedResponse(version, lastModified, wrapper.getContentType(), body, compressed);
+        responses.put(key, stored);
+
+        wrapper.resetBuffer();
+        write(wrapper, stored, acceptsGzip);
+        wrapper.copyBodyToResponse();
+    }
+
+    // Запись сохраненных байтов ответа (сжатых, если клиент принимает gzip)
+    private void write(HttpServletResponse response, CachedResponse cached, boolean acceptsGzip) throws IOException {
+        byte[] body = cached.body;
+        if (acceptsGzip && cached.gzipBody != null) {
+            body = cached.gzipBody;
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setContentType(cached.contentType);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    // Проверка, принимает ли клиент ответ, сжатый gzip
+    private boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+
+    // Сжатие ответа gzip
+    private static byte[] compress(byte[] body) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzipOutput = new GZIPOutputStream(output)) {
+            gzipOutput.write(body);
+        }
+        return output.toByteArray();
+    }
+
+    // Сохраненный ответ
+    private record CachedResponse(long version, long lastModified, String contentType, byte[] body, byte[] gzipBody) {
+
+        // Размер записи для ограничения суммарного размера кэша
+        int weight() {
+            return body.length + (gzipBody == null ? 0 : gzipBody.length);
+        }
+    }
+}
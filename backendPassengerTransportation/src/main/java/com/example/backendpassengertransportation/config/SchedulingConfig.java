@@ -0,0 +1,10 @@
+package com.example.backendpassengertransportation.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Включение периодических задач (запись изменений учета мест в базу данных)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
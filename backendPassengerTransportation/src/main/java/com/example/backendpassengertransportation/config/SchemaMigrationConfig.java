@@ -0,0 +1,24 @@
+package com.example.backendpassengertransportation.config;
+
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+// Конфигурация миграции схемы при запуске приложения
+@Configuration
+public class SchemaMigrationConfig {
+
+    // Миграция выполняется при создании бина
+    @Bean(initMethod = "migrate")
+    public SchemaMigrator schemaMigrator(DataSource dataSource) {
+        return new SchemaMigrator(dataSource);
+    }
+
+    // Фабрика EntityManager создается только после миграции, поэтому репозитории работают с актуальной схемой
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor schemaMigratorDependsOnPostProcessor() {
+        return new EntityManagerFactoryDependsOnPostProcessor("schemaMigrator");
+    }
+}
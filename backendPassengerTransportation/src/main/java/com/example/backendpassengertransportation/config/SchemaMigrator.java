@@ -0,0 +1,129 @@
+package com.example.backendpassengertransportation.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+// Версионированная миграция схемы базы данных SQLite.
+// Номер примененной версии хранится в заголовке файла базы (PRAGMA user_version), при запуске применяются
+// только миграции с большим номером, каждая в своей транзакции вместе с обновлением номера версии
+public class SchemaMigrator {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaMigrator.class);
+
+    // Миграции в порядке возрастания версий. Примененные миграции не изменяются, изменения схемы добавляются новой версией
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "Таблицы маршрутов и бронирований",
+                    "CREATE TABLE IF NOT EXISTS routes (" +
+                            "id_route INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                            "transport_type TEXT NOT NULL, " +
+                            "departure_city TEXT NOT NULL, " +
+                            "destination_city TEXT NOT NULL, " +
+                            "departure_time DATETIME NOT NULL, " +
+                            "arrival_time DATETIME NOT NULL, " +
+                            "total_number_seats INTEGER NOT NULL, " +
+                            "number_available_seats INTEGER NOT NULL)",
+                    "CREATE TABLE IF NOT EXISTS booking_tickets (" +
+                            "id_booking INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                            "id_route INTEGER NOT NULL, " +
+                            "passenger_full_name TEXT NOT NULL, " +
+                            "passenger_phone TEXT NOT NULL, " +
+                            "passenger_email TEXT NOT NULL, " +
+                            "booking_date DATETIME NOT NULL, " +
+                            "FOREIGN KEY (id_route) REFERENCES routes(id_route))"),
+            new Migration(2, "Индексы для поиска маршрутов и бронирований",
+                    // Диапазонный поиск по дате отправления
+                    "CREATE INDEX IF NOT EXISTS idx_routes_departure_time ON routes (departure_time)",
+                    // Поиск по типу транспорта, в том числе вместе с датой отправления
+                    "CREATE INDEX IF NOT EXISTS idx_routes_transport_type ON routes (transport_type, departure_time)",
+                    // Поиск по пункту отправления и по паре пунктов отправления и назначения (левый префикс индекса)
+                    "CREATE INDEX IF NOT EXISTS idx_routes_departure_destination " +
+                            "ON routes (departure_city, destination_city, departure_time)",
+                    // Поиск по пункту назначения
+                    "CREATE INDEX IF NOT EXISTS idx_routes_destination_city ON routes (destination_city, departure_time)",
+                    // Бронирования маршрута, проверка их наличия и поиск по маршруту и телефону
+                    "CREATE INDEX IF NOT EXISTS idx_booking_tickets_route_phone ON booking_tickets (id_route, passenger_phone)",
+                    // Бронирования пассажира по ФИО
+                    "CREATE INDEX IF NOT EXISTS idx_booking_tickets_passenger_full_name ON booking_tickets (passenger_full_name)"),
+            new Migration(3, "Номер места в бронировании",
+                    "ALTER TABLE booking_tickets ADD COLUMN seat_number INTEGER",
+                    // Одно место маршрута не может быть забронировано дважды (бронирования без номера места не ограничиваются)
+                    "CREATE UNIQUE INDEX IF NOT EXISTS idx_booking_tickets_route_seat " +
+                            "ON booking_tickets (id_route, seat_number) WHERE seat_number IS NOT NULL"),
+            new Migration(4, "Количество мест, доступных для бронирования при создании маршрута",
+                    "ALTER TABLE routes ADD COLUMN bookable_seats INTEGER",
+                    // Для существующих маршрутов - свободные места вместе с уже забронированными
+                    "UPDATE routes SET bookable_seats = MIN(total_number_seats, number_available_seats + " +
+                            "(SELECT COUNT(*) FROM booking_tickets b WHERE b.id_route = routes.id_route))")
+    );
+
+    private final DataSource dataSource; // Источник соединений с базой данных
+
+    // Конструктор с параметрами для инициализации миграции
+    public SchemaMigrator(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    // Метод для получения номера последней версии схемы
+    public static int getLatestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+    }
+
+    // Применение всех новых миграций и обновление статистики планировщика запросов
+    public void migrate() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            int currentVersion = readVersion(connection);
+            boolean applied = false;
+            for (Migration migration : MIGRATIONS) {
+                if (migration.version > currentVersion) {
+                    apply(connection, migration);
+                    applied = true;
+                }
+            }
+
+            // Статистика по индексам нужна планировщику SQLite для выбора индекса при нескольких подходящих
+            if (applied) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("ANALYZE");
+                }
+            }
+        }
+    }
+
+    // Применение одной миграции в транзакции вместе с обновлением номера версии
+    private void apply(Connection connection, Migration migration) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : migration.statements) {
+                statement.execute(sql);
+            }
+            statement.execute("PRAGMA user_version = " + migration.version);
+            connection.commit();
+            log.info("Применена миграция схемы V{}: {}", migration.version, migration.description);
+        } catch (SQLException e) {
+            connection.rollback();
+            throw new IllegalStateException("Не удалось применить миграцию схемы V" + migration.version + ".", e);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    // Чтение номера примененной версии схемы
+    private int readVersion(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("PRAGMA user_version")) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+    }
+
+    // Миграция схемы: номер версии, описание и выполняемые запросы
+    private record Migration(int version, String description, String... statements) {
+    }
+}
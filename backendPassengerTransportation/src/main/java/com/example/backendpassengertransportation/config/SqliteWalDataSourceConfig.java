@@ -0,0 +1,85 @@
+package com.example.backendpassengertransportation.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.sqlite.SQLiteConfig;
+
+import javax.sql.DataSource;
+
+// Профиль хранения "wal": журнал WAL, единственное соединение для записи и отдельный пул соединений для чтения.
+// В режиме WAL читатели не блокируют писателя и не блокируются им, а SQLite в любом случае допускает только одного писателя,
+// поэтому все пишущие транзакции проходят через одно соединение вместо борьбы за блокировку с ошибками SQLITE_BUSY
+@Configuration
+@Profile("wal")
+public class SqliteWalDataSourceConfig {
+
+    @Value("${storage.sqlite.read-pool-size:8}")
+    private int readPoolSize; // Размер пула соединений для чтения
+
+    @Value("${storage.sqlite.busy-timeout:5000}")
+    private int busyTimeout; // Время ожидания блокировки в миллисекундах
+
+    @Value("${storage.sqlite.cache-size:-65536}")
+    private int cacheSize; // Размер кэша страниц (отрицательное значение задает размер в КиБ)
+
+    @Value("${storage.sqlite.mmap-size:268435456}")
+    private long mmapSize; // Размер отображаемой в память области файла базы данных в байтах
+
+    // Пул из одного соединения для всех пишущих транзакций
+    @Bean(name = "sqliteWriteDataSource")
+    public HikariDataSource sqliteWriteDataSource(DataSourceProperties properties) {
+        SQLiteConfig config = createSqliteConfig();
+        // Транзакции записи сразу захватывают блокировку записи, исключая повышение блокировки посреди транзакции
+        config.setTransactionMode(SQLiteConfig.TransactionMode.IMMEDIATE);
+        return createPool(properties, config, "sqlite-writer", 1);
+    }
+
+    // Пул соединений для транзакций только для чтения
+    @Bean(name = "sqliteReadDataSource")
+    public HikariDataSource sqliteReadDataSource(DataSourceProperties properties) {
+        return createPool(properties, createSqliteConfig(), "sqlite-reader", readPoolSize);
+    }
+
+    // Основной источник данных: транзакции с readOnly = true получают соединение из пула чтения, остальные - соединение записи.
+    // Соединение выбирается лениво, при первом запросе, когда признак readOnly транзакции уже известен
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("sqliteWriteDataSource") DataSource writeDataSource,
+                                 @Qualifier("sqliteReadDataSource") DataSource readDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(writeDataSource);
+        dataSource.setReadOnlyDataSource(readDataSource);
+        return dataSource;
+    }
+
+    // Общие настройки соединений SQLite
+    private SQLiteConfig createSqliteConfig() {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        config.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+        config.setBusyTimeout(busyTimeout);
+        config.setCacheSize(cacheSize);
+        return config;
+    }
+
+    // Создание пула соединений Hikari с заданными параметрами SQLite
+    private HikariDataSource createPool(DataSourceProperties properties, SQLiteConfig sqliteConfig,
+                                        String poolName, int poolSize) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setJdbcUrl(properties.getUrl());
+        config.setDriverClassName(properties.getDriverClassName());
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(poolSize);
+        config.setDataSourceProperties(sqliteConfig.toProperties());
+        config.setConnectionInitSql("PRAGMA mmap_size = " + mmapSize);
+        return new HikariDataSource(config);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.backendpassengertransportation.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Профиль "virtual-threads": запросы, @Async и @Scheduled выполняются в виртуальных потоках (Java 21, см. профиль Maven java21).
+// Драйвер SQLite выполняет запросы в нативном коде, в том числе ожидание блокировки записи (busy_timeout),
+// и на это время виртуальный поток закреплен за потоком-носителем. Чтобы блокирующая работа с базой
+// не заняла все потоки-носители, количество одновременно выданных соединений ограничивается семафором:
+// остальные виртуальные потоки ждут разрешения на семафоре, не занимая потоки-носители.
+// В профиле "wal" у пула записи свой семафор с одним разрешением, а пул чтения делит остальные: долгое чтение
+// (например, выгрузка ?stream=true) не может занять разрешение, которого ждут BookingWriter и запись учета мест
+@Configuration
+@Profile("virtual-threads")
+public class VirtualThreadJdbcGuardConfig {
+
+    private static final String WRITE_DATA_SOURCE = "sqliteWriteDataSource"; // Пул записи профиля "wal"
+
+    private static final String READ_DATA_SOURCE = "sqliteReadDataSource"; // Пул чтения профиля "wal"
+
+    // Ограничение соединений пулов Hikari семафорами
+    @Bean
+    public static BeanPostProcessor jdbcPinningGuard(
+            @Value("${storage.jdbc.max-concurrent-connections:0}") int maxConcurrentConnections) {
+        // По умолчанию - на один меньше количества потоков-носителей, чтобы один всегда оставался свободным
+        int permits = maxConcurrentConnections > 0
+                ? maxConcurrentConnections
+                : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        // Разрешение пула записи зарезервировано всегда, даже если общего лимита хватает только на одно соединение
+        Semaphore writeSemaphore = new Semaphore(1, true);
+        Semaphore readSemaphore = new Semaphore(Math.max(1, permits - 1), true);
+        // Единственный пул без профиля "wal" выполняет и чтение, и запись, и получает все разрешения
+        Semaphore sharedSemaphore = new Semaphore(permits, true);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Оборачиваются только пулы, а не построенные на них прокси (как в профиле "wal"),
+                // чтобы одно логическое соединение не занимало два разрешения
+                if (bean instanceof HikariDataSource dataSource) {
+                    return new GuardedDataSource(dataSource, switch (beanName) {
+                        case WRITE_DATA_SOURCE -> writeSemaphore;
+                        case READ_DATA_SOURCE -> readSemaphore;
+                        default -> sharedSemaphore;
+                    });
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Источник данных, выдающий соединение только после получения разрешения семафора.
+    // Разрешение возвращается при закрытии соединения (возврате в пул)
+    static final class GuardedDataSource extends DelegatingDataSource {
+
+        private final Semaphore semaphore; // Разрешения на одновременно выданные соединения
+
+        GuardedDataSource(DataSource targetDataSource, Semaphore semaphore) {
+            super(targetDataSource);
+            this.semaphore = semaphore;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            acquire();
+            try {
+                return guard(obtainTargetDataSource().getConnection());
+            } catch (SQLException | RuntimeException e) {
+                semaphore.release();
+                throw e;
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            acquire();
+            try {
+                return guard(obtainTargetDataSource().getConnection(username, password));
+            } catch (SQLException | RuntimeException e) {
+                semaphore.release();
+                throw e;
+            }
+        }
+
+        // Ожидание разрешения (виртуальный поток при ожидании освобождает поток-носитель)
+        private void acquire() throws SQLException {
+            try {
+                semaphore.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Прервано ожидание соединения с базой данных.", e);
+            }
+        }
+
+        // Соединение, возвращающее разрешение при первом закрытии
+        private Connection guard(Connection connection) {
+            AtomicBoolean released = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                            try {
+                                connection.close();
+                            } finally {
+                                semaphore.release();
+                            }
+                            return null;
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.backendpassengertransportation.config;
+
+import com.example.backendpassengertransportation.service.CatalogVersion;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+// Конфигурация обработки HTTP-запросов
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private CatalogVersion catalogVersion; // Версия каталога маршрутов
+
+    @Autowired
+    private ObjectMapper objectMapper; // Настроенный Spring Boot преобразователь JSON
+
+    // Условные GET-запросы для чтения каталога маршрутов.
+    // Карта мест меняется при каждом бронировании с выбором места без изменения каталога, поэтому исключена;
+    // поток событий мест не является представлением каталога
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new CatalogETagInterceptor(catalogVersion))
+                .addPathPatterns("/routes", "/routes/**")
+                .excludePathPatterns("/routes/*/seat-map", "/routes/seat-events");
+    }
+
+    // Ответы в CBOR для клиентов, запрашивающих Accept: application/cbor.
+    // Двоичный формат не повторяет имена полей текстом и не экранирует строки, поэтому каталог маршрутов
+    // занимает меньше места и быстрее разбирается клиентом. Конвертер по умолчанию создается без настроек
+    // Spring Boot, поэтому заменяется копией общего ObjectMapper; конвертер остается после конвертера JSON,
+    // и клиенты без явного Accept (или с */*) по-прежнему получают JSON
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        MappingJackson2CborHttpMessageConverter cbor =
+                new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory()));
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2CborHttpMessageConverter) {
+                converters.set(i, cbor);
+                return;
+            }
+        }
+        converters.add(cbor);
+    }
+}
@@ -1,15 +1,25 @@
 package com.example.backendpassengertransportation.controller;
 
+import com.example.backendpassengertransportation.dto.CompactBookingTickets;
+import com.example.backendpassengertransportation.dto.GroupBookingRequest;
+import com.example.backendpassengertransportation.dto.KeysetPage;
+import com.example.backendpassengertransportation.dto.SeatHoldView;
 import com.example.backendpassengertransportation.model.BookingTicket;
 import com.example.backendpassengertransportation.service.BookingTicketService;
+import com.example.backendpassengertransportation.service.IdempotencyStore;
+import com.example.backendpassengertransportation.service.SeatHoldService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.Collections;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/booking-tickets")
@@ -19,6 +29,18 @@ public class BookingTicketController {
     // Сервис для работы с бронированиями билетов
     private BookingTicketService bookingTicketService;
 
+    @Autowired
+    // Сервис временных удержаний мест
+    private SeatHoldService seatHoldService;
+
+    @Autowired
+    // Хранилище ключей идемпотентности запросов создания бронирований
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    // Сериализация бронирований при потоковой выдаче
+    private ObjectMapper objectMapper;
+
     // Получение всех бронирований
     @Operation(
             summary = "Список всех бронирований",
@@ -28,6 +50,39 @@ public class BookingTicketController {
         return bookingTicketService.getAllBookingTickets();
     }
 
+    // Потоковое получение всех бронирований
+    @Operation(
+            summary = "Потоковое получение всех бронирований",
+            description = "Возвращает тот же список, что и запрос без параметров, но записывает бронирования в ответ " +
+                    "по мере чтения из базы данных, не собирая весь список в памяти. " +
+                    "Время до первого байта ответа и расход памяти не зависят от количества бронирований.")
+    @GetMapping(value = "", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllBookingTickets() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(JsonArrayStream.of(objectMapper, bookingTicketService::streamAllBookingTickets));
+    }
+
+    // Постраничное получение бронирований (keyset-пагинация)
+    @Operation(
+            summary = "Постраничное получение бронирований",
+            description = "Возвращает не более limit бронирований с ID больше after в порядке возрастания ID. " +
+                    "Поле next содержит курсор для запроса следующей страницы (after=next) и равно null на последней странице. " +
+                    "Если параметры страницы некорректны, возвращает статус 400.")
+    @GetMapping(value = "", params = "limit")
+    public ResponseEntity<?> getBookingTicketsPage(
+            @RequestParam(required = false) Long after,
+            @RequestParam int limit) {
+        try {
+            KeysetPage<BookingTicket> page = bookingTicketService.getBookingTicketsPage(after, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Произошла ошибка при обработке запроса.");
+        }
+    }
+
     // Получение бронирования по ID
     @Operation(
             summary = "Получение бронирования по ID",
@@ -40,21 +95,160 @@ public class BookingTicketController {
     // Создание нового бронирования
     @Operation(
             summary = "Создание нового бронирования",
-            description = "Позволяет создать новое бронирование для указанного маршрута и пассажира")
+            description = "Позволяет создать новое бронирование для указанного маршрута и пассажира. " +
+                    "Если передан заголовок Idempotency-Key, повторный запрос с тем же ключом и теми же параметрами " +
+                    "возвращает сохраненный ответ первого запроса (с заголовком Idempotent-Replayed: true) " +
+                    "и не создает второе бронирование. Повтор ключа с другими параметрами возвращает статус 422.")
     @PostMapping("")
     public ResponseEntity<?> createBookingTicket(
             @RequestParam Long routeId,
             @RequestParam String passengerFullName,
             @RequestParam String passengerPhone,
+            @RequestParam String passengerEmail,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        return withIdempotencyKey(idempotencyKey, fingerprint(routeId, passengerFullName, passengerPhone, passengerEmail, null), () -> {
+            try {
+                BookingTicket bookingTicket = bookingTicketService.createBookingTicket(
+                        routeId, passengerFullName, passengerPhone, passengerEmail);
+                return ResponseEntity.status(HttpStatus.CREATED).body(bookingTicket);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+            } catch (IllegalStateException e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+            }
+        });
+    }
+
+    // Создание нового бронирования с выбором места
+    @Operation(
+            summary = "Создание нового бронирования с выбором места",
+            description = "Позволяет создать бронирование на указанное место маршрута. " +
+                    "Возвращает статус 400, если место уже занято, номер места вне диапазона мест маршрута или свободных мест нет, " +
+                    "и статус 404, если маршрут не найден. Заголовок Idempotency-Key обрабатывается так же, " +
+                    "как при создании бронирования без выбора места.")
+    @PostMapping(value = "", params = "seatNumber")
+    public ResponseEntity<?> createBookingTicketWithSeat(
+            @RequestParam Long routeId,
+            @RequestParam String passengerFullName,
+            @RequestParam String passengerPhone,
+            @RequestParam String passengerEmail,
+            @RequestParam int seatNumber,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        return withIdempotencyKey(idempotencyKey, fingerprint(routeId, passengerFullName, passengerPhone, passengerEmail, seatNumber), () -> {
+            try {
+                BookingTicket bookingTicket = bookingTicketService.createBookingTicket(
+                        routeId, passengerFullName, passengerPhone, passengerEmail, seatNumber);
+                return ResponseEntity.status(HttpStatus.CREATED).body(bookingTicket);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+            } catch (IllegalStateException e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+            } catch (NoSuchElementException e) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+            }
+        });
+    }
+
+    // Выполнение запроса создания бронирования с учетом ключа идемпотентности (без ключа запрос выполняется как есть)
+    private ResponseEntity<?> withIdempotencyKey(String idempotencyKey, String fingerprint,
+                                                 Supplier<ResponseEntity<?>> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        try {
+            return idempotencyStore.execute(idempotencyKey, fingerprint, action);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(e.getMessage());
+        }
+    }
+
+    // Отпечаток параметров запроса создания бронирования для сравнения повторов с одним ключом
+    private String fingerprint(Long routeId, String passengerFullName, String passengerPhone, String passengerEmail,
+                               Integer seatNumber) {
+        return routeId + "\n" + passengerFullName + "\n" + passengerPhone + "\n" + passengerEmail + "\n" + seatNumber;
+    }
+
+    // Групповое бронирование нескольких пассажиров на один маршрут
+    @Operation(
+            summary = "Групповое бронирование",
+            description = "Бронирует места для всех пассажиров из списка на указанный маршрут в одной транзакции. " +
+                    "Если данные хотя бы одного пассажира некорректны или мест недостаточно, не создается ни одного бронирования. " +
+                    "Возвращает статус 400 при ошибке проверки или нехватке мест и статус 404, если маршрут не найден.")
+    @PostMapping("/group")
+    public ResponseEntity<?> createGroupBooking(@RequestBody GroupBookingRequest request) {
+        try {
+            List<BookingTicket> bookingTickets = bookingTicketService.createGroupBooking(
+                    request.getRouteId(), request.getPassengers());
+            return ResponseEntity.status(HttpStatus.CREATED).body(bookingTickets);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    // Временное удержание места на время заполнения данных пассажира
+    @Operation(
+            summary = "Удержание места",
+            description = "Временно удерживает одно место маршрута (при указании номера места - конкретное место). " +
+                    "Удержание снимается автоматически по истечении срока, если не было подтверждено. " +
+                    "Возвращает статус 400, если мест нет или место уже занято, и статус 404, если маршрут не найден.")
+    @PostMapping("/holds")
+    public ResponseEntity<?> holdSeat(
+            @RequestParam Long routeId,
+            @RequestParam(required = false) Integer seatNumber) {
+        try {
+            SeatHoldView hold = seatHoldService.holdSeat(routeId, seatNumber);
+            return ResponseEntity.status(HttpStatus.CREATED).body(hold);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    // Подтверждение удержания места
+    @Operation(
+            summary = "Подтверждение удержания места",
+            description = "Создает бронирование на удержанное место с указанными данными пассажира. " +
+                    "Возвращает статус 400 при некорректных данных пассажира (удержание при этом сохраняется) " +
+                    "и статус 404, если удержание не найдено или истекло.")
+    @PostMapping("/holds/{holdId}/confirm")
+    public ResponseEntity<?> confirmHold(
+            @PathVariable String holdId,
+            @RequestParam String passengerFullName,
+            @RequestParam String passengerPhone,
             @RequestParam String passengerEmail) {
         try {
-            BookingTicket bookingTicket = bookingTicketService.createBookingTicket(
-                    routeId, passengerFullName, passengerPhone, passengerEmail);
+            BookingTicket bookingTicket = seatHoldService.confirmHold(holdId, passengerFullName, passengerPhone, passengerEmail);
             return ResponseEntity.status(HttpStatus.CREATED).body(bookingTicket);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         } catch (IllegalStateException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    // Снятие удержания места
+    @Operation(
+            summary = "Снятие удержания места",
+            description = "Освобождает удержанное место до истечения срока удержания. " +
+                    "Возвращает статус 404, если удержание не найдено или истекло.")
+    @DeleteMapping("/holds/{holdId}")
+    public ResponseEntity<String> releaseHold(@PathVariable String holdId) {
+        try {
+            seatHoldService.releaseHold(holdId);
+            return ResponseEntity.ok("Удержание места снято.");
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         }
     }
 
@@ -126,4 +320,59 @@ public class BookingTicketController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Collections.emptyList());
         }
     }
+
+    // Получение всех бронирований в компактном представлении
+    @Operation(
+            summary = "Список всех бронирований (компактное представление)",
+            description = "Возвращает все бронирования с ID маршрута вместо вложенного маршрута. " +
+                    "Маршруты передаются один раз в словаре routes по их ID.")
+    @GetMapping(value = "", params = "view=compact")
+    public ResponseEntity<?> getAllBookingTicketsCompact() {
+        try {
+            CompactBookingTickets bookingTickets = bookingTicketService.getAllBookingTicketsCompact();
+            return ResponseEntity.ok(bookingTickets);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Произошла ошибка при обработке запроса.");
+        }
+    }
+
+    // Получение бронирований пассажира по ФИО в компактном представлении
+    @Operation(
+            summary = "Поиск бронирований по имени пассажира (компактное представление)",
+            description = "Возвращает бронирования пассажира с ID маршрута вместо вложенного маршрута " +
+                    "и словарь маршрутов по их ID. Если бронирования не найдены, возвращает статус 404.")
+    @GetMapping(value = "/passenger/{passengerFullName}", params = "view=compact")
+    public ResponseEntity<?> getBookingTicketsByPassengerFullNameCompact(@PathVariable String passengerFullName) {
+        try {
+            CompactBookingTickets bookingTickets =
+                    bookingTicketService.getBookingTicketsByPassengerFullNameCompact(passengerFullName);
+            if (bookingTickets.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(bookingTickets);
+            }
+            return ResponseEntity.ok(bookingTickets);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Произошла ошибка при обработке запроса.");
+        }
+    }
+
+    // Получение бронирований маршрута в компактном представлении
+    @Operation(
+            summary = "Список бронирований для маршрута (компактное представление)",
+            description = "Возвращает бронирования маршрута с ID маршрута вместо вложенного маршрута; " +
+                    "сам маршрут передается один раз в словаре routes. " +
+                    "Если маршрут не найден или бронирований нет, возвращает статус 404.")
+    @GetMapping(value = "/route/{routeId}", params = "view=compact")
+    public ResponseEntity<?> getBookingTicketsByRouteCompact(@PathVariable Long routeId) {
+        try {
+            CompactBookingTickets bookingTickets = bookingTicketService.getBookingTicketsByRouteCompact(routeId);
+            if (bookingTickets.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(bookingTickets);
+            }
+            return ResponseEntity.ok(bookingTickets);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Произошла ошибка при обработке запроса.");
+        }
+    }
 }
@@ -0,0 +1,47 @@
+package com.example.backendpassengertransportation.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/cache")
+public class CacheController {
+
+    @Autowired
+    // Менеджер кэшей маршрутов
+    private CacheManager cacheManager;
+
+    // Получение статистики кэшей
+    @Operation(
+            summary = "Статистика кэша маршрутов",
+            description = "Возвращает для каждого кэша количество попаданий, промахов, вытеснений и текущий размер. " +
+                    "Позволяет убедиться, что чтение каталога маршрутов обслуживается из памяти, а не из базы данных.")
+    @GetMapping("/stats")
+    public Map<String, Map<String, Object>> getCacheStats() {
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        for (String cacheName : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache instanceof CaffeineCache caffeineCache) {
+                CacheStats stats = caffeineCache.getNativeCache().stats();
+                Map<String, Object> cacheStats = new LinkedHashMap<>();
+                cacheStats.put("hits", stats.hitCount());
+                cacheStats.put("misses", stats.missCount());
+                cacheStats.put("hitRate", stats.hitRate());
+                cacheStats.put("evictions", stats.evictionCount());
+                cacheStats.put("size", caffeineCache.getNativeCache().estimatedSize());
+                result.put(cacheName, cacheStats);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.backendpassengertransportation.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+// Потоковая запись JSON-массива: элементы сериализуются в поток ответа по одному, по мере их получения от источника,
+// поэтому весь список не собирается в памяти. Поток ответа сбрасывается клиенту по заполнении буфера,
+// а не после каждого элемента
+final class JsonArrayStream {
+
+    private JsonArrayStream() {
+    }
+
+    // Тело ответа, в которое источник передает элементы массива
+    static <T> StreamingResponseBody of(ObjectMapper objectMapper, Consumer<Consumer<T>> source) {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                source.accept(element -> {
+                    try {
+                        writer.writeValue(generator, element);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            } catch (UncheckedIOException e) {
+                throw e.getCause(); // Например, клиент закрыл соединение
+            }
+        };
+    }
+}
@@ -1,13 +1,23 @@
 package com.example.backendpassengertransportation.controller;
 
+import com.example.backendpassengertransportation.dto.KeysetPage;
+import com.example.backendpassengertransportation.dto.RouteImportResult;
+import com.example.backendpassengertransportation.dto.SeatMapView;
 import com.example.backendpassengertransportation.model.Route;
 import com.example.backendpassengertransportation.service.RouteService;
+import com.example.backendpassengertransportation.service.SeatEventBroadcaster;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collections;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -20,6 +30,14 @@ public class RouteController {
     // Сервис для работы с маршрутами
     private RouteService routeService;
 
+    @Autowired
+    // Сериализация маршрутов при потоковой выдаче
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    // Рассылка изменений количества свободных мест
+    private SeatEventBroadcaster seatEventBroadcaster;
+
     // Получение всех маршрутов
     @Operation(
             summary = "Получение всех маршрутов",
@@ -37,6 +55,39 @@ public class RouteController {
         }
     }
 
+    // Потоковое получение всех маршрутов
+    @Operation(
+            summary = "Потоковое получение всех маршрутов",
+            description = "Возвращает все маршруты в порядке ID, записывая их в ответ по мере чтения из базы данных, " +
+                    "не собирая весь каталог в памяти. Время до первого байта ответа и расход памяти " +
+                    "не зависят от размера каталога. Если маршрутов нет, возвращает пустой массив.")
+    @GetMapping(value = "", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllRoutes() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(JsonArrayStream.of(objectMapper, routeService::streamAllRoutes));
+    }
+
+    // Постраничное получение маршрутов (keyset-пагинация)
+    @Operation(
+            summary = "Постраничное получение маршрутов",
+            description = "Возвращает не более limit маршрутов с ID больше after в порядке возрастания ID. " +
+                    "Поле next содержит курсор для запроса следующей страницы (after=next) и равно null на последней странице. " +
+                    "Если параметры страницы некорректны, возвращает статус 400.")
+    @GetMapping(value = "", params = "limit")
+    public ResponseEntity<?> getRoutesPage(
+            @RequestParam(required = false) Long after,
+            @RequestParam int limit) {
+        try {
+            KeysetPage<Route> page = routeService.getRoutesPage(after, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Произошла ошибка при обработке запроса.");
+        }
+    }
+
     // Получение маршрута по ID
     @Operation(
             summary = "Получение маршрута по ID",
@@ -150,6 +201,69 @@ public class RouteController {
         }
     }
 
+    // Получение карты занятых мест маршрута
+    @Operation(
+            summary = "Карта мест маршрута",
+            description = "Возвращает занятые места маршрута в виде упакованной битовой карты (Base64): " +
+                    "место с номером n занято, если установлен бит (n - 1) % 8 байта (n - 1) / 8. " +
+                    "Бронирования без выбора места в карте не отмечаются, но учитываются в поле availableSeats: " +
+                    "если оно равно нулю, свободные по карте места выбрать нельзя. " +
+                    "Если маршрут не найден, возвращает статус 404.")
+    @GetMapping("/{id}/seat-map")
+    public ResponseEntity<?> getSeatMap(@PathVariable Long id) {
+        try {
+            SeatMapView seatMap = routeService.getSeatMap(id);
+            return ResponseEntity.ok(seatMap);
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Произошла ошибка при обработке запроса.");
+        }
+    }
+
+    // Подписка на изменения количества свободных мест и состава каталога
+    @Operation(
+            summary = "Подписка на изменения мест",
+            description = "Открывает поток Server-Sent Events. Событие seats содержит пары [ID маршрута, свободные места] " +
+                    "для маршрутов, изменившихся за интервал рассылки (только последнее значение каждого маршрута), " +
+                    "события route-added и route-removed - массивы ID созданных и удаленных маршрутов. " +
+                    "Событие resync означает, что изменения пропущены (клиент не успевал читать или выполнен импорт) " +
+                    "и каталог нужно загрузить заново. Подписку следует открыть до загрузки каталога. " +
+                    "Если превышено количество подписчиков, возвращает статус 503.")
+    @GetMapping(value = "/seat-events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribeToSeatEvents() {
+        try {
+            return ResponseEntity.ok(seatEventBroadcaster.subscribe());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    // Потоковый импорт маршрутов
+    @Operation(
+            summary = "Импорт маршрутов",
+            description = "Импортирует маршруты из тела запроса в формате CSV (format=csv) или NDJSON (format=ndjson). " +
+                    "Строка CSV содержит поля transportType, departureCity, destinationCity, departureTime, arrivalTime, " +
+                    "totalNumberSeats, numberAvailableSeats (первая строка может быть заголовком), строка NDJSON - объект с теми же полями. " +
+                    "Каждая строка проверяется по тем же правилам, что и при создании маршрута; строки с ошибками пропускаются " +
+                    "и перечисляются в ответе с номерами строк. Маршруты вставляются пакетами, каждый пакет в своей транзакции. " +
+                    "Возвращает статус 400 при неподдерживаемом формате.")
+    @PostMapping("/import")
+    public ResponseEntity<?> importRoutes(
+            @RequestParam(defaultValue = "csv") String format,
+            InputStream body) {
+        try {
+            RouteImportResult result = routeService.importRoutes(body, format);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Не удалось прочитать данные импорта.");
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Произошла ошибка при обработке запроса.");
+        }
+    }
+
     // Удаление маршрута по ID
     @Operation(
             summary = "Удаление маршрута по ID",
@@ -206,4 +320,32 @@ public class RouteController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Collections.emptyList());
         }
     }
+
+    // Комбинированный поиск маршрутов
+    @Operation(
+            summary = "Комбинированный поиск маршрутов",
+            description = "Возвращает маршруты, удовлетворяющие всем заданным фильтрам: типу транспорта, " +
+                    "пунктам отправления и назначения, дате или промежутку дат (dd.MM.yyyy) " +
+                    "и отправлению не раньше чем через указанное количество минут. " +
+                    "Все параметры необязательны. Если маршруты не найдены, возвращает статус 404.")
+    @GetMapping("/search")
+    public ResponseEntity<?> searchRoutes(
+            @RequestParam(required = false) String transportType,
+            @RequestParam(required = false) String departureCity,
+            @RequestParam(required = false) String destinationCity,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) Integer departsAfterMinutes) {
+        try {
+            List<Route> routes = routeService.searchRoutes(transportType, departureCity, destinationCity,
+                    startDate, endDate, departsAfterMinutes);
+            return ResponseEntity.ok(routes);
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Collections.emptyList());
+        }
+    }
 }
\ No newline at end of file
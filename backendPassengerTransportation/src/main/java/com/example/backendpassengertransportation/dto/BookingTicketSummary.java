@@ -0,0 +1,67 @@
+package com.example.backendpassengertransportation.dto;
+
+// Компактное представление бронирования: вместо вложенного маршрута содержит только его ID.
+// Заполняется напрямую запросом-проекцией, без загрузки сущностей BookingTicket и Route
+public class BookingTicketSummary {
+
+    private final Long idBooking; // ID бронирования
+
+    private final Long routeId; // ID маршрута
+
+    private final String passengerFullName; // ФИО пассажира
+
+    private final String passengerPhone; // Телефон пассажира
+
+    private final String passengerEmail; // Электронная почта пассажира
+
+    private final String bookingDate; // Дата и время бронирования
+
+    private final Integer seatNumber; // Номер места (null, если место не выбиралось)
+
+    // Конструктор с параметрами, используется в запросах-проекциях JPQL
+    public BookingTicketSummary(Long idBooking, Long routeId, String passengerFullName, String passengerPhone,
+                                String passengerEmail, String bookingDate, Integer seatNumber) {
+        this.idBooking = idBooking;
+        this.routeId = routeId;
+        this.passengerFullName = passengerFullName;
+        this.passengerPhone = passengerPhone;
+        this.passengerEmail = passengerEmail;
+        this.bookingDate = bookingDate;
+        this.seatNumber = seatNumber;
+    }
+
+    // Метод для получения ID бронирования
+    public Long getIdBooking() {
+        return idBooking;
+    }
+
+    // Метод для получения ID маршрута
+    public Long getRouteId() {
+        return routeId;
+    }
+
+    // Метод для получения ФИО пассажира
+    public String getPassengerFullName() {
+        return passengerFullName;
+    }
+
+    // Метод для получения телефона пассажира
+    public String getPassengerPhone() {
+        return passengerPhone;
+    }
+
+    // Метод для получения электронной почты пассажира
+    public String getPassengerEmail() {
+        return passengerEmail;
+    }
+
+    // Метод для получения даты и времени бронирования
+    public String getBookingDate() {
+        return bookingDate;
+    }
+
+    // Метод для получения номера места
+    public Integer getSeatNumber() {
+        return seatNumber;
+    }
+}
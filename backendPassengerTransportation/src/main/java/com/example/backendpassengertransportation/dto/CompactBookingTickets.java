@@ -0,0 +1,38 @@
+package com.example.backendpassengertransportation.dto;
+
+import com.example.backendpassengertransportation.model.Route;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.List;
+import java.util.Map;
+
+// Компактный ответ со списком бронирований: каждый маршрут передается один раз в словаре routes,
+// а бронирования ссылаются на него по routeId
+public class CompactBookingTickets {
+
+    private final List<BookingTicketSummary> bookingTickets; // Бронирования без вложенных маршрутов
+
+    private final Map<Long, Route> routes; // Маршруты бронирований по ID, без повторов
+
+    // Конструктор с параметрами для инициализации ответа
+    public CompactBookingTickets(List<BookingTicketSummary> bookingTickets, Map<Long, Route> routes) {
+        this.bookingTickets = bookingTickets;
+        this.routes = routes;
+    }
+
+    // Метод для получения списка бронирований
+    public List<BookingTicketSummary> getBookingTickets() {
+        return bookingTickets;
+    }
+
+    // Метод для получения маршрутов по ID
+    public Map<Long, Route> getRoutes() {
+        return routes;
+    }
+
+    // Метод для проверки, что список бронирований пуст
+    @JsonIgnore
+    public boolean isEmpty() {
+        return bookingTickets.isEmpty();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.backendpassengertransportation.dto;
+
+import java.util.List;
+
+// Тело запроса группового бронирования: один маршрут и список пассажиров
+public class GroupBookingRequest {
+
+    private Long routeId; // ID маршрута
+
+    private List<Passenger> passengers; // Пассажиры группы
+
+    // Конструктор по умолчанию
+    public GroupBookingRequest() {
+        // Пустой конструктор, необходим для десериализации JSON
+    }
+
+    // Конструктор с параметрами для инициализации запроса
+    public GroupBookingRequest(Long routeId, List<Passenger> passengers) {
+        this.routeId = routeId;
+        this.passengers = passengers;
+    }
+
+    // Метод для получения ID маршрута
+    public Long getRouteId() {
+        return routeId;
+    }
+
+    // Метод для установки ID маршрута
+    public void setRouteId(Long routeId) {
+        this.routeId = routeId;
+    }
+
+    // Метод для получения списка пассажиров
+    public List<Passenger> getPassengers() {
+        return passengers;
+    }
+
+    // Метод для установки списка пассажиров
+    public void setPassengers(List<Passenger> passengers) {
+        this.passengers = passengers;
+    }
+
+    // Данные одного пассажира группы
+    public static class Passenger {
+
+        private String passengerFullName; // ФИО пассажира
+
+        private String passengerPhone; // Телефон пассажира
+
+        private String passengerEmail; // Электронная почта пассажира
+
+        private Integer seatNumber; // Номер места (необязательно)
+
+        // Конструктор по умолчанию
+        public Passenger() {
+            // Пустой конструктор, необходим для десериализации JSON
+        }
+
+        // Конструктор с параметрами для инициализации данных пассажира
+        public Passenger(String passengerFullName, String passengerPhone, String passengerEmail) {
+            this.passengerFullName = passengerFullName;
+            this.passengerPhone = passengerPhone;
+            this.passengerEmail = passengerEmail;
+        }
+
+        // Метод для получения ФИО пассажира
+        public String getPassengerFullName() {
+            return passengerFullName;
+        }
+
+        // Метод для установки ФИО пассажира
+        public void setPassengerFullName(String passengerFullName) {
+            this.passengerFullName = passengerFullName;
+        }
+
+        // Метод для получения телефона пассажира
+        public String getPassengerPhone() {
+            return passengerPhone;
+        }
+
+        // Метод для установки телефона пассажира
+        public void setPassengerPhone(String passengerPhone) {
+            this.passengerPhone = passengerPhone;
+        }
+
+        // Метод для получения электронной почты пассажира
+        public String getPassengerEmail() {
+            return passengerEmail;
+        }
+
+        // Метод для установки электронной почты пассажира
+        public void setPassengerEmail(String passengerEmail) {
+            this.passengerEmail = passengerEmail;
+        }
+
+        // Метод для получения номера места
+        public Integer getSeatNumber() {
+            return seatNumber;
+        }
+
+        // Метод для установки номера места
+        public void setSeatNumber(Integer seatNumber) {
+            this.seatNumber = seatNumber;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.backendpassengertransportation.dto;
+
+import java.util.List;
+
+// Страница результатов с курсорной (keyset) пагинацией.
+// Следующая страница запрашивается с параметром after, равным значению next
+public class KeysetPage<T> {
+
+    private final List<T> items; // Элементы текущей страницы
+
+    private final Long next; // Курсор следующей страницы (ID последнего элемента) или null, если страница последняя
+
+    // Конструктор с параметрами для инициализации страницы
+    public KeysetPage(List<T> items, Long next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    // Метод для получения элементов страницы
+    public List<T> getItems() {
+        return items;
+    }
+
+    // Метод для получения курсора следующей страницы
+    public Long getNext() {
+        return next;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.backendpassengertransportation.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Результат импорта маршрутов: количество импортированных и отклоненных строк и ошибки по строкам
+public class RouteImportResult {
+
+    // Максимальное количество ошибок, возвращаемых в ответе (остальные только подсчитываются)
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private long imported; // Количество импортированных маршрутов
+
+    private long failed; // Количество отклоненных строк
+
+    private final List<LineError> errors = new ArrayList<>(); // Ошибки по строкам (не более MAX_REPORTED_ERRORS)
+
+    // Метод для учета импортированных маршрутов
+    public void addImported(int count) {
+        imported += count;
+    }
+
+    // Метод для учета ошибки в строке входных данных
+    public void addError(long line, String message) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new LineError(line, message));
+        }
+    }
+
+    // Метод для получения количества импортированных маршрутов
+    public long getImported() {
+        return imported;
+    }
+
+    // Метод для получения количества отклоненных строк
+    public long getFailed() {
+        return failed;
+    }
+
+    // Метод для получения ошибок по строкам
+    public List<LineError> getErrors() {
+        return errors;
+    }
+
+    // Метод для проверки, что в ответ попали не все ошибки
+    public boolean isErrorsTruncated() {
+        return failed > errors.size();
+    }
+
+    // Ошибка в одной строке входных данных
+    public static class LineError {
+
+        private final long line; // Номер строки (начиная с 1)
+
+        private final String message; // Описание ошибки
+
+        // Конструктор с параметрами для инициализации ошибки
+        public LineError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        // Метод для получения номера строки
+        public long getLine() {
+            return line;
+        }
+
+        // Метод для получения описания ошибки
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.backendpassengertransportation.dto;
+
+// Временное удержание места: ID удержания, маршрут, номер места и время истечения
+public class SeatHoldView {
+
+    private final String holdId; // ID удержания
+
+    private final Long routeId; // ID маршрута
+
+    private final Integer seatNumber; // Номер места (null, если место не выбиралось)
+
+    private final String expiresAt; // Время истечения удержания в формате yyyy-MM-dd HH:mm:ss
+
+    // Конструктор с параметрами для инициализации удержания
+    public SeatHoldView(String holdId, Long routeId, Integer seatNumber, String expiresAt) {
+        this.holdId = holdId;
+        this.routeId = routeId;
+        this.seatNumber = seatNumber;
+        this.expiresAt = expiresAt;
+    }
+
+    // Метод для получения ID удержания
+    public String getHoldId() {
+        return holdId;
+    }
+
+    // Метод для получения ID маршрута
+    public Long getRouteId() {
+        return routeId;
+    }
+
+    // Метод для получения номера места
+    public Integer getSeatNumber() {
+        return seatNumber;
+    }
+
+    // Метод для получения времени истечения удержания
+    public String getExpiresAt() {
+        return expiresAt;
+    }
+}
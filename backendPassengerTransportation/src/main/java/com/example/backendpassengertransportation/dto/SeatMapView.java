@@ -0,0 +1,52 @@
+package com.example.backendpassengertransportation.dto;
+
+// Карта мест маршрута в упакованном виде.
+// Место с номером n занято, если установлен бит (n - 1) % 8 байта (n - 1) / 8; в JSON массив байтов передается в Base64.
+// Бронирования без выбора места занимают место в счетчике свободных мест, но не в битовой карте, поэтому
+// выбрать свободное по карте место можно, только если availableSeats больше нуля
+public class SeatMapView {
+
+    private final Long routeId; // ID маршрута
+
+    private final int totalSeats; // Общее количество мест
+
+    private final int occupiedSeats; // Количество мест, занятых бронированиями с номером места
+
+    private final int availableSeats; // Количество свободных мест с учетом бронирований без номера места
+
+    private final byte[] bitmap; // Битовая карта занятых мест
+
+    // Конструктор с параметрами для инициализации карты мест
+    public SeatMapView(Long routeId, int totalSeats, int occupiedSeats, int availableSeats, byte[] bitmap) {
+        this.routeId = routeId;
+        this.totalSeats = totalSeats;
+        this.occupiedSeats = occupiedSeats;
+        this.availableSeats = availableSeats;
+        this.bitmap = bitmap;
+    }
+
+    // Метод для получения ID маршрута
+    public Long getRouteId() {
+        return routeId;
+    }
+
+    // Метод для получения общего количества мест
+    public int getTotalSeats() {
+        return totalSeats;
+    }
+
+    // Метод для получения количества занятых мест
+    public int getOccupiedSeats() {
+        return occupiedSeats;
+    }
+
+    // Метод для получения количества свободных мест
+    public int getAvailableSeats() {
+        return availableSeats;
+    }
+
+    // Метод для получения битовой карты занятых мест
+    public byte[] getBitmap() {
+        return bitmap;
+    }
+}
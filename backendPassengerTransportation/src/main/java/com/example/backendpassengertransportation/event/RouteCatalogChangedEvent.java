@@ -0,0 +1,37 @@
+package com.example.backendpassengertransportation.event;
+
+// Событие изменения каталога маршрутов: создание, удаление или импорт маршрутов
+public class RouteCatalogChangedEvent {
+
+    // Вид изменения
+    public enum Change {
+        UPDATED, // Изменение маршрута или нескольких маршрутов сразу
+        CREATED, // Создание маршрута
+        DELETED // Удаление маршрута
+    }
+
+    private final Change change; // Вид изменения
+
+    private final Long routeId; // ID измененного маршрута (null, если изменено несколько маршрутов)
+
+    // Конструктор с параметрами для инициализации события
+    public RouteCatalogChangedEvent(Long routeId) {
+        this(Change.UPDATED, routeId);
+    }
+
+    // Конструктор с параметрами для инициализации события указанного вида
+    public RouteCatalogChangedEvent(Change change, Long routeId) {
+        this.change = change;
+        this.routeId = routeId;
+    }
+
+    // Метод для получения вида изменения
+    public Change getChange() {
+        return change;
+    }
+
+    // Метод для получения идентификатора измененного маршрута
+    public Long getRouteId() {
+        return routeId;
+    }
+}
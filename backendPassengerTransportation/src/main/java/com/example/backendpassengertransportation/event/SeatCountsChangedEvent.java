@@ -0,0 +1,22 @@
+package com.example.backendpassengertransportation.event;
+
+import java.util.Collection;
+import java.util.List;
+
+// Событие записи в базу изменений количества свободных мест.
+// В отличие от изменения каталога не сбрасывает кэш маршрутов сразу: количество мест меняется при каждом бронировании,
+// и кэш обновляется не чаще интервала обновления мест (см. RouteCacheInvalidator)
+public class SeatCountsChangedEvent {
+
+    private final List<Long> routeIds; // ID маршрутов с измененным количеством мест
+
+    // Конструктор с параметрами для инициализации события
+    public SeatCountsChangedEvent(Collection<Long> routeIds) {
+        this.routeIds = List.copyOf(routeIds);
+    }
+
+    // Метод для получения ID маршрутов с измененным количеством мест
+    public List<Long> getRouteIds() {
+        return routeIds;
+    }
+}
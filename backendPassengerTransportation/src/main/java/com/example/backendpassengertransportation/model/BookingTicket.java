@@ -30,6 +30,9 @@ public class BookingTicket {
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private String bookingDate; // Дата и время бронирования
 
+    @Column(name = "seat_number")
+    private Integer seatNumber; // Номер места (null, если место при бронировании не выбиралось)
+
     // Конструктор по умолчанию
     public BookingTicket() {
         // Пустой конструктор, необходим для работы с JPA
@@ -103,4 +106,14 @@ public class BookingTicket {
     public void setBookingDate(String bookingDate) {
         this.bookingDate = bookingDate;
     }
+
+    // Метод для получения номера места
+    public Integer getSeatNumber() {
+        return seatNumber;
+    }
+
+    // Метод для установки номера места
+    public void setSeatNumber(Integer seatNumber) {
+        this.seatNumber = seatNumber;
+    }
 }
\ No newline at end of file
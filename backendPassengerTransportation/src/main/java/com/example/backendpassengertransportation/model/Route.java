@@ -1,9 +1,13 @@
 package com.example.backendpassengertransportation.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "routes")
+@Table(name = "routes", indexes = {
+        // Индекс для диапазонного поиска маршрутов по дате отправления
+        @Index(name = "idx_routes_departure_time", columnList = "departure_time")
+})
 public class Route {
 
     @Id
@@ -21,10 +25,10 @@ public class Route {
     private String destinationCity; // Город назначения
 
     @Column(name = "departure_time", nullable = false)
-    private String departureTime; // Дата и время отправления
+    private String departureTime; // Дата и время отправления в формате yyyy-MM-dd HH:mm:ss
 
     @Column(name = "arrival_time", nullable = false)
-    private String arrivalTime; // Дата и время прибытия
+    private String arrivalTime; // Дата и время прибытия в формате yyyy-MM-dd HH:mm:ss
 
     @Column(name = "total_number_seats", nullable = false)
     private int totalNumberSeats; // Общее количество мест
@@ -32,6 +36,12 @@ public class Route {
     @Column(name = "number_available_seats", nullable = false)
     private int numberAvailableSeats; // Количество доступных мест
 
+    // Количество мест, доступных для бронирования при создании маршрута (не меняется при бронировании).
+    // По нему и количеству бронирований восстанавливаются свободные места при запуске
+    @JsonIgnore
+    @Column(name = "bookable_seats")
+    private Integer bookableSeats;
+
     // Конструктор по умолчанию
     public Route() {
         // Пустой конструктор, необходим для работы с JPA
@@ -47,6 +57,7 @@ public class Route {
         this.arrivalTime = arrivalTime;
         this.totalNumberSeats = totalNumberSeats;
         this.numberAvailableSeats = numberAvailableSeats;
+        this.bookableSeats = numberAvailableSeats;
     }
 
     // Метод для получения идентификатора маршрута
@@ -1,15 +1,27 @@
 package com.example.backendpassengertransportation.repository;
 
+import com.example.backendpassengertransportation.dto.BookingTicketSummary;
 import com.example.backendpassengertransportation.model.BookingTicket;
 import com.example.backendpassengertransportation.model.Route;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-// Интерфейс BookingTicketRepository наследует функциональность от JpaRepository
+@Transactional(readOnly = true)
+// Интерфейс BookingTicketRepository наследует функциональность от JpaRepository.
+// Методы чтения выполняются в транзакциях только для чтения, чтобы профиль "wal" направлял их в пул чтения
 public interface BookingTicketRepository extends JpaRepository<BookingTicket, Long> {
 
     // Проверка наличия бронирования для конкретного маршрута
@@ -23,4 +35,37 @@ public interface BookingTicketRepository extends JpaRepository<BookingTicket, Lo
 
     // Получение всех бронирований для определенного маршрута
     List<BookingTicket> findByRoute(Route route);
+
+    // Страница бронирований с ID больше курсора в порядке первичного ключа (keyset-пагинация).
+    // Маршруты загружаются тем же запросом, без отдельного запроса на каждое бронирование
+    @EntityGraph(attributePaths = "route")
+    List<BookingTicket> findByIdBookingGreaterThanOrderByIdBookingAsc(Long idBooking, Limit limit);
+
+    // Все бронирования с маршрутами в порядке первичного ключа в виде потока.
+    // Маршрут загружается тем же запросом, строки читаются из курсора JDBC порциями по fetch size;
+    // поток нужно читать и закрывать внутри транзакции
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + RouteRepository.STREAM_FETCH_SIZE))
+    @Query("SELECT b FROM BookingTicket b JOIN FETCH b.route ORDER BY b.idBooking")
+    Stream<BookingTicket> streamAllWithRoute();
+
+    // Компактные представления бронирований (проекция без загрузки сущностей; ID маршрута берется из внешнего ключа без соединения)
+    @Query("SELECT new com.example.backendpassengertransportation.dto.BookingTicketSummary(" +
+            "b.idBooking, b.route.idRoute, b.passengerFullName, b.passengerPhone, b.passengerEmail, b.bookingDate, " +
+            "b.seatNumber) " +
+            "FROM BookingTicket b ORDER BY b.idBooking")
+    List<BookingTicketSummary> findAllSummaries();
+
+    // Компактные представления бронирований пассажира по ФИО
+    @Query("SELECT new com.example.backendpassengertransportation.dto.BookingTicketSummary(" +
+            "b.idBooking, b.route.idRoute, b.passengerFullName, b.passengerPhone, b.passengerEmail, b.bookingDate, " +
+            "b.seatNumber) " +
+            "FROM BookingTicket b WHERE b.passengerFullName = :passengerFullName ORDER BY b.idBooking")
+    List<BookingTicketSummary> findSummariesByPassengerFullName(@Param("passengerFullName") String passengerFullName);
+
+    // Компактные представления бронирований маршрута
+    @Query("SELECT new com.example.backendpassengertransportation.dto.BookingTicketSummary(" +
+            "b.idBooking, b.route.idRoute, b.passengerFullName, b.passengerPhone, b.passengerEmail, b.bookingDate, " +
+            "b.seatNumber) " +
+            "FROM BookingTicket b WHERE b.route.idRoute = :routeId ORDER BY b.idBooking")
+    List<BookingTicketSummary> findSummariesByRouteId(@Param("routeId") Long routeId);
 }
\ No newline at end of file
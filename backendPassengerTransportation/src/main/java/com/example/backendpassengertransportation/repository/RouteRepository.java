@@ -1,13 +1,28 @@
 package com.example.backendpassengertransportation.repository;
 
 import com.example.backendpassengertransportation.model.Route;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
+import java.util.stream.Stream;
 
-// Интерфейс RouteRepository наследует функциональность от JpaRepository
+// Интерфейс RouteRepository наследует функциональность от JpaRepository,
+// а JpaSpecificationExecutor позволяет собирать комбинированный поиск в один запрос.
+// Методы чтения выполняются в транзакциях только для чтения, чтобы профиль "wal" направлял их в пул чтения
 @Repository
-public interface RouteRepository extends JpaRepository<Route, Long> {
+@Transactional(readOnly = true)
+public interface RouteRepository extends JpaRepository<Route, Long>, JpaSpecificationExecutor<Route> {
+
+    // Количество строк, читаемых из курсора за одно обращение при потоковой выдаче маршрутов и бронирований
+    int STREAM_FETCH_SIZE = 500;
 
     // Поиск маршрутов по типу транспорта
     List<Route> findByTransportType(String transportType);
@@ -20,4 +35,19 @@ public interface RouteRepository extends JpaRepository<Route, Long> {
 
     // Поиск маршрутов по пункту назначения
     List<Route> findByDestinationCity(String destinationCity);
+
+    // Поиск маршрутов, отправляющихся в полуинтервале [from, to).
+    // Время хранится в сортируемом текстовом формате yyyy-MM-dd HH:mm:ss, поэтому сравнение строк
+    // совпадает с хронологическим, а условие выполняется как диапазонное сканирование индекса idx_routes_departure_time
+    @Query("SELECT r FROM Route r WHERE r.departureTime >= :from AND r.departureTime < :to ORDER BY r.departureTime")
+    List<Route> findByDepartureTimeRange(@Param("from") String from, @Param("to") String to);
+
+    // Страница маршрутов с ID больше курсора в порядке первичного ключа (keyset-пагинация)
+    List<Route> findByIdRouteGreaterThanOrderByIdRouteAsc(Long idRoute, Limit limit);
+
+    // Все маршруты в порядке первичного ключа в виде потока: строки читаются из курсора JDBC порциями по fetch size,
+    // поток нужно читать и закрывать внутри транзакции
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + RouteRepository.STREAM_FETCH_SIZE))
+    @Query("SELECT r FROM Route r ORDER BY r.idRoute")
+    Stream<Route> streamAll();
 }
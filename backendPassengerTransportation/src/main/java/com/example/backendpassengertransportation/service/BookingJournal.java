@@ -0,0 +1,247 @@
+package com.example.backendpassengertransportation.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Журнал событий бронирований только для добавления: создание и удаление бронирований и изменения количества мест.
+// Записи фиксированной длины пишутся в отображенный в память файл сегмента без системных вызовов на каждую запись,
+// содержимое сбрасывается на диск периодически, поэтому журнал не добавляет синхронных записей в путь бронирования.
+// Журнал сохраняет историю удаленных бронирований и позволяет восстановить состояние инструментом BookingJournalReplay
+@Component
+public class BookingJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingJournal.class);
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("bookings-(\\d{8})\\.journal"); // Имя файла сегмента
+
+    @Value("${bookings.journal.enabled:true}")
+    private boolean enabled; // Признак ведения журнала
+
+    @Value("${bookings.journal.directory:journal}")
+    private Path directory; // Каталог сегментов журнала
+
+    @Value("${bookings.journal.segment-size:64MB}")
+    private DataSize segmentSize; // Размер файла сегмента
+
+    private FileChannel channel; // Файл текущего сегмента
+
+    private MappedByteBuffer buffer; // Отображение текущего сегмента в память
+
+    private int segmentIndex; // Номер текущего сегмента
+
+    private int position; // Смещение следующей записи в текущем сегменте
+
+    private long sequence; // Номер последней записи
+
+    private boolean dirty; // Есть записи, еще не сброшенные на диск
+
+    // Блокировка записи в журнал (ReentrantLock не закрепляет виртуальный поток за потоком-носителем при сбросе на диск)
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Открытие журнала: продолжение последнего сегмента после последней целой записи
+    @PostConstruct
+    public void open() throws IOException {
+        lock.lock();
+        try {
+            if (!enabled) {
+                return;
+            }
+            Files.createDirectories(directory);
+            List<Path> segments = segments(directory);
+            if (segments.isEmpty()) {
+                openSegment(1);
+                return;
+            }
+
+            // Номер последней записи берется из последнего сегмента (или из предыдущего, если последний пуст)
+            for (int i = segments.size() - 1; i >= 0 && sequence == 0; i--) {
+                sequence = lastSequence(segments.get(i));
+            }
+            openSegment(segmentIndex(segments.get(segments.size() - 1)));
+            while (BookingJournalRecord.readFrom(buffer, position) != null) {
+                position += BookingJournalRecord.SIZE;
+            }
+
+            // Запись, поврежденная при аварийной остановке, и все после нее затираются, чтобы при чтении
+            // после нее не оказались устаревшие записи
+            if (position + BookingJournalRecord.SIZE <= buffer.capacity() && buffer.getLong(position) != 0) {
+                log.warn("Журнал бронирований: поврежденный конец сегмента {} затерт с позиции {}", segmentIndex, position);
+                for (int i = position; i < buffer.capacity(); i++) {
+                    buffer.put(i, (byte) 0);
+                }
+                buffer.force();
+            }
+            log.info("Журнал бронирований открыт: сегмент {}, последняя запись {}", segmentIndex, sequence);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Добавление события в журнал
+    public void append(BookingJournalRecord.Type type, long bookingId, long routeId, int value) {
+        lock.lock();
+        try {
+            if (!enabled || buffer == null) {
+                return;
+            }
+            try {
+                if (position + BookingJournalRecord.SIZE > buffer.capacity()) {
+                    buffer.force();
+                    channel.close();
+                    openSegment(segmentIndex + 1);
+                }
+                new BookingJournalRecord(++sequence, System.currentTimeMillis(), type, bookingId, routeId, value)
+                        .writeTo(buffer, position);
+                position += BookingJournalRecord.SIZE;
+                dirty = true;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Не удалось открыть следующий сегмент журнала бронирований.", e);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Добавление события после фиксации текущей транзакции (откаченные изменения в журнал не попадают)
+    public void appendAfterCommit(BookingJournalRecord.Type type, long bookingId, long routeId, int value) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                append(type, bookingId, routeId, value);
+            }
+        });
+    }
+
+    // Периодический сброс записанных событий на диск.
+    // Сброс выполняется вне блокировки, чтобы добавление событий не ожидало завершения записи на диск
+    @Scheduled(fixedDelayString = "${bookings.journal.fsync-interval-ms:1000}")
+    public void force() {
+        MappedByteBuffer toForce;
+        lock.lock();
+        try {
+            if (!dirty || buffer == null) {
+                return;
+            }
+            toForce = buffer;
+            dirty = false;
+        } finally {
+            lock.unlock();
+        }
+        toForce.force();
+    }
+
+    // Сброс на диск и закрытие журнала при остановке приложения
+    @PreDestroy
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (buffer == null) {
+                return;
+            }
+            force();
+            channel.close();
+            buffer = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Получение номера последней записи
+    public long getLastSequence() {
+        lock.lock();
+        try {
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Восстановление по журналу состояния маршрутов: количество мест по последнему снимку и изменениям после него.
+    // Используется при восстановлении счетчиков мест, чтобы не записывать снимок, который журнал уже восстанавливает.
+    // Если журнал не ведется или не читается, возвращается пустой словарь (снимки будут записаны заново)
+    public Map<Long, BookingJournalReplay.RouteState> replayRoutes() {
+        lock.lock();
+        try {
+            if (!enabled || buffer == null) {
+                return Map.of();
+            }
+            return BookingJournalReplay.replay(directory).getRoutes();
+        } catch (IOException e) {
+            log.warn("Не удалось прочитать журнал бронирований, снимки мест будут записаны заново", e);
+            return Map.of();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Получение файлов сегментов каталога в порядке номеров
+    static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> SEGMENT_NAME.matcher(file.getFileName().toString()).matches())
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    // Открытие (или создание заполненного нулями) сегмента с указанным номером
+    private void openSegment(int index) throws IOException {
+        long capacity = segmentSize.toBytes() / BookingJournalRecord.SIZE * BookingJournalRecord.SIZE;
+        if (capacity < BookingJournalRecord.SIZE || capacity > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Размер сегмента журнала должен быть от "
+                    + BookingJournalRecord.SIZE + " байт до 2 ГБ.");
+        }
+        Path file = directory.resolve(String.format("bookings-%08d.journal", index));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(capacity, channel.size()));
+        segmentIndex = index;
+        position = 0;
+    }
+
+    // Номер последней целой записи сегмента
+    private static long lastSequence(Path segment) throws IOException {
+        try (FileChannel file = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = file.map(FileChannel.MapMode.READ_ONLY, 0, file.size());
+            long last = 0;
+            BookingJournalRecord record;
+            for (int offset = 0; (record = BookingJournalRecord.readFrom(mapped, offset)) != null;
+                 offset += BookingJournalRecord.SIZE) {
+                last = record.sequence();
+            }
+            return last;
+        }
+    }
+
+    // Номер сегмента по имени файла
+    private static int segmentIndex(Path segment) {
+        Matcher matcher = SEGMENT_NAME.matcher(segment.getFileName().toString());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Неверное имя сегмента журнала: " + segment);
+        }
+        return Integer.parseInt(matcher.group(1));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.backendpassengertransportation.service;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+// Запись журнала бронирований фиксированной длины (48 байт, порядок байтов big-endian):
+//  0  long  номер записи (возрастает на единицу, начиная с 1)
+//  8  long  время события, мс от начала эпохи
+// 16  long  ID бронирования (0 для изменения количества мест; для снимка маршрута - места, доступные для бронирования)
+// 24  long  ID маршрута
+// 32  int   номер места (-1, если место не выбиралось), изменение количества мест или свободные места снимка маршрута
+// 36  byte  тип события
+// 37        резерв (нули)
+// 44  int   CRC32 байтов 0..43
+// Запись с нулевым номером - конец журнала (файл сегмента заполнен нулями заранее)
+public record BookingJournalRecord(long sequence, long timestamp, Type type, long bookingId, long routeId, int value) {
+
+    public static final int SIZE = 48; // Размер записи в байтах
+
+    private static final int CRC_OFFSET = 44; // Смещение контрольной суммы
+
+    public static final int NO_SEAT = -1; // Значение номера места для бронирования без выбора места
+
+    // Тип события журнала
+    public enum Type {
+        BOOKING_CREATED(1), // Создание бронирования
+        BOOKING_CANCELLED(2), // Удаление бронирования
+        SEAT_DELTA(3), // Изменение количества свободных мест маршрута, записанное в базу
+        ROUTE_SNAPSHOT(4); // Места маршрута при загрузке счетчика: доступные для бронирования и свободные в базе
+
+        private final byte code; // Код типа в записи
+
+        Type(int code) {
+            this.code = (byte) code;
+        }
+
+        // Получение типа по коду; null для неизвестного кода
+        static Type fromCode(byte code) {
+            for (Type type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            return null;
+        }
+    }
+
+    // Запись в буфер по указанному смещению (позиция буфера не меняется)
+    public void writeTo(ByteBuffer buffer, int offset) {
+        buffer.putLong(offset, sequence);
+        buffer.putLong(offset + 8, timestamp);
+        buffer.putLong(offset + 16, bookingId);
+        buffer.putLong(offset + 24, routeId);
+        buffer.putInt(offset + 32, value);
+        buffer.put(offset + 36, type.code);
+        for (int i = 37; i < CRC_OFFSET; i++) {
+            buffer.put(offset + i, (byte) 0);
+        }
+        buffer.putInt(offset + CRC_OFFSET, crc(buffer, offset));
+    }
+
+    // Чтение записи по указанному смещению.
+    // Возвращает null для конца журнала и для записи, поврежденной при аварийной остановке (несовпадение CRC)
+    public static BookingJournalRecord readFrom(ByteBuffer buffer, int offset) {
+        if (offset + SIZE > buffer.limit()) {
+            return null;
+        }
+        long sequence = buffer.getLong(offset);
+        if (sequence == 0 || buffer.getInt(offset + CRC_OFFSET) != crc(buffer, offset)) {
+            return null;
+        }
+        Type type = Type.fromCode(buffer.get(offset + 36));
+        if (type == null) {
+            return null;
+        }
+        return new BookingJournalRecord(sequence, buffer.getLong(offset + 8), type,
+                buffer.getLong(offset + 16), buffer.getLong(offset + 24), buffer.getInt(offset + 32));
+    }
+
+    // Контрольная сумма данных записи
+    private static int crc(ByteBuffer buffer, int offset) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset, CRC_OFFSET));
+        return (int) crc.getValue();
+    }
+}
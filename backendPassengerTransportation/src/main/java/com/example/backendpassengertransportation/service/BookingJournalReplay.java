@@ -0,0 +1,194 @@
+package com.example.backendpassengertransportation.service;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+// Инструмент восстановления состояния бронирований по журналу: действующие бронирования, занятые места
+// и количество свободных мест по маршрутам. Количество мест восстанавливается от последнего снимка маршрута
+// (записывается при загрузке счетчика мест: при запуске, если сохраненные места расходятся с журналом, и при первом
+// обращении к созданному или импортированному маршруту) с суммой записанных после него изменений; для маршрута без снимка известна только сумма изменений
+// Запуск без приложения (каталог журнала по умолчанию - journal):
+//   java -cp backendPassengerTransportation.jar -Dloader.main=com.example.backendpassengertransportation.service.BookingJournalReplay \
+//        org.springframework.boot.loader.launch.PropertiesLauncher [каталог журнала]
+public final class BookingJournalReplay {
+
+    private BookingJournalReplay() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Paths.get(args.length > 0 ? args[0] : "journal");
+        Result result = replay(directory);
+
+        System.out.printf("Прочитано записей: %d, последняя запись: %d%s%n", result.getRecords(), result.getLastSequence(),
+                result.isGapDetected() ? " (обнаружен разрыв номеров, чтение остановлено)" : "");
+        System.out.printf("Действующих бронирований: %d%n", result.getActiveBookings().size());
+        System.out.printf("%-10s %-12s %-12s %-14s %-14s %-14s %-14s%n", "Маршрут", "Создано", "Удалено", "Действующих",
+                "Мест", "Свободно", "Изм. мест");
+        for (Map.Entry<Long, RouteState> entry : result.getRoutes().entrySet()) {
+            RouteState route = entry.getValue();
+            System.out.printf("%-10d %-12d %-12d %-14d %-14s %-14s %-14d%n", entry.getKey(), route.getCreated(),
+                    route.getCancelled(), route.getActiveBookings(),
+                    route.hasSnapshot() ? String.valueOf(route.getBookableSeats()) : "-",
+                    route.hasSnapshot() ? String.valueOf(route.getAvailableSeats()) : "-", route.getSeatDelta());
+        }
+    }
+
+    // Чтение всех сегментов журнала по порядку до конца журнала, поврежденной записи или разрыва номеров
+    public static Result replay(Path directory) throws IOException {
+        Result result = new Result();
+        for (Path segment : BookingJournal.segments(directory)) {
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                BookingJournalRecord record;
+                for (int offset = 0; (record = BookingJournalRecord.readFrom(buffer, offset)) != null;
+                     offset += BookingJournalRecord.SIZE) {
+                    if (result.lastSequence != 0 && record.sequence() != result.lastSequence + 1) {
+                        result.gapDetected = true;
+                        return result;
+                    }
+                    result.apply(record);
+                }
+            }
+        }
+        return result;
+    }
+
+    // Состояние, восстановленное по журналу
+    public static final class Result {
+
+        private final Map<Long, Booking> activeBookings = new HashMap<>(); // Действующие бронирования по ID
+
+        private final Map<Long, RouteState> routes = new TreeMap<>(); // Состояние маршрутов по ID
+
+        private long records; // Количество прочитанных записей
+
+        private long lastSequence; // Номер последней прочитанной записи
+
+        private boolean gapDetected; // Признак разрыва номеров записей
+
+        // Применение события журнала
+        private void apply(BookingJournalRecord record) {
+            RouteState route = routes.computeIfAbsent(record.routeId(), id -> new RouteState());
+            switch (record.type()) {
+                case BOOKING_CREATED -> {
+                    Integer seatNumber = record.value() == BookingJournalRecord.NO_SEAT ? null : record.value();
+                    activeBookings.put(record.bookingId(), new Booking(record.routeId(), seatNumber, record.timestamp()));
+                    route.created++;
+                    if (seatNumber != null) {
+                        route.occupiedSeats.add(seatNumber);
+                    }
+                }
+                case BOOKING_CANCELLED -> {
+                    Booking booking = activeBookings.remove(record.bookingId());
+                    route.cancelled++;
+                    if (booking != null && booking.seatNumber() != null) {
+                        route.occupiedSeats.remove(booking.seatNumber());
+                    }
+                }
+                case SEAT_DELTA -> route.seatDelta += record.value();
+                case ROUTE_SNAPSHOT -> {
+                    route.bookableSeats = (int) record.bookingId();
+                    route.snapshotAvailable = record.value();
+                    route.seatDelta = 0;
+                }
+            }
+            records++;
+            lastSequence = record.sequence();
+        }
+
+        // Получение действующих бронирований по ID
+        public Map<Long, Booking> getActiveBookings() {
+            return Collections.unmodifiableMap(activeBookings);
+        }
+
+        // Получение состояния маршрутов по ID
+        public Map<Long, RouteState> getRoutes() {
+            return Collections.unmodifiableMap(routes);
+        }
+
+        // Получение количества прочитанных записей
+        public long getRecords() {
+            return records;
+        }
+
+        // Получение номера последней прочитанной записи
+        public long getLastSequence() {
+            return lastSequence;
+        }
+
+        // Признак разрыва номеров записей
+        public boolean isGapDetected() {
+            return gapDetected;
+        }
+    }
+
+    // Действующее бронирование: маршрут, номер места (null, если не выбиралось) и время создания
+    public record Booking(long routeId, Integer seatNumber, long createdAt) {
+    }
+
+    // Состояние маршрута по журналу
+    public static final class RouteState {
+
+        private int created; // Создано бронирований
+
+        private int cancelled; // Удалено бронирований
+
+        private long seatDelta; // Суммарное изменение количества свободных мест после последнего снимка
+
+        private int bookableSeats = -1; // Места, доступные для бронирования, по последнему снимку (-1 - снимка нет)
+
+        private int snapshotAvailable; // Свободные места по последнему снимку
+
+        private final SortedSet<Integer> occupiedSeats = new TreeSet<>(); // Занятые номера мест
+
+        // Получение количества созданных бронирований
+        public int getCreated() {
+            return created;
+        }
+
+        // Получение количества удаленных бронирований
+        public int getCancelled() {
+            return cancelled;
+        }
+
+        // Получение количества действующих бронирований
+        public int getActiveBookings() {
+            return created - cancelled;
+        }
+
+        // Получение суммарного изменения количества свободных мест после последнего снимка
+        public long getSeatDelta() {
+            return seatDelta;
+        }
+
+        // Признак наличия снимка мест маршрута
+        public boolean hasSnapshot() {
+            return bookableSeats >= 0;
+        }
+
+        // Получение количества мест, доступных для бронирования, по последнему снимку (-1, если снимка нет)
+        public int getBookableSeats() {
+            return bookableSeats;
+        }
+
+        // Получение количества свободных мест: снимок и изменения после него (-1, если снимка нет)
+        public long getAvailableSeats() {
+            return hasSnapshot() ? snapshotAvailable + seatDelta : -1;
+        }
+
+        // Получение занятых номеров мест
+        public SortedSet<Integer> getOccupiedSeats() {
+            return Collections.unmodifiableSortedSet(occupiedSeats);
+        }
+    }
+}
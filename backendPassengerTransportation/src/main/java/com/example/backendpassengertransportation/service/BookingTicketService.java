@@ -1,18 +1,41 @@
 package com.example.backendpassengertransportation.service;
 
+import com.example.backendpassengertransportation.dto.BookingTicketSummary;
+import com.example.backendpassengertransportation.dto.CompactBookingTickets;
+import com.example.backendpassengertransportation.dto.GroupBookingRequest;
+import com.example.backendpassengertransportation.dto.KeysetPage;
 import com.example.backendpassengertransportation.model.BookingTicket;
 import com.example.backendpassengertransportation.model.Route;
 import com.example.backendpassengertransportation.repository.BookingTicketRepository;
 import com.example.backendpassengertransportation.repository.RouteRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.sql.Types;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 @Service
 public class BookingTicketService {
@@ -23,6 +46,27 @@ public class BookingTicketService {
     @Autowired
     private RouteRepository routeRepository; // Репозиторий для работы с маршрутами
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate; // Пакетная вставка бронирований группы
+
+    @Autowired
+    private SeatInventory seatInventory; // Учет свободных мест маршрутов в памяти
+
+    @Autowired
+    private SeatMap seatMap; // Карта занятых мест маршрутов
+
+    @Autowired
+    private BookingJournal bookingJournal; // Журнал событий бронирований
+
+    @Autowired
+    private BookingWriter bookingWriter; // Поток записи бронирований с групповой фиксацией
+
+    @Autowired
+    private MeterRegistry meterRegistry; // Таймеры и счетчики бронирований
+
+    @PersistenceContext
+    private EntityManager entityManager; // Отсоединение маршрута перед подстановкой количества мест из учета в памяти
+
     // Регулярное выражение для проверки формата телефона (+7 XXX XXX-XX-XX)
     private static final Pattern PHONE_PATTERN = Pattern.compile("^\\+7 \\d{3} \\d{3}-\\d{2}-\\d{2}$");
 
@@ -32,44 +76,146 @@ public class BookingTicketService {
     // Список допустимых доменов для электронной почты
     private static final String[] ALLOWED_DOMAINS = {"mail.ru", "inbox.ru", "yandex.ru", "gmail.com"};
 
+    // Максимальный размер страницы при постраничном получении бронирований
+    public static final int MAX_PAGE_SIZE = 500;
+
+    // Максимальное количество пассажиров в одном групповом бронировании
+    public static final int MAX_GROUP_SIZE = 100;
+
+    // Количество ID маршрутов в одном запросе при загрузке маршрутов компактного ответа
+    // (ограничивает число параметров запроса SQLite)
+    private static final int ROUTE_LOAD_CHUNK_SIZE = 500;
+
+    // Запрос пакетной вставки бронирований группы
+    private static final String INSERT_BOOKING_SQL = "INSERT INTO booking_tickets " +
+            "(id_route, passenger_full_name, passenger_phone, passenger_email, booking_date, seat_number) VALUES (?, ?, ?, ?, ?, ?)";
+
     // Получение всех бронирований
     public List<BookingTicket> getAllBookingTickets() {
         return bookingTicketRepository.findAll();
     }
 
+    // Потоковая выдача всех бронирований с маршрутами: каждое бронирование передается получателю сразу после чтения строки.
+    // Контекст персистентности очищается после каждой порции строк, поэтому память не растет с количеством бронирований.
+    // Чтение выполняется в одной транзакции только для чтения (в профиле "wal" - на соединении пула чтения)
+    @Transactional(readOnly = true)
+    public void streamAllBookingTickets(Consumer<BookingTicket> consumer) {
+        try (Stream<BookingTicket> bookingTickets = bookingTicketRepository.streamAllWithRoute()) {
+            Iterator<BookingTicket> iterator = bookingTickets.iterator();
+            for (int count = 1; iterator.hasNext(); count++) {
+                consumer.accept(iterator.next());
+                if (count % RouteRepository.STREAM_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    // Постраничное получение бронирований по курсору (ID последнего бронирования предыдущей страницы).
+    // Запрашивается на одно бронирование больше размера страницы, чтобы узнать, есть ли следующая страница
+    public KeysetPage<BookingTicket> getBookingTicketsPage(Long after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE + ".");
+        }
+        if (after != null && after < 0) {
+            throw new IllegalArgumentException("Курсор страницы не может быть отрицательным.");
+        }
+
+        List<BookingTicket> bookingTickets = bookingTicketRepository.findByIdBookingGreaterThanOrderByIdBookingAsc(
+                after == null ? 0L : after, Limit.of(limit + 1));
+        if (bookingTickets.size() <= limit) {
+            return new KeysetPage<>(bookingTickets, null);
+        }
+        List<BookingTicket> page = new ArrayList<>(bookingTickets.subList(0, limit));
+        return new KeysetPage<>(page, page.get(limit - 1).getIdBooking());
+    }
+
     // Получение бронирования по его ID
     public BookingTicket getBookingTicketById(Long idBooking) {
         return bookingTicketRepository.findById(idBooking).orElse(null);
     }
 
-    // Создание нового бронирования
+    // Создание нового бронирования без выбора места
     public BookingTicket createBookingTicket(Long routeId, String passengerFullName, String passengerPhone,
                                              String passengerEmail) {
-        // Проверка формата телефона
-        if (!isValidPhoneFormat(passengerPhone)) {
-            throw new IllegalArgumentException("Неверный формат телефона. Используйте формат: +7 XXX XXX-XX-XX");
-        }
+        return createBookingTicket(routeId, passengerFullName, passengerPhone, passengerEmail, null);
+    }
 
-        // Проверка формата электронной почты
-        if (!isValidEmailFormat(passengerEmail)) {
-            throw new IllegalArgumentException("Неверный формат электронной почты. " +
-                            "Используйте формат: имя_пользователя@домен. " +
-                            "Имя пользователя может содержать английские буквы, цифры, точки (.), подчеркивания (_) и дефисы (-). " +
-                            "Допустимые домены: mail.ru, inbox.ru, yandex.ru, gmail.com.");
+    // Создание нового бронирования (номер места необязателен).
+    // Проверки без записи выполняются в потоке вызывающего, чтобы заведомо ошибочные запросы не попадали в очередь записи;
+    // само бронирование выполняется потоком записи в транзакции группы.
+    // Общее время записывается в таймер bookings.create с результатом, время этапов - в таймер bookings.create.phase
+    public BookingTicket createBookingTicket(Long routeId, String passengerFullName, String passengerPhone,
+                                             String passengerEmail, Integer seatNumber) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            // Проверка формата телефона и электронной почты
+            phase("validation", () -> {
+                validatePassengerContacts(passengerPhone, passengerEmail);
+                return null;
+            });
+
+            // Проверка наличия свободных мест (окончательная проверка - при резервировании в потоке записи)
+            if (phase("seat-check", () -> seatInventory.getAvailableSeats(routeId)) < 1) {
+                seatRejected("sold-out");
+                throw new IllegalStateException("Нет доступных мест для бронирования.");
+            }
+
+            // Этап write включает ожидание в очереди записи и фиксацию группы
+            BookingTicket bookingTicket = phase("write", () -> bookingWriter.execute(() ->
+                    writeBookingTicket(routeId, passengerFullName, passengerPhone, passengerEmail, seatNumber)));
+            outcome = "created";
+            return bookingTicket;
+        } catch (IllegalArgumentException | IllegalStateException | NoSuchElementException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("bookings.create", "outcome", outcome));
         }
+    }
 
-        // Поиск маршрута по ID
-        Route route = routeRepository.findById(routeId)
-                .orElseThrow(() -> new NoSuchElementException("Маршрут с ID " + routeId + " не найден."));
+    // Запись бронирования (выполняется потоком записи в транзакции группы)
+    private BookingTicket writeBookingTicket(Long routeId, String passengerFullName, String passengerPhone,
+                                             String passengerEmail, Integer seatNumber) {
+        // Занятие выбранного места в карте мест маршрута. Отказы выполняются до изменения какого-либо состояния
+        // (занятое место возвращается сразу), поэтому не откатывают транзакцию группы потока записи
+        try {
+            if (seatNumber != null && !seatMap.tryClaim(routeId, seatNumber)) {
+                seatRejected("seat-taken");
+                throw BookingWriter.reject(new IllegalStateException("Место " + seatNumber + " уже занято."));
+            }
+        } catch (IllegalArgumentException | NoSuchElementException e) {
+            // Номер места вне диапазона или маршрут не найден
+            throw BookingWriter.reject(e);
+        }
 
-        // Проверка наличия доступных мест
-        if (route.getNumberAvailableSeats() <= 0) {
-            throw new IllegalStateException("Нет доступных мест для бронирования.");
+        // Резервирование места в учете мест в памяти, без обновления строки маршрута в базе.
+        // При откате транзакции место освобождается, изменение записывается в таблицу routes пакетом позже
+        boolean reserved;
+        try {
+            reserved = phase("seat-reserve", () -> seatInventory.tryReserveInTransaction(routeId, 1));
+        } catch (NoSuchElementException e) {
+            // Маршрут не найден
+            if (seatNumber != null) {
+                seatMap.release(routeId, seatNumber);
+            }
+            throw BookingWriter.reject(e);
+        }
+        if (!reserved) {
+            // Место закончилось между проверкой в потоке вызывающего и резервированием
+            if (seatNumber != null) {
+                seatMap.release(routeId, seatNumber);
+            }
+            seatRejected("sold-out-on-reserve");
+            throw BookingWriter.reject(new IllegalStateException("Нет доступных мест для бронирования."));
+        }
+        if (seatNumber != null) {
+            seatMap.releaseOnRollback(routeId, seatNumber);
         }
 
-        // Уменьшение количества доступных мест
-        route.setNumberAvailableSeats(route.getNumberAvailableSeats() - 1);
-        routeRepository.save(route); // Сохраняем изменения в маршруте
+        // Поиск маршрута по ID с актуальным количеством мест из учета мест в памяти
+        Route route = phase("route-lookup", () -> findRouteWithCurrentSeats(routeId));
 
         // Установка текущей даты и времени
         LocalDateTime bookingDate = LocalDateTime.now();
@@ -80,9 +226,192 @@ public class BookingTicketService {
 
         // Создание нового бронирования
         BookingTicket bookingTicket = new BookingTicket(route, passengerFullName, passengerPhone, passengerEmail, formattedDate);
+        bookingTicket.setSeatNumber(seatNumber);
+
+        // Сохранение бронирования и запись события в журнал после фиксации транзакции
+        BookingTicket saved = phase("insert", () -> bookingTicketRepository.save(bookingTicket));
+        journalAfterCommit(BookingJournalRecord.Type.BOOKING_CREATED, saved);
+        return saved;
+    }
+
+    // Создание бронирования по подтвержденному удержанию места.
+    // Место уже удержано в учете мест в памяти (и в карте мест, если выбрано), поэтому повторно не резервируется;
+    // изменение количества мест записывается в базу только после фиксации транзакции
+    public BookingTicket createBookingTicketFromHold(Long routeId, Integer seatNumber, String passengerFullName,
+                                                     String passengerPhone, String passengerEmail) {
+        // Проверка формата телефона и электронной почты
+        validatePassengerContacts(passengerPhone, passengerEmail);
+
+        return bookingWriter.execute(() ->
+                writeBookingTicketFromHold(routeId, seatNumber, passengerFullName, passengerPhone, passengerEmail));
+    }
+
+    // Запись бронирования по удержанию (выполняется потоком записи в транзакции группы)
+    private BookingTicket writeBookingTicketFromHold(Long routeId, Integer seatNumber, String passengerFullName,
+                                                     String passengerPhone, String passengerEmail) {
+        // Поиск маршрута по ID с актуальным количеством мест из учета мест в памяти
+        Route route = findRouteWithCurrentSeats(routeId);
+
+        // Создание нового бронирования с текущей датой и временем
+        String formattedDate = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+        BookingTicket bookingTicket = new BookingTicket(route, passengerFullName, passengerPhone, passengerEmail, formattedDate);
+        bookingTicket.setSeatNumber(seatNumber);
+        BookingTicket saved = bookingTicketRepository.save(bookingTicket);
+        journalAfterCommit(BookingJournalRecord.Type.BOOKING_CREATED, saved);
+
+        // Удержанное место становится забронированным после фиксации транзакции
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                seatInventory.confirmHold(routeId, 1);
+            }
+        });
+        return saved;
+    }
+
+    // Групповое бронирование: все пассажиры бронируются на один маршрут в одной транзакции по принципу "все или ничего".
+    // Сначала проверяются данные всех пассажиров, затем места всей группы резервируются одной атомарной операцией
+    // над счетчиком мест в памяти (при откате транзакции места возвращаются), после чего все бронирования
+    // вставляются одним пакетом JDBC (в потоке записи, в транзакции группы)
+    public List<BookingTicket> createGroupBooking(Long routeId, List<GroupBookingRequest.Passenger> passengers) {
+        if (routeId == null) {
+            throw new IllegalArgumentException("Не указан ID маршрута.");
+        }
+        if (passengers == null || passengers.isEmpty()) {
+            throw new IllegalArgumentException("Список пассажиров не может быть пустым.");
+        }
+        if (passengers.size() > MAX_GROUP_SIZE) {
+            throw new IllegalArgumentException("В одном групповом бронировании может быть не более " + MAX_GROUP_SIZE + " пассажиров.");
+        }
 
-        // Сохранение бронирования
-        return bookingTicketRepository.save(bookingTicket);
+        // Проверка данных всех пассажиров до обращения к базе данных
+        for (int i = 0; i < passengers.size(); i++) {
+            GroupBookingRequest.Passenger passenger = passengers.get(i);
+            try {
+                if (passenger == null || passenger.getPassengerFullName() == null
+                        || passenger.getPassengerFullName().trim().isEmpty()) {
+                    throw new IllegalArgumentException("ФИО пассажира не может быть пустым.");
+                }
+                validatePassengerContacts(passenger.getPassengerPhone(), passenger.getPassengerEmail());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Пассажир " + (i + 1) + ": " + e.getMessage());
+            }
+        }
+
+        return bookingWriter.execute(() -> writeGroupBooking(routeId, passengers));
+    }
+
+    // Запись группового бронирования (выполняется потоком записи в транзакции группы)
+    private List<BookingTicket> writeGroupBooking(Long routeId, List<GroupBookingRequest.Passenger> passengers) {
+        // Занятие выбранных мест; если хотя бы одно место занято, уже занятые места группы возвращаются сразу,
+        // и группа отклоняется без изменений (транзакция группы потока записи не откатывается)
+        int count = passengers.size();
+        List<Integer> claimed = new ArrayList<>();
+        try {
+            for (GroupBookingRequest.Passenger passenger : passengers) {
+                Integer seatNumber = passenger.getSeatNumber();
+                if (seatNumber != null) {
+                    if (!seatMap.tryClaim(routeId, seatNumber)) {
+                        throw BookingWriter.reject(new IllegalStateException("Место " + seatNumber + " уже занято."));
+                    }
+                    claimed.add(seatNumber);
+                }
+            }
+
+            // Резервирование мест для всей группы одной операцией над счетчиком мест маршрута
+            if (!seatInventory.tryReserveInTransaction(routeId, count)) {
+                throw BookingWriter.reject(new IllegalStateException(
+                        "Недостаточно доступных мест для бронирования группы из " + count + " пассажиров."));
+            }
+        } catch (RuntimeException e) {
+            for (Integer seatNumber : claimed) {
+                seatMap.release(routeId, seatNumber);
+            }
+            // Номер места вне диапазона или маршрут не найден - тоже отказ без изменений
+            if (e instanceof IllegalArgumentException || e instanceof NoSuchElementException) {
+                throw BookingWriter.reject(e);
+            }
+            throw e;
+        }
+        for (Integer seatNumber : claimed) {
+            seatMap.releaseOnRollback(routeId, seatNumber);
+        }
+
+        Route route = findRouteWithCurrentSeats(routeId);
+
+        // Пакетная вставка бронирований в той же транзакции
+        String bookingDate = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+        jdbcTemplate.batchUpdate(INSERT_BOOKING_SQL, passengers, passengers.size(), (statement, passenger) -> {
+            statement.setLong(1, routeId);
+            statement.setString(2, passenger.getPassengerFullName());
+            statement.setString(3, passenger.getPassengerPhone());
+            statement.setString(4, passenger.getPassengerEmail());
+            statement.setString(5, bookingDate);
+            if (passenger.getSeatNumber() != null) {
+                statement.setInt(6, passenger.getSeatNumber());
+            } else {
+                statement.setNull(6, Types.INTEGER);
+            }
+        });
+
+        // Транзакция держит блокировку записи SQLite, поэтому вставленные строки получили подряд идущие ID,
+        // последний из которых возвращает last_insert_rowid() того же соединения
+        Long lastId = jdbcTemplate.queryForObject("SELECT last_insert_rowid()", Long.class);
+        List<BookingTicket> bookingTickets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            GroupBookingRequest.Passenger passenger = passengers.get(i);
+            BookingTicket bookingTicket = new BookingTicket(route, passenger.getPassengerFullName(),
+                    passenger.getPassengerPhone(), passenger.getPassengerEmail(), bookingDate);
+            bookingTicket.setIdBooking(lastId - count + 1 + i);
+            bookingTicket.setSeatNumber(passenger.getSeatNumber());
+            bookingTickets.add(bookingTicket);
+            journalAfterCommit(BookingJournalRecord.Type.BOOKING_CREATED, bookingTicket);
+        }
+        return bookingTickets;
+    }
+
+    // Измерение этапа создания бронирования
+    private <T> T phase(String phase, Supplier<T> action) {
+        return meterRegistry.timer("bookings.create.phase", "phase", phase).record(action);
+    }
+
+    // Учет отказа из-за конкуренции за места
+    private void seatRejected(String reason) {
+        meterRegistry.counter("bookings.seat.rejections", "reason", reason).increment();
+    }
+
+    // Запись события бронирования в журнал после фиксации транзакции
+    private void journalAfterCommit(BookingJournalRecord.Type type, BookingTicket bookingTicket) {
+        Integer seatNumber = bookingTicket.getSeatNumber();
+        bookingJournal.appendAfterCommit(type, bookingTicket.getIdBooking(), bookingTicket.getRoute().getIdRoute(),
+                seatNumber == null ? BookingJournalRecord.NO_SEAT : seatNumber);
+    }
+
+    // Поиск маршрута для ответа на бронирование.
+    // Сущность отсоединяется от контекста, чтобы количество мест из учета в памяти не было записано в базу
+    // в обход пакетной записи изменений
+    private Route findRouteWithCurrentSeats(Long routeId) {
+        Route route = routeRepository.findById(routeId)
+                .orElseThrow(() -> new NoSuchElementException("Маршрут с ID " + routeId + " не найден."));
+        entityManager.detach(route);
+        route.setNumberAvailableSeats(seatInventory.getAvailableSeats(routeId));
+        return route;
+    }
+
+    // Метод для проверки телефона и электронной почты пассажира
+    private void validatePassengerContacts(String passengerPhone, String passengerEmail) {
+        // Проверка формата телефона
+        if (passengerPhone == null || !isValidPhoneFormat(passengerPhone)) {
+            throw new IllegalArgumentException("Неверный формат телефона. Используйте формат: +7 XXX XXX-XX-XX");
+        }
+
+        // Проверка формата электронной почты
+        if (passengerEmail == null || !isValidEmailFormat(passengerEmail)) {
+            throw new IllegalArgumentException("Неверный формат электронной почты. " +
+                            "Используйте формат: имя_пользователя@домен. " +
+                            "Имя пользователя может содержать английские буквы, цифры, точки (.), подчеркивания (_) и дефисы (-). " +
+                            "Допустимые домены: mail.ru, inbox.ru, yandex.ru, gmail.com.");
+        }
     }
 
     // Метод для проверки формата телефона
@@ -110,20 +439,42 @@ public class BookingTicketService {
         return false;
     }
 
-    // Удаление бронирования по ID
+    // Удаление бронирования по ID (выполняется потоком записи в транзакции группы).
+    // Время записывается в таймер bookings.delete с результатом
     public void deleteBookingTicket(Long idBooking) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            bookingWriter.execute(() -> {
+                writeBookingTicketDeletion(idBooking);
+                return null;
+            });
+            outcome = "deleted";
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("bookings.delete", "outcome", outcome));
+        }
+    }
+
+    // Удаление бронирования и освобождение места после фиксации
+    private void writeBookingTicketDeletion(Long idBooking) {
         BookingTicket bookingTicket = bookingTicketRepository.findById(idBooking).orElse(null);
         if (bookingTicket == null) {
             throw new IllegalArgumentException("Бронирование с таким ID не найдено.");
         }
 
-        // Увеличиваем количество доступных мест
-        Route route = bookingTicket.getRoute();
-        route.setNumberAvailableSeats(route.getNumberAvailableSeats() + 1);
-        routeRepository.save(route); // Сохраняем изменения в маршруте
-
         // Удаляем бронирование
+        Long routeId = bookingTicket.getRoute().getIdRoute();
         bookingTicketRepository.deleteById(idBooking);
+
+        // Место освобождается в учете мест и в карте мест после фиксации удаления
+        seatInventory.releaseAfterCommit(routeId, 1);
+        if (bookingTicket.getSeatNumber() != null) {
+            seatMap.releaseAfterCommit(routeId, bookingTicket.getSeatNumber());
+        }
+        journalAfterCommit(BookingJournalRecord.Type.BOOKING_CANCELLED, bookingTicket);
     }
 
 
@@ -160,4 +511,55 @@ public class BookingTicketService {
         }
         return bookingTicketRepository.findByRoute(route);
     }
+
+    // Получение всех бронирований в компактном представлении
+    public CompactBookingTickets getAllBookingTicketsCompact() {
+        return toCompact(bookingTicketRepository.findAllSummaries());
+    }
+
+    // Получение бронирований пассажира по ФИО в компактном представлении
+    public CompactBookingTickets getBookingTicketsByPassengerFullNameCompact(String passengerFullName) {
+        return toCompact(bookingTicketRepository.findSummariesByPassengerFullName(passengerFullName));
+    }
+
+    // Получение бронирований маршрута в компактном представлении
+    public CompactBookingTickets getBookingTicketsByRouteCompact(Long routeId) {
+        Route route = routeRepository.findById(routeId).orElse(null);
+        if (route == null) {
+            throw new IllegalArgumentException("Маршрут с таким ID не найден.");
+        }
+        Map<Long, Route> routes = new LinkedHashMap<>();
+        routes.put(routeId, route);
+        return new CompactBookingTickets(bookingTicketRepository.findSummariesByRouteId(routeId), routes);
+    }
+
+    // Формирование компактного ответа: каждый маршрут загружается один раз по списку уникальных ID
+    private CompactBookingTickets toCompact(List<BookingTicketSummary> bookingTickets) {
+        Set<Long> routeIds = new LinkedHashSet<>();
+        for (BookingTicketSummary bookingTicket : bookingTickets) {
+            routeIds.add(bookingTicket.getRouteId());
+        }
+
+        Map<Long, Route> routes = new LinkedHashMap<>();
+        List<Long> chunk = new ArrayList<>(ROUTE_LOAD_CHUNK_SIZE);
+        for (Long routeId : routeIds) {
+            chunk.add(routeId);
+            if (chunk.size() == ROUTE_LOAD_CHUNK_SIZE) {
+                loadRoutes(chunk, routes);
+                chunk.clear();
+            }
+        }
+        loadRoutes(chunk, routes);
+        return new CompactBookingTickets(bookingTickets, routes);
+    }
+
+    // Загрузка маршрутов одним запросом по списку ID
+    private void loadRoutes(List<Long> routeIds, Map<Long, Route> routes) {
+        if (routeIds.isEmpty()) {
+            return;
+        }
+        for (Route route : routeRepository.findAllById(routeIds)) {
+            routes.put(route.getIdRoute(), route);
+        }
+    }
 }
@@ -0,0 +1,282 @@
+package com.example.backendpassengertransportation.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Единственный поток записи бронирований.
+// SQLite допускает одного писателя, поэтому все изменения бронирований ставятся в ограниченную очередь
+// и выполняются одним потоком: накопившиеся в очереди команды выполняются в одной транзакции (групповая фиксация),
+// и каждый вызывающий получает результат своей команды. Команда, отклоненная до изменения какого-либо состояния
+// (нет мест, место занято - см. reject), получает свою ошибку, а группа продолжается в той же транзакции.
+// Любая другая ошибка команды откатывает транзакцию: ошибочная команда получает свою ошибку, а остальные команды
+// группы выполняются по одной в отдельных транзакциях. Точки сохранения не используются: откат к ним не отменяет
+// изменения контекста персистентности JPA и действия, привязанные к фиксации транзакции, которые зарегистрировала
+// ошибочная команда
+@Component
+public class BookingWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingWriter.class);
+
+    private static final long POLL_INTERVAL_MILLIS = 100; // Интервал проверки признака остановки при пустой очереди
+
+    @Autowired
+    private TransactionTemplate transactionTemplate; // Транзакция группы команд
+
+    @Autowired
+    private MeterRegistry meterRegistry; // Метрики очереди и групп записи
+
+    @Value("${bookings.writer.queue-capacity:4096}")
+    private int queueCapacity; // Размер очереди команд
+
+    @Value("${bookings.writer.max-batch-size:256}")
+    private int maxBatchSize; // Максимальное количество команд в одной транзакции
+
+    @Value("${bookings.writer.enqueue-timeout:5s}")
+    private Duration enqueueTimeout; // Время ожидания места в заполненной очереди
+
+    private BlockingQueue<Command<?>> queue; // Очередь команд (кольцевой буфер фиксированного размера)
+
+    private Thread writer; // Поток записи
+
+    private volatile boolean running; // Признак работы потока записи
+
+    private Timer queueWait; // Время ожидания команды в очереди
+
+    private Timer batchTimer; // Время выполнения и фиксации группы
+
+    private DistributionSummary batchSize; // Количество команд в группе
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        queueWait = meterRegistry.timer("bookings.writer.queue.wait");
+        batchTimer = meterRegistry.timer("bookings.writer.batch");
+        batchSize = DistributionSummary.builder("bookings.writer.batch.size").register(meterRegistry);
+        Gauge.builder("bookings.writer.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        running = true;
+        writer = new Thread(this::run, "booking-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Остановка потока записи: текущая группа завершается, команды, оставшиеся в очереди, отклоняются.
+    // Поток не прерывается, чтобы прерывание не пришлось на работу с базой данных
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        List<Command<?>> rejected = new ArrayList<>();
+        queue.drainTo(rejected);
+        for (Command<?> command : rejected) {
+            command.future.completeExceptionally(new IllegalStateException("Приложение останавливается."));
+        }
+    }
+
+    // Выполнение команды в потоке записи с ожиданием результата.
+    // Исключение команды пробрасывается вызывающему без обертки
+    public <T> T execute(Supplier<T> action) {
+        if (Thread.currentThread() == writer) {
+            // Вложенный вызов из команды выполняется в текущей транзакции; отказ вложенного вызова
+            // не означает, что внешняя команда ничего не изменила, поэтому передается без обертки
+            try {
+                return action.get();
+            } catch (RejectedException e) {
+                throw e.getCause();
+            }
+        }
+        try {
+            return submit(action).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // Постановка команды в очередь; результат команды завершает возвращаемый CompletableFuture
+    public <T> CompletableFuture<T> submit(Supplier<T> action) {
+        if (!running) {
+            throw new IllegalStateException("Приложение останавливается.");
+        }
+        Command<T> command = new Command<>(action);
+        try {
+            if (!queue.offer(command, enqueueTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Слишком много запросов на бронирование. Повторите попытку позже.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Прервано ожидание очереди бронирований.", e);
+        }
+        return command.future;
+    }
+
+    // Получение количества команд, ожидающих выполнения
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    // Цикл потока записи: ожидание первой команды, затем в группу забираются все накопившиеся команды
+    private void run() {
+        List<Command<?>> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                Command<?> first = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                long now = System.nanoTime();
+                for (Command<?> command : batch) {
+                    queueWait.record(now - command.enqueuedNanos, TimeUnit.NANOSECONDS);
+                }
+                batchSize.record(batch.size());
+                batchTimer.record(() -> process(batch));
+            } catch (InterruptedException e) {
+                return;
+            } catch (Throwable e) {
+                log.error("Ошибка потока записи бронирований", e);
+                for (Command<?> command : batch) {
+                    command.future.completeExceptionally(e);
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Выполнение группы команд в одной транзакции с изоляцией ошибочных команд
+    private void process(List<Command<?>> batch) {
+        Object[] results = new Object[batch.size()];
+        RuntimeException[] failures = new RuntimeException[batch.size()];
+        int[] failedIndex = {-1};
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = 0; i < batch.size(); i++) {
+                    try {
+                        results[i] = batch.get(i).action.get();
+                    } catch (RejectedException e) {
+                        // Команда ничего не изменила: остальные команды группы продолжаются в той же транзакции
+                        failures[i] = e.getCause();
+                    } catch (RuntimeException e) {
+                        // Изменения команд группы откатываются, в том числе изменения в памяти,
+                        // привязанные к завершению транзакции
+                        failedIndex[0] = i;
+                        failures[i] = e;
+                        status.setRollbackOnly();
+                        return;
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            // Ошибка фиксации: каждая команда группы выполняется в отдельной транзакции
+            meterRegistry.counter("bookings.writer.rollbacks", "reason", "commit-failure").increment();
+            log.warn("Не удалось зафиксировать группу из {} бронирований, выполнение по одному", batch.size(), e);
+            executeIndividually(batch);
+            return;
+        }
+
+        if (failedIndex[0] < 0) {
+            for (int i = 0; i < batch.size(); i++) {
+                if (failures[i] != null) {
+                    meterRegistry.counter("bookings.writer.rejections").increment();
+                    batch.get(i).future.completeExceptionally(failures[i]);
+                } else {
+                    batch.get(i).complete(results[i]);
+                }
+            }
+            return;
+        }
+
+        meterRegistry.counter("bookings.writer.rollbacks", "reason", "command-failure").increment();
+
+        // Ошибочная и отклоненные команды получают свои ошибки, остальные выполняются по одной:
+        // повторный запуск всей группы после каждой ошибки стоил бы транзакции и повторного выполнения команд
+        // на каждую ошибку
+        List<Command<?>> remaining = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            if (failures[i] != null) {
+                batch.get(i).future.completeExceptionally(failures[i]);
+            } else {
+                remaining.add(batch.get(i));
+            }
+        }
+        executeIndividually(remaining);
+    }
+
+    // Выполнение каждой команды в отдельной транзакции
+    private void executeIndividually(List<Command<?>> commands) {
+        for (Command<?> command : commands) {
+            try {
+                command.complete(transactionTemplate.execute(status -> command.action.get()));
+            } catch (RejectedException e) {
+                command.future.completeExceptionally(e.getCause());
+            } catch (RuntimeException e) {
+                command.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    // Отказ в выполнении команды до изменения какого-либо состояния (в базе и в памяти).
+    // Команда выбрасывает результат этого метода вместо исключения, которое получит вызывающий
+    public static RuntimeException reject(RuntimeException cause) {
+        return new RejectedException(cause);
+    }
+
+    // Обертка исключения команды, отклоненной без изменений; вызывающий получает исходное исключение
+    static final class RejectedException extends RuntimeException {
+
+        private RejectedException(RuntimeException cause) {
+            super(cause.getMessage(), cause, false, false);
+        }
+
+        @Override
+        public synchronized RuntimeException getCause() {
+            return (RuntimeException) super.getCause();
+        }
+    }
+
+    // Команда записи и ее результат
+    private static final class Command<T> {
+
+        private final Supplier<T> action; // Выполняемое действие
+
+        private final CompletableFuture<T> future = new CompletableFuture<>(); // Результат для вызывающего
+
+        private final long enqueuedNanos = System.nanoTime(); // Время постановки в очередь
+
+        private Command(Supplier<T> action) {
+            this.action = action;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void complete(Object result) {
+            future.complete((T) result);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.backendpassengertransportation.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Версия каталога маршрутов для условных GET-запросов.
+// Версия монотонно возрастает при каждом изменении каталога (создание, удаление, импорт маршрутов, обновление
+// количества мест не чаще интервала routes.cache.seat-refresh-interval-ms) и передается клиенту как сильный ETag. Начальное значение - время запуска в миллисекундах,
+// поэтому после перезапуска приложения клиенты не получают 304 на версию предыдущего запуска
+@Component
+public class CatalogVersion {
+
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis()); // Текущая версия каталога
+
+    private volatile long lastModified = System.currentTimeMillis(); // Время последнего изменения каталога
+
+    // Получение текущей версии каталога
+    public long getVersion() {
+        return version.get();
+    }
+
+    // Получение текущей версии каталога в виде сильного ETag
+    public String getETag() {
+        return toETag(version.get());
+    }
+
+    // Представление версии каталога в виде сильного ETag
+    public static String toETag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    // Получение времени последнего изменения каталога в миллисекундах
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    // Увеличение версии после изменения каталога.
+    // Вызывается после сброса кэша маршрутов, чтобы новая версия никогда не отдавалась вместе с устаревшими данными.
+    // Время изменения записывается после версии: прочитавший новое время увидит и новую версию
+    public void increment() {
+        version.incrementAndGet();
+        lastModified = System.currentTimeMillis();
+    }
+}
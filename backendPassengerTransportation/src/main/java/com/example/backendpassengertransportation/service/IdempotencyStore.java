@@ -0,0 +1,109 @@
+package com.example.backendpassengertransportation.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+// Хранилище ключей идемпотентности запросов создания бронирований.
+// Для каждого ключа хранится отпечаток параметров запроса и ответ на него; повторный запрос с тем же ключом
+// получает сохраненный ответ без обращения к базе данных. Хранилище ограничено по размеру и времени жизни записей
+@Component
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key"; // Заголовок ключа идемпотентности
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed"; // Заголовок повторно отданного ответа
+
+    public static final int MAX_KEY_LENGTH = 255; // Максимальная длина ключа
+
+    @Value("${bookings.idempotency.ttl:24h}")
+    private Duration ttl; // Время хранения ключа
+
+    @Value("${bookings.idempotency.maximum-size:100000}")
+    private long maximumSize; // Максимальное количество хранимых ключей
+
+    private Cache<String, StoredResponse> responses; // Ответы по ключам идемпотентности
+
+    @PostConstruct
+    void init() {
+        responses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    // Выполнение запроса с ключом идемпотентности.
+    // Первый запрос с ключом выполняется, его ответ сохраняется; одновременные повторы ожидают ответа первого запроса.
+    // Ответы с ошибкой сервера (5xx) не сохраняются, чтобы запрос можно было повторить
+    public ResponseEntity<?> execute(String key, String fingerprint, Supplier<ResponseEntity<?>> action) {
+        if (key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Ключ идемпотентности должен содержать от 1 до " + MAX_KEY_LENGTH + " символов.");
+        }
+
+        StoredResponse created = new StoredResponse(fingerprint);
+        StoredResponse existing = responses.asMap().putIfAbsent(key, created);
+        if (existing != null) {
+            if (!existing.fingerprint.equals(fingerprint)) {
+                throw new IllegalStateException("Ключ идемпотентности уже использован для запроса с другими параметрами.");
+            }
+            return replay(existing);
+        }
+
+        ResponseEntity<?> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            responses.asMap().remove(key, created);
+            created.response.completeExceptionally(e);
+            throw e;
+        }
+        if (response.getStatusCode().is5xxServerError()) {
+            responses.asMap().remove(key, created);
+        }
+        created.response.complete(response);
+        return response;
+    }
+
+    // Получение количества хранимых ключей
+    public long size() {
+        return responses.estimatedSize();
+    }
+
+    // Повторная выдача сохраненного ответа с отметкой в заголовке
+    private ResponseEntity<?> replay(StoredResponse stored) {
+        ResponseEntity<?> response;
+        try {
+            response = stored.response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(response.getHeaders());
+        headers.set(REPLAYED_HEADER, "true");
+        return new ResponseEntity<>(response.getBody(), headers, response.getStatusCode());
+    }
+
+    // Сохраненный ответ: отпечаток параметров запроса и ответ (незавершенный, пока первый запрос выполняется)
+    private static final class StoredResponse {
+
+        private final String fingerprint; // Отпечаток параметров запроса
+
+        private final CompletableFuture<ResponseEntity<?>> response = new CompletableFuture<>(); // Ответ на запрос
+
+        private StoredResponse(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.backendpassengertransportation.service;
+
+import com.example.backendpassengertransportation.config.CacheConfig;
+import com.example.backendpassengertransportation.event.RouteCatalogChangedEvent;
+import com.example.backendpassengertransportation.event.SeatCountsChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Сброс кэша маршрутов при изменении каталога.
+// Создание, удаление и импорт маршрутов сбрасывают кэш сразу. Количество свободных мест записывается в базу
+// несколько раз в секунду, поэтому маршруты с измененными местами накапливаются и кэш обновляется по ним
+// не чаще интервала обновления мест: иначе версия каталога менялась бы при каждой записи, и кэш маршрутов,
+// ETag и кэш сериализованных ответов почти не давали бы попаданий. Актуальное количество мест клиенты
+// получают в событиях /routes/seat-events
+@Component
+public class RouteCacheInvalidator {
+
+    @Autowired
+    private CacheManager cacheManager; // Менеджер кэшей маршрутов
+
+    @Autowired
+    private CatalogVersion catalogVersion; // Версия каталога для условных GET-запросов
+
+    private final Set<Long> changedSeats = ConcurrentHashMap.newKeySet(); // Маршруты с измененными местами
+
+    // Сброс выполняется после фиксации транзакции, чтобы параллельный запрос не закэшировал незафиксированные данные.
+    // Вне транзакции (например, при создании маршрута) событие обрабатывается сразу
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRouteCatalogChanged(RouteCatalogChangedEvent event) {
+        Cache routeByIdCache = cacheManager.getCache(CacheConfig.ROUTE_BY_ID_CACHE);
+        if (routeByIdCache != null) {
+            if (event.getRouteId() != null) {
+                routeByIdCache.evict(event.getRouteId());
+            } else {
+                routeByIdCache.clear();
+            }
+        }
+        clearCatalogAndIncrementVersion();
+    }
+
+    // Запоминание маршрутов с измененным количеством мест (событие публикуется после записи изменений в базу)
+    @EventListener
+    public void onSeatCountsChanged(SeatCountsChangedEvent event) {
+        changedSeats.addAll(event.getRouteIds());
+    }
+
+    // Обновление кэша по маршрутам с измененными местами: один сброс и одно изменение версии за интервал
+    @Scheduled(fixedDelayString = "${routes.cache.seat-refresh-interval-ms:5000}")
+    public void refreshSeatCounts() {
+        if (changedSeats.isEmpty()) {
+            return;
+        }
+        Cache routeByIdCache = cacheManager.getCache(CacheConfig.ROUTE_BY_ID_CACHE);
+        for (Iterator<Long> iterator = changedSeats.iterator(); iterator.hasNext(); ) {
+            Long routeId = iterator.next();
+            iterator.remove();
+            if (routeByIdCache != null) {
+                routeByIdCache.evict(routeId);
+            }
+        }
+        clearCatalogAndIncrementVersion();
+    }
+
+    // Сброс кэша каталога и увеличение версии.
+    // Версия увеличивается после сброса кэша: запрос с новой версией уже не получит устаревшие данные из кэша
+    private void clearCatalogAndIncrementVersion() {
+        Cache catalogCache = cacheManager.getCache(CacheConfig.ROUTE_CATALOG_CACHE);
+        if (catalogCache != null) {
+            catalogCache.clear();
+        }
+        catalogVersion.increment();
+    }
+}
@@ -1,17 +1,45 @@
 package com.example.backendpassengertransportation.service;
 
+import com.example.backendpassengertransportation.config.CacheConfig;
+import com.example.backendpassengertransportation.dto.KeysetPage;
+import com.example.backendpassengertransportation.dto.RouteImportResult;
+import com.example.backendpassengertransportation.dto.SeatMapView;
+import com.example.backendpassengertransportation.event.RouteCatalogChangedEvent;
 import com.example.backendpassengertransportation.model.Route;
 import com.example.backendpassengertransportation.repository.RouteRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.Predicate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class RouteService {
@@ -19,7 +47,53 @@ public class RouteService {
     @Autowired
     private RouteRepository routeRepository;
 
-    // Метод для получения всех маршрутов
+    @Autowired
+    private ApplicationEventPublisher eventPublisher; // Публикация событий изменения каталога для сброса кэша
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate; // Пакетная вставка маршрутов при импорте
+
+    @Autowired
+    private TransactionTemplate transactionTemplate; // Транзакция на каждый пакет импортируемых маршрутов
+
+    @Autowired
+    private SeatInventory seatInventory; // Учет свободных мест маршрутов в памяти
+
+    @Autowired
+    private SeatMap seatMap; // Карта занятых мест маршрутов
+
+    @Autowired
+    private ObjectMapper objectMapper; // Разбор строк NDJSON при импорте
+
+    @PersistenceContext
+    private EntityManager entityManager; // Очистка контекста персистентности при потоковой выдаче маршрутов
+
+    // Формат входной даты в запросах поиска
+    private static final DateTimeFormatter INPUT_DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    // Формат хранения даты и времени в базе данных (сортируется так же, как хронологически)
+    private static final DateTimeFormatter STORAGE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // Максимальный размер страницы при постраничном получении маршрутов
+    public static final int MAX_PAGE_SIZE = 500;
+
+    // Таймер запросов каталога; запросы различаются тегом method
+    private static final String QUERY_TIMER = "routes.query";
+
+    // Количество маршрутов, вставляемых при импорте одним пакетом в одной транзакции
+    private static final int IMPORT_BATCH_SIZE = 1000;
+
+    // Порядок полей маршрута в строке CSV и имена полей в строке NDJSON
+    private static final String[] IMPORT_FIELDS = {"transportType", "departureCity", "destinationCity",
+            "departureTime", "arrivalTime", "totalNumberSeats", "numberAvailableSeats"};
+
+    // Запрос пакетной вставки маршрутов
+    private static final String INSERT_ROUTE_SQL = "INSERT INTO routes (transport_type, departure_city, destination_city, " +
+            "departure_time, arrival_time, total_number_seats, number_available_seats, bookable_seats) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Метод для получения всех маршрутов (результат кэшируется до изменения каталога)
+    @Cacheable(cacheNames = CacheConfig.ROUTE_CATALOG_CACHE, sync = true)
+    @Timed(QUERY_TIMER)
     public List<Route> getAllRoutes() {
         List<Route> routes = routeRepository.findAll();
         if (routes.isEmpty()) {
@@ -28,7 +102,45 @@ public class RouteService {
         return routes;
     }
 
-    // Метод для получения маршрута по его ID
+    // Метод для потоковой выдачи всех маршрутов: каждый маршрут передается получателю сразу после чтения строки.
+    // Контекст персистентности очищается после каждой порции строк, поэтому память не растет с размером каталога
+    @Transactional(readOnly = true)
+    @Timed(QUERY_TIMER)
+    public void streamAllRoutes(Consumer<Route> consumer) {
+        try (Stream<Route> routes = routeRepository.streamAll()) {
+            Iterator<Route> iterator = routes.iterator();
+            for (int count = 1; iterator.hasNext(); count++) {
+                consumer.accept(iterator.next());
+                if (count % RouteRepository.STREAM_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    // Метод для постраничного получения маршрутов по курсору (ID последнего маршрута предыдущей страницы).
+    // Запрашивается на один маршрут больше размера страницы, чтобы без отдельного подсчета узнать, есть ли следующая страница
+    @Timed(QUERY_TIMER)
+    public KeysetPage<Route> getRoutesPage(Long after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE + ".");
+        }
+        if (after != null && after < 0) {
+            throw new IllegalArgumentException("Курсор страницы не может быть отрицательным.");
+        }
+
+        List<Route> routes = routeRepository.findByIdRouteGreaterThanOrderByIdRouteAsc(
+                after == null ? 0L : after, Limit.of(limit + 1));
+        if (routes.size() <= limit) {
+            return new KeysetPage<>(routes, null);
+        }
+        List<Route> page = new ArrayList<>(routes.subList(0, limit));
+        return new KeysetPage<>(page, page.get(limit - 1).getIdRoute());
+    }
+
+    // Метод для получения маршрута по его ID (результат кэшируется до изменения маршрута)
+    @Cacheable(cacheNames = CacheConfig.ROUTE_BY_ID_CACHE, sync = true)
+    @Timed(QUERY_TIMER)
     public Route getRouteById(Long idRoute) {
         Route route = routeRepository.findById(idRoute).orElse(null);
         if (route == null) {
@@ -38,6 +150,7 @@ public class RouteService {
     }
 
     // Метод для поиска маршрутов по пункту отправления
+    @Timed(QUERY_TIMER)
     public List<Route> getRoutesByDepartureCity(String departureCity) {
         List<Route> routes = routeRepository.findByDepartureCity(departureCity);
         if (routes.isEmpty()) {
@@ -47,6 +160,7 @@ public class RouteService {
     }
 
     // Метод для поиска маршрутов по пункту назначения
+    @Timed(QUERY_TIMER)
     public List<Route> getRoutesByDestinationCity(String destinationCity) {
         List<Route> routes = routeRepository.findByDestinationCity(destinationCity);
         if (routes.isEmpty()) {
@@ -59,6 +173,18 @@ public class RouteService {
     public Route createRoute(String transportType, String departureCity, String destinationCity,
                              String departureTime, String arrivalTime, int totalNumberSeats,
                              int numberAvailableSeats) {
+        Route newRoute = buildValidatedRoute(transportType, departureCity, destinationCity,
+                departureTime, arrivalTime, totalNumberSeats, numberAvailableSeats);
+
+        Route savedRoute = routeRepository.save(newRoute);
+        eventPublisher.publishEvent(new RouteCatalogChangedEvent(RouteCatalogChangedEvent.Change.CREATED, savedRoute.getIdRoute()));
+        return savedRoute;
+    }
+
+    // Метод для проверки параметров маршрута и создания (без сохранения) маршрута со временем в формате хранения
+    private Route buildValidatedRoute(String transportType, String departureCity, String destinationCity,
+                                      String departureTime, String arrivalTime, int totalNumberSeats,
+                                      int numberAvailableSeats) {
         // Проверка на пустые значения
         if (transportType == null || transportType.isEmpty() ||
                 departureCity == null || departureCity.isEmpty() ||
@@ -78,22 +204,162 @@ public class RouteService {
 
         // Проверка, что время прибытия не раньше времени отправления
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+        LocalDateTime departureDateTime;
+        LocalDateTime arrivalDateTime;
         try {
-            LocalDateTime departureDateTime = LocalDateTime.parse(departureTime, formatter);
-            LocalDateTime arrivalDateTime = LocalDateTime.parse(arrivalTime, formatter);
-
-            if (arrivalDateTime.isBefore(departureDateTime)) {
-                throw new IllegalArgumentException("Время прибытия не может быть раньше времени отправления.");
-            }
+            departureDateTime = LocalDateTime.parse(departureTime, formatter);
+            arrivalDateTime = LocalDateTime.parse(arrivalTime, formatter);
         } catch (DateTimeParseException e) {
             throw new IllegalArgumentException("Неверный формат времени. Используйте формат 'yyyy-MM-dd HH:mm'.");
         }
+        if (arrivalDateTime.isBefore(departureDateTime)) {
+            throw new IllegalArgumentException("Время прибытия не может быть раньше времени отправления.");
+        }
 
-        // Создание и сохранение нового маршрута
-        Route newRoute = new Route(transportType, departureCity, destinationCity,
-                departureTime, arrivalTime, totalNumberSeats, numberAvailableSeats);
+        // Создание нового маршрута.
+        // Время приводится к формату хранения, чтобы все строки сравнивались в хронологическом порядке
+        return new Route(transportType, departureCity, destinationCity,
+                departureDateTime.format(STORAGE_FORMATTER), arrivalDateTime.format(STORAGE_FORMATTER),
+                totalNumberSeats, numberAvailableSeats);
+    }
 
-        return routeRepository.save(newRoute);
+    // Метод для потокового импорта маршрутов в формате CSV или NDJSON.
+    // Входные данные читаются построчно, в памяти держится только текущий пакет маршрутов,
+    // каждый пакет вставляется одним пакетным запросом в отдельной транзакции.
+    // Строки с ошибками пропускаются и перечисляются в результате, остальные строки импортируются
+    public RouteImportResult importRoutes(InputStream input, String format) throws IOException {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            throw new IllegalArgumentException("Неподдерживаемый формат импорта. Используйте csv или ndjson.");
+        }
+
+        RouteImportResult result = new RouteImportResult();
+        List<Route> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                line = line.substring(1);
+            }
+            // Пропуск пустых строк и строки заголовка CSV
+            if (line.isBlank() || (csv && lineNumber == 1 && line.startsWith(IMPORT_FIELDS[0]))) {
+                continue;
+            }
+
+            try {
+                String[] fields = csv ? parseCsvLine(line) : parseNdjsonLine(line);
+                batch.add(buildImportedRoute(fields));
+            } catch (IllegalArgumentException e) {
+                result.addError(lineNumber, e.getMessage());
+            } catch (JsonProcessingException e) {
+                result.addError(lineNumber, "Некорректная строка JSON.");
+            }
+
+            if (batch.size() == IMPORT_BATCH_SIZE) {
+                insertRouteBatch(batch);
+                result.addImported(batch.size());
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            insertRouteBatch(batch);
+            result.addImported(batch.size());
+        }
+
+        // Сброс кэша каталога маршрутов после импорта
+        if (result.getImported() > 0) {
+            eventPublisher.publishEvent(new RouteCatalogChangedEvent(null));
+        }
+        return result;
+    }
+
+    // Вставка пакета маршрутов одним пакетным запросом в одной транзакции
+    private void insertRouteBatch(List<Route> batch) {
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_ROUTE_SQL, batch, batch.size(), (statement, route) -> {
+                    statement.setString(1, route.getTransportType());
+                    statement.setString(2, route.getDepartureCity());
+                    statement.setString(3, route.getDestinationCity());
+                    statement.setString(4, route.getDepartureTime());
+                    statement.setString(5, route.getArrivalTime());
+                    statement.setInt(6, route.getTotalNumberSeats());
+                    statement.setInt(7, route.getNumberAvailableSeats());
+                    statement.setInt(8, route.getNumberAvailableSeats());
+                }));
+    }
+
+    // Метод для проверки полей импортируемой строки по тем же правилам, что и при создании маршрута
+    private Route buildImportedRoute(String[] fields) {
+        if (fields.length != IMPORT_FIELDS.length) {
+            throw new IllegalArgumentException("Ожидается " + IMPORT_FIELDS.length + " полей, получено " + fields.length + ".");
+        }
+        int totalNumberSeats;
+        int numberAvailableSeats;
+        try {
+            totalNumberSeats = Integer.parseInt(fields[5].trim());
+            numberAvailableSeats = Integer.parseInt(fields[6].trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Количество мест должно быть целым числом.");
+        }
+        return buildValidatedRoute(fields[0], fields[1], fields[2], fields[3], fields[4],
+                totalNumberSeats, numberAvailableSeats);
+    }
+
+    // Метод для разбора строки CSV (поля через запятую, поля в двойных кавычках могут содержать запятые и кавычки "")
+    private String[] parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>(IMPORT_FIELDS.length);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Незакрытая кавычка в строке CSV.");
+        }
+        fields.add(field.toString().trim());
+        return fields.toArray(new String[0]);
+    }
+
+    // Метод для разбора строки NDJSON (один объект JSON с полями маршрута)
+    private String[] parseNdjsonLine(String line) throws JsonProcessingException {
+        JsonNode node = objectMapper.readTree(line);
+        if (!node.isObject()) {
+            throw new IllegalArgumentException("Строка должна содержать объект JSON.");
+        }
+        String[] fields = new String[IMPORT_FIELDS.length];
+        for (int i = 0; i < IMPORT_FIELDS.length; i++) {
+            JsonNode value = node.get(IMPORT_FIELDS[i]);
+            fields[i] = value == null || value.isNull() ? null : value.asText();
+        }
+        // Количество мест обязательно для разбора чисел
+        if (fields[5] == null || fields[6] == null) {
+            throw new IllegalArgumentException("Все поля должны быть заполнены.");
+        }
+        return fields;
+    }
+
+    // Метод для получения карты занятых мест маршрута вместе с количеством свободных мест из счетчика мест
+    public SeatMapView getSeatMap(Long idRoute) {
+        return seatMap.getSeatMap(idRoute, seatInventory.getAvailableSeats(idRoute));
     }
 
     // Метод для удаления маршрута по ID
@@ -103,9 +369,13 @@ public class RouteService {
             throw new IllegalArgumentException("Маршрут с таким ID не найден.");
         }
         routeRepository.deleteById(idRoute);
+        seatInventory.remove(idRoute);
+        seatMap.remove(idRoute);
+        eventPublisher.publishEvent(new RouteCatalogChangedEvent(RouteCatalogChangedEvent.Change.DELETED, idRoute));
     }
 
     // Метод для поиска маршрутов по типу транспорта
+    @Timed(QUERY_TIMER)
     public List<Route> getRoutesByTransportType(String transportType) {
         List<Route> routes = routeRepository.findByTransportType(transportType);
         if (routes.isEmpty()) {
@@ -115,6 +385,7 @@ public class RouteService {
     }
 
     // Метод для поиска маршрутов по пунктам отправления и назначения
+    @Timed(QUERY_TIMER)
     public List<Route> getRoutesByDepartureAndDestinationPoint(String departureCity, String destinationCity) {
         if (departureCity.isEmpty() || destinationCity.isEmpty()) {
             throw new IllegalStateException("Введите пункты отправления и назначения!");
@@ -123,31 +394,15 @@ public class RouteService {
     }
 
     // Метод для поиска маршрутов, отправляющихся в указанную дату
+    @Timed(QUERY_TIMER)
     public List<Route> fetchRoutesForExactDate(String exactDate) {
-        List<Route> resultRoutes = new ArrayList<>();
-        // Формат входной даты
-        DateTimeFormatter inputFormatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
-        // Формат даты в маршруте
-        DateTimeFormatter routeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-
         try {
             // Преобразование входной строки в LocalDate
-            LocalDate searchDate = LocalDate.parse(exactDate, inputFormatter);
-
-            // Получение всех маршрутов из репозитория
-            List<Route> allRoutes = routeRepository.findAll();
-
-            // Проход по каждому маршруту
-            for (Route route : allRoutes) {
-                // Получение даты отправления маршрута и преобразование в LocalDate
-                LocalDate routeDate = LocalDate.parse(route.getDepartureTime().toString().substring(0, 10), routeFormatter);
+            LocalDate searchDate = LocalDate.parse(exactDate, INPUT_DATE_FORMATTER);
 
-                // Сравнение дат
-                if (routeDate.isEqual(searchDate)) {
-                    // Добавление маршрута в результат, если даты совпадают
-                    resultRoutes.add(route);
-                }
-            }
+            // Диапазонный запрос по индексу: [начало дня, начало следующего дня)
+            List<Route> resultRoutes = routeRepository.findByDepartureTimeRange(
+                    searchDate.toString(), searchDate.plusDays(1).toString());
 
             // Если маршруты не найдены, выброс исключения
             if (resultRoutes.isEmpty()) {
@@ -161,32 +416,18 @@ public class RouteService {
     }
 
     // Метод для поиска маршрутов, отправляющихся в указанный промежуток дат
+    @Timed(QUERY_TIMER)
     public List<Route> fetchRoutesWithinDateRange(String startDateStr, String endDateStr) {
-        List<Route> resultRoutes = new ArrayList<>();
-        // Формат входной даты
-        DateTimeFormatter inputFormatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
-        // Формат даты в маршруте
-        DateTimeFormatter routeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-
         try {
             // Преобразование входных строк в LocalDate
-            LocalDate startDate = LocalDate.parse(startDateStr, inputFormatter);
-            LocalDate endDate = LocalDate.parse(endDateStr, inputFormatter);
+            LocalDate startDate = LocalDate.parse(startDateStr, INPUT_DATE_FORMATTER);
+            LocalDate endDate = LocalDate.parse(endDateStr, INPUT_DATE_FORMATTER);
 
-            // Получение всех маршрутов из репозитория
-            List<Route> allRoutes = routeRepository.findAll();
-
-            // Проход по каждому маршруту
-            for (Route route : allRoutes) {
-                // Получение даты отправления маршрута и преобразование в LocalDate
-                LocalDate routeDate = LocalDate.parse(route.getDepartureTime().toString().substring(0, 10), routeFormatter);
-
-                // Проверка, попадает ли дата отправления маршрута в указанный промежуток
-                if (!routeDate.isBefore(startDate) && !routeDate.isAfter(endDate)) {
-                    // Добавление маршрута в результат, если он попадает в промежуток
-                    resultRoutes.add(route);
-                }
-            }
+            // Диапазонный запрос по индексу: [начало первого дня, начало дня после последнего).
+            // Границы в формате yyyy-MM-dd являются префиксами значений хранения,
+            // поэтому в диапазон попадает любое время внутри крайних дней
+            List<Route> resultRoutes = routeRepository.findByDepartureTimeRange(
+                    startDate.toString(), endDate.plusDays(1).toString());
 
             // Если маршруты не найдены, выброс исключения
             if (resultRoutes.isEmpty()) {
@@ -198,4 +439,69 @@ public class RouteService {
             throw new IllegalArgumentException("Неверный формат даты. Используйте формат dd.MM.yyyy.");
         }
     }
+
+    // Метод для комбинированного поиска маршрутов одним запросом.
+    // Все параметры необязательны; заданные фильтры объединяются через AND:
+    // тип транспорта, города, дата (одна дата или промежуток) и отправление не раньше чем через N минут от текущего времени
+    @Timed(QUERY_TIMER)
+    public List<Route> searchRoutes(String transportType, String departureCity, String destinationCity,
+                                    String startDate, String endDate, Integer departsAfterMinutes) {
+        if (isEmpty(startDate) && !isEmpty(endDate)) {
+            throw new IllegalArgumentException("Для поиска по промежутку дат укажите начальную дату.");
+        }
+        if (departsAfterMinutes != null && departsAfterMinutes < 0) {
+            throw new IllegalArgumentException("Количество минут до отправления не может быть отрицательным.");
+        }
+
+        // Границы по дате отправления в формате хранения
+        String from = null;
+        String to = null;
+        try {
+            if (!isEmpty(startDate)) {
+                LocalDate start = LocalDate.parse(startDate, INPUT_DATE_FORMATTER);
+                LocalDate end = isEmpty(endDate) ? start : LocalDate.parse(endDate, INPUT_DATE_FORMATTER);
+                from = start.toString();
+                to = end.plusDays(1).toString();
+            }
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Неверный формат даты. Используйте формат dd.MM.yyyy.");
+        }
+        String cutoff = departsAfterMinutes == null ? null
+                : LocalDateTime.now().plusMinutes(departsAfterMinutes).format(STORAGE_FORMATTER);
+
+        // Сборка одного запроса только из заданных условий, чтобы SQLite мог использовать индексы
+        String rangeFrom = from;
+        String rangeTo = to;
+        Specification<Route> specification = (root, query, builder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (!isEmpty(transportType)) {
+                predicates.add(builder.equal(root.get("transportType"), transportType));
+            }
+            if (!isEmpty(departureCity)) {
+                predicates.add(builder.equal(root.get("departureCity"), departureCity));
+            }
+            if (!isEmpty(destinationCity)) {
+                predicates.add(builder.equal(root.get("destinationCity"), destinationCity));
+            }
+            if (rangeFrom != null) {
+                predicates.add(builder.greaterThanOrEqualTo(root.<String>get("departureTime"), rangeFrom));
+                predicates.add(builder.lessThan(root.<String>get("departureTime"), rangeTo));
+            }
+            if (cutoff != null) {
+                predicates.add(builder.greaterThan(root.<String>get("departureTime"), cutoff));
+            }
+            return builder.and(predicates.toArray(new Predicate[0]));
+        };
+
+        List<Route> routes = routeRepository.findAll(specification, Sort.by("departureTime"));
+        if (routes.isEmpty()) {
+            throw new NoSuchElementException("Маршруты по заданным фильтрам не найдены.");
+        }
+        return routes;
+    }
+
+    // Проверка строки параметра на отсутствие значения
+    private boolean isEmpty(String value) {
+        return value == null || value.isEmpty();
+    }
 }
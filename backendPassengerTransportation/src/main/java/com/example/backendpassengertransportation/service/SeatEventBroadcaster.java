@@ -0,0 +1,326 @@
+package com.example.backendpassengertransportation.service;
+
+import com.example.backendpassengertransportation.event.RouteCatalogChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Рассылка изменений количества свободных мест и состава каталога маршрутов подписчикам Server-Sent Events.
+// Изменения не рассылаются по одному: ID измененных маршрутов накапливаются в множестве, и раз в интервал
+// рассылки для каждого маршрута отправляется только последнее количество мест. Событие сериализуется один раз
+// для всех подписчиков, а отправка выполняется в отдельном пуле, поэтому поток, изменивший счетчик мест,
+// не ждет клиентов. У каждого подписчика ограниченная очередь событий: если клиент не успевает читать,
+// накопленные события отбрасываются и заменяются одним событием resync, по которому клиент загружает каталог заново.
+// Запись клиенту, который перестал читать, блокируется до таймаута записи контейнера; такие записи занимают только
+// потоки отправки (в профиле "virtual-threads" - по виртуальному потоку на подписчика), а подписчик, запись которому
+// не завершилась за seats.events.write-timeout, удаляется и больше не получает событий
+@Component
+public class SeatEventBroadcaster {
+
+    // Имена событий
+    public static final String SEATS_EVENT = "seats"; // Данные: [[ID маршрута, свободные места], ...]
+    public static final String ROUTE_ADDED_EVENT = "route-added"; // Данные: [ID маршрута, ...]
+    public static final String ROUTE_REMOVED_EVENT = "route-removed"; // Данные: [ID маршрута, ...]
+    public static final String RESYNC_EVENT = "resync"; // Изменения пропущены, каталог нужно загрузить заново
+
+    // Рассылки из одного события; элемент очереди подписчика - все события одной рассылки
+    private static final List<Set<ResponseBodyEmitter.DataWithMediaType>> RESYNC =
+            List.of(SseEmitter.event().name(RESYNC_EVENT).data("[]").build());
+
+    private static final List<Set<ResponseBodyEmitter.DataWithMediaType>> HEARTBEAT =
+            List.of(SseEmitter.event().comment("heartbeat").build());
+
+    @Autowired
+    private SeatInventory seatInventory; // Источник изменений и текущее количество свободных мест
+
+
+    @Autowired
+    private MeterRegistry meterRegistry; // Количество подписчиков и отброшенных очередей
+
+    @Value("${seats.events.max-subscribers:10000}")
+    private int maxSubscribers; // Максимальное количество одновременных подписчиков
+
+    @Value("${seats.events.queue-capacity:16}")
+    private int queueCapacity; // Количество неотправленных рассылок подписчика до замены их событием resync
+
+    @Value("${seats.events.timeout:30m}")
+    private Duration timeout; // Время жизни подключения; клиент переподключается автоматически
+
+    @Value("${seats.events.write-timeout:10s}")
+    private Duration writeTimeout; // Время записи события, после которого подписчик считается зависшим
+
+    @Value("${seats.events.sender-threads:4}")
+    private int senderThreads; // Количество потоков отправки событий
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads; // Отправка в виртуальных потоках (профиль "virtual-threads")
+
+    private TaskExecutor senderExecutor; // Отправка событий подписчикам
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet(); // Подключенные клиенты
+
+    // Маршруты, измененные с последней рассылки
+    private final Set<Long> changedSeats = ConcurrentHashMap.newKeySet();
+    private final Set<Long> addedRoutes = ConcurrentHashMap.newKeySet();
+    private final Set<Long> removedRoutes = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean catalogReloaded = new AtomicBoolean(); // Изменено несколько маршрутов (импорт)
+
+    private Counter droppedQueues; // Количество замен очереди медленного подписчика событием resync
+
+    private Counter expiredSubscribers; // Количество подписчиков, удаленных из-за зависшей записи
+
+    @PostConstruct
+    void init() {
+        seatInventory.setAvailabilityListener(this::onSeatsChanged);
+        meterRegistry.gauge("seats.events.subscribers", subscribers, Set::size);
+        droppedQueues = meterRegistry.counter("seats.events.dropped");
+        expiredSubscribers = meterRegistry.counter("seats.events.expired");
+        senderExecutor = createSenderExecutor();
+    }
+
+    // Создание пула отправки: у каждого подписчика не больше одной задачи отправки одновременно,
+    // поэтому очереди пула достаточно максимального количества подписчиков
+    private TaskExecutor createSenderExecutor() {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("seat-events-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("seat-events-");
+        executor.setCorePoolSize(senderThreads);
+        executor.setMaxPoolSize(senderThreads);
+        executor.setQueueCapacity(maxSubscribers);
+        executor.setDaemon(true);
+        executor.initialize();
+        return executor;
+    }
+
+    // Подключение нового подписчика
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(timeout.toMillis()));
+    }
+
+    // Подключение подписчика с указанным подключением
+    SseEmitter subscribe(SseEmitter emitter) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("Превышено количество подписчиков на изменения мест.");
+        }
+        Subscriber subscriber = new Subscriber(emitter, queueCapacity);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    // Получение количества подключенных подписчиков
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    // Изменение количества свободных мест маршрута (вызывается потоком, изменившим счетчик)
+    void onSeatsChanged(long routeId) {
+        if (!subscribers.isEmpty()) {
+            changedSeats.add(routeId);
+        }
+    }
+
+    // Создание и удаление маршрутов; импорт изменяет несколько маршрутов сразу и передается как resync.
+    // Обрабатывается после фиксации транзакции, чтобы клиент не загрузил каталог без нового маршрута
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRouteCatalogChanged(RouteCatalogChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        if (event.getRouteId() == null) {
+            catalogReloaded.set(true);
+        } else if (event.getChange() == RouteCatalogChangedEvent.Change.CREATED) {
+            addedRoutes.add(event.getRouteId());
+        } else if (event.getChange() == RouteCatalogChangedEvent.Change.DELETED) {
+            removedRoutes.add(event.getRouteId());
+        }
+    }
+
+    // Рассылка изменений, накопленных с последней рассылки
+    @Scheduled(fixedDelayString = "${seats.events.interval-ms:250}")
+    public void broadcast() {
+        List<Set<ResponseBodyEmitter.DataWithMediaType>> events = new ArrayList<>(3);
+        if (catalogReloaded.getAndSet(false)) {
+            // Каталог загружается клиентом заново, отдельные изменения не нужны
+            changedSeats.clear();
+            addedRoutes.clear();
+            removedRoutes.clear();
+            events.addAll(RESYNC);
+        } else {
+            List<Long> removed = drain(removedRoutes);
+            List<Long> added = drain(addedRoutes);
+            StringBuilder seats = new StringBuilder("[");
+            for (Long routeId : drain(changedSeats)) {
+                int available = seatInventory.peekAvailableSeats(routeId);
+                if (available >= 0) {
+                    seats.append(seats.length() > 1 ? ",[" : "[").append(routeId).append(',').append(available).append(']');
+                }
+            }
+            if (!removed.isEmpty()) {
+                events.add(SseEmitter.event().name(ROUTE_REMOVED_EVENT).data(removed.toString().replace(" ", "")).build());
+            }
+            if (!added.isEmpty()) {
+                events.add(SseEmitter.event().name(ROUTE_ADDED_EVENT).data(added.toString().replace(" ", "")).build());
+            }
+            if (seats.length() > 1) {
+                events.add(SseEmitter.event().name(SEATS_EVENT).data(seats.append(']').toString()).build());
+            }
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+        // Все события рассылки занимают один элемент очереди подписчика и не вытесняют друг друга
+        List<Set<ResponseBodyEmitter.DataWithMediaType>> broadcastEvents = List.copyOf(events);
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(broadcastEvents);
+            subscriber.schedule();
+        }
+    }
+
+    // Комментарий для поддержания соединения: прокси не закрывают его по простою,
+    // а отключившийся клиент обнаруживается при ошибке записи
+    @Scheduled(fixedDelayString = "${seats.events.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(HEARTBEAT);
+            subscriber.schedule();
+        }
+    }
+
+    // Удаление подписчиков, запись которым не завершилась за время записи.
+    // Подключение завершается потоком отправки, когда зависшая запись вернет управление (по таймауту записи
+    // контейнера): методы подключения синхронизированы с записью, и завершение отсюда заблокировало бы планировщик
+    @Scheduled(fixedDelayString = "${seats.events.write-check-interval-ms:1000}")
+    public void expireStuckSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long started = subscriber.sendStartedAt;
+            if (started != 0 && now - started >= writeTimeout.toNanos() && subscribers.remove(subscriber)) {
+                subscriber.expired = true;
+                subscriber.queue.clear();
+                expiredSubscribers.increment();
+            }
+        }
+    }
+
+    // Завершение подключений и пула отправки при остановке приложения
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+        if (senderExecutor instanceof ThreadPoolTaskExecutor executor) {
+            executor.shutdown();
+        }
+    }
+
+    // Извлечение всех ID из множества изменений
+    private static List<Long> drain(Set<Long> ids) {
+        List<Long> drained = new ArrayList<>();
+        for (Iterator<Long> iterator = ids.iterator(); iterator.hasNext(); ) {
+            drained.add(iterator.next());
+            iterator.remove();
+        }
+        return drained;
+    }
+
+    // Подписчик: очередь событий и признак выполняющейся отправки.
+    // Очередь отправляется одной задачей пула, поэтому события одного клиента не перемешиваются
+    private final class Subscriber {
+
+        private final SseEmitter emitter; // Подключение клиента
+
+        private final Queue<List<Set<ResponseBodyEmitter.DataWithMediaType>>> queue; // Неотправленные рассылки
+
+        private final AtomicBoolean sending = new AtomicBoolean(); // Признак выполняющейся отправки
+
+        private volatile long sendStartedAt; // Время начала текущей записи (System.nanoTime), 0 - запись не выполняется
+
+        private volatile boolean expired; // Подписчик удален из-за зависшей записи
+
+        private Subscriber(SseEmitter emitter, int queueCapacity) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+
+        // Добавление рассылки; при переполнении очереди клиент не успевает читать, и накопленные рассылки
+        // заменяются одним событием resync
+        private void offer(List<Set<ResponseBodyEmitter.DataWithMediaType>> events) {
+            if (!queue.offer(events)) {
+                queue.clear();
+                queue.offer(RESYNC);
+                droppedQueues.increment();
+            }
+        }
+
+        // Запуск отправки, если она еще не выполняется
+        private void schedule() {
+            if (!queue.isEmpty() && sending.compareAndSet(false, true)) {
+                senderExecutor.execute(this::drainQueue);
+            }
+        }
+
+        // Отправка накопленных событий; событие, добавленное после завершения цикла, запускает отправку заново
+        private void drainQueue() {
+            try {
+                List<Set<ResponseBodyEmitter.DataWithMediaType>> events;
+                while (!expired && (events = queue.poll()) != null) {
+                    for (Set<ResponseBodyEmitter.DataWithMediaType> event : events) {
+                        if (expired) {
+                            break;
+                        }
+                        sendStartedAt = System.nanoTime();
+                        emitter.send(event);
+                        sendStartedAt = 0;
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Клиент отключился или подключение уже завершено
+                sendStartedAt = 0;
+                subscribers.remove(this);
+                queue.clear();
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                sending.set(false);
+            }
+            if (expired) {
+                // Запись завершилась уже после удаления подписчика: подключение закрывается, клиент переподключится
+                emitter.completeWithError(new TimeoutException("Запись события подписчику превысила " + writeTimeout + "."));
+                return;
+            }
+            schedule();
+        }
+    }
+}
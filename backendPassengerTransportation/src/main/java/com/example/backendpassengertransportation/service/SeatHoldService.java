@@ -0,0 +1,181 @@
+package com.example.backendpassengertransportation.service;
+
+import com.example.backendpassengertransportation.dto.SeatHoldView;
+import com.example.backendpassengertransportation.model.BookingTicket;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Временные удержания мест на время заполнения данных пассажира.
+// Удержание занимает место в учете мест в памяти (и в карте мест, если место выбрано) на заданное время
+// и при подтверждении превращается в бронирование. Истекшие удержания снимаются колесом таймеров, без опроса базы
+@Service
+public class SeatHoldService {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Autowired
+    private SeatInventory seatInventory; // Учет свободных мест маршрутов в памяти
+
+    @Autowired
+    private SeatMap seatMap; // Карта занятых мест маршрутов
+
+    @Autowired
+    private BookingTicketService bookingTicketService; // Создание бронирования при подтверждении удержания
+
+    @Value("${seats.hold.ttl:10m}")
+    private Duration ttl; // Время жизни удержания
+
+    @Value("${seats.hold.tick:1s}")
+    private Duration tick; // Точность истечения удержаний (длительность такта колеса таймеров)
+
+    @Value("${seats.hold.wheel-size:1024}")
+    private int wheelSize; // Количество ячеек колеса таймеров
+
+    @Value("${seats.hold.max-active:100000}")
+    private int maxActiveHolds; // Максимальное количество одновременных удержаний
+
+    private final Map<String, Hold> holds = new ConcurrentHashMap<>(); // Активные удержания по ID
+
+    private TimingWheel timingWheel; // Колесо таймеров истечения удержаний
+
+    @PostConstruct
+    void start() {
+        timingWheel = new TimingWheel(tick, wheelSize, "seat-hold-timer");
+    }
+
+    @PreDestroy
+    void stop() {
+        timingWheel.close();
+    }
+
+    // Удержание одного места маршрута (номер места необязателен)
+    public SeatHoldView holdSeat(Long routeId, Integer seatNumber) {
+        if (holds.size() >= maxActiveHolds) {
+            throw new IllegalStateException("Слишком много активных удержаний мест. Повторите попытку позже.");
+        }
+        if (!seatInventory.tryHold(routeId, 1)) {
+            throw new IllegalStateException("Нет доступных мест для бронирования.");
+        }
+        if (seatNumber != null) {
+            boolean claimed;
+            try {
+                claimed = seatMap.tryClaim(routeId, seatNumber);
+            } catch (RuntimeException e) {
+                seatInventory.releaseHold(routeId, 1);
+                throw e;
+            }
+            if (!claimed) {
+                seatInventory.releaseHold(routeId, 1);
+                throw new IllegalStateException("Место " + seatNumber + " уже занято.");
+            }
+        }
+
+        Hold hold = new Hold(UUID.randomUUID().toString(), routeId, seatNumber, LocalDateTime.now().plus(ttl));
+        holds.put(hold.id, hold);
+        hold.timeout = timingWheel.schedule(() -> expire(hold.id), ttl);
+        return hold.toView();
+    }
+
+    // Подтверждение удержания: создание бронирования на удержанное место
+    public BookingTicket confirmHold(String holdId, String passengerFullName, String passengerPhone,
+                                     String passengerEmail) {
+        Hold hold = holds.remove(holdId);
+        if (hold == null) {
+            throw new NoSuchElementException("Удержание места не найдено или истекло.");
+        }
+        hold.cancelTimeout();
+
+        try {
+            return bookingTicketService.createBookingTicketFromHold(hold.routeId, hold.seatNumber,
+                    passengerFullName, passengerPhone, passengerEmail);
+        } catch (RuntimeException e) {
+            // Удержание возвращается до истечения его срока, чтобы пассажир мог исправить данные и повторить подтверждение
+            Duration remaining = Duration.between(LocalDateTime.now(), hold.expiresAt);
+            if (remaining.isNegative() || remaining.isZero()) {
+                releaseSeats(hold);
+            } else {
+                holds.put(hold.id, hold);
+                hold.timeout = timingWheel.schedule(() -> expire(hold.id), remaining);
+            }
+            throw e;
+        }
+    }
+
+    // Снятие удержания по запросу клиента
+    public void releaseHold(String holdId) {
+        Hold hold = holds.remove(holdId);
+        if (hold == null) {
+            throw new NoSuchElementException("Удержание места не найдено или истекло.");
+        }
+        hold.cancelTimeout();
+        releaseSeats(hold);
+    }
+
+    // Получение количества активных удержаний
+    public int getActiveHoldCount() {
+        return holds.size();
+    }
+
+    // Истечение удержания (вызывается колесом таймеров)
+    private void expire(String holdId) {
+        Hold hold = holds.remove(holdId);
+        if (hold != null) {
+            releaseSeats(hold);
+        }
+    }
+
+    // Освобождение мест удержания
+    private void releaseSeats(Hold hold) {
+        if (hold.seatNumber != null) {
+            seatMap.release(hold.routeId, hold.seatNumber);
+        }
+        seatInventory.releaseHold(hold.routeId, 1);
+    }
+
+    // Активное удержание места
+    private static final class Hold {
+
+        private final String id; // ID удержания
+
+        private final Long routeId; // ID маршрута
+
+        private final Integer seatNumber; // Номер места
+
+        private final LocalDateTime expiresAt; // Время истечения
+
+        private volatile TimingWheel.Timeout timeout; // Задача истечения в колесе таймеров
+
+        private Hold(String id, Long routeId, Integer seatNumber, LocalDateTime expiresAt) {
+            this.id = id;
+            this.routeId = routeId;
+            this.seatNumber = seatNumber;
+            this.expiresAt = expiresAt;
+        }
+
+        // Отмена задачи истечения.
+        // Удержание публикуется в словаре до планирования задачи (иначе задача, сработавшая раньше публикации,
+        // не нашла бы удержание и места не освободились бы), поэтому параллельное подтверждение или снятие
+        // может застать удержание еще без задачи; задача, запланированная после удаления удержания, ничего не делает
+        private void cancelTimeout() {
+            TimingWheel.Timeout current = timeout;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+
+        private SeatHoldView toView() {
+            return new SeatHoldView(id, routeId, seatNumber, expiresAt.format(FORMATTER));
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package com.example.backendpassengertransportation.service;
+
+import com.example.backendpassengertransportation.event.SeatCountsChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongConsumer;
+
+// Учет свободных мест маршрутов в памяти.
+// Счетчики в памяти - источник истины для проверки и резервирования мест: резервирование выполняется атомарной
+// операцией compare-and-set без обращения к базе данных. Изменения накапливаются по маршрутам и периодически
+// записываются в таблицу routes одним пакетом (write-behind), при запуске счетчики восстанавливаются из базы
+@Component
+public class SeatInventory {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatInventory.class);
+
+    // Загрузка всех маршрутов с количеством бронирований для восстановления счетчиков.
+    // Маршрут, вставленный без bookable_seats, считается созданным со всеми свободными местами
+    private static final String LOAD_ALL_SQL = "SELECT r.id_route, COALESCE(r.bookable_seats, r.total_number_seats), " +
+            "r.number_available_seats, (SELECT COUNT(*) FROM booking_tickets b WHERE b.id_route = r.id_route) FROM routes r";
+
+    // Загрузка одного маршрута, появившегося в базе после запуска (например, при импорте)
+    private static final String LOAD_ONE_SQL = LOAD_ALL_SQL + " WHERE r.id_route = ?";
+
+    // Запись накопленного изменения количества мест
+    private static final String APPLY_DELTA_SQL =
+            "UPDATE routes SET number_available_seats = number_available_seats + ? WHERE id_route = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate; // Загрузка счетчиков и пакетная запись изменений
+
+    @Autowired
+    private TransactionTemplate transactionTemplate; // Транзакция записи пакета изменений
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher; // Обновление кэша маршрутов после записи изменений
+
+    @Autowired
+    private BookingJournal bookingJournal; // Журнал записанных изменений количества мест
+
+    // Счетчики мест по ID маршрута
+    private final Map<Long, SeatCounter> counters = new ConcurrentHashMap<>();
+
+    // Блокировка записи изменений и восстановления счетчиков.
+    // ReentrantLock вместо synchronized: ожидание блокировки и запись в базу под ней не закрепляют виртуальный поток
+    // за потоком-носителем
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // Получатель ID маршрутов, у которых изменилось количество свободных мест (уведомление клиентов)
+    private volatile LongConsumer availabilityListener = routeId -> {
+    };
+
+    // Восстановление счетчиков при запуске.
+    // Сохраненное количество свободных мест может расходиться с бронированиями в обе стороны: в базу могло попасть
+    // резервирование бронирования, не зафиксированного до аварийной остановки, или не попасть освобождение места
+    // удаленного бронирования. Поэтому свободные места вычисляются заново: места, доступные для бронирования
+    // при создании маршрута, за вычетом бронирований; исправленное значение записывается в базу при следующей записи.
+    // Снимок маршрута записывается в журнал, только если сохраненные места расходятся с восстановленными по журналу,
+    // иначе журнал рос бы на количество маршрутов при каждом запуске
+    @PostConstruct
+    public void rebuild() {
+        flushLock.lock();
+        try {
+            flush(); // При повторном восстановлении накопленные изменения не теряются
+            counters.clear();
+            Map<Long, BookingJournalReplay.RouteState> journaled = bookingJournal.replayRoutes();
+            jdbcTemplate.query(LOAD_ALL_SQL, resultSet -> {
+                long routeId = resultSet.getLong(1);
+                int bookable = resultSet.getInt(2);
+                int persistedAvailable = resultSet.getInt(3);
+                counters.put(routeId, toCounter(bookable, persistedAvailable, resultSet.getInt(4)));
+                BookingJournalReplay.RouteState state = journaled.get(routeId);
+                if (state == null || state.getBookableSeats() != bookable
+                        || state.getAvailableSeats() != persistedAvailable) {
+                    appendSnapshot(routeId, bookable, persistedAvailable);
+                }
+            });
+            log.info("Загружены счетчики мест для {} маршрутов", counters.size());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Получение количества свободных мест маршрута
+    public int getAvailableSeats(Long routeId) {
+        return counter(routeId).available.get();
+    }
+
+    // Получение количества свободных мест без загрузки счетчика из базы; -1, если счетчик не загружен
+    // (маршрут удален или еще не запрашивался)
+    public int peekAvailableSeats(Long routeId) {
+        SeatCounter counter = counters.get(routeId);
+        return counter == null ? -1 : counter.available.get();
+    }
+
+    // Установка получателя изменений количества свободных мест.
+    // Получатель вызывается в потоке, изменившем счетчик, поэтому не должен блокироваться
+    public void setAvailabilityListener(LongConsumer availabilityListener) {
+        this.availabilityListener = availabilityListener;
+    }
+
+    // Резервирование мест без блокировок: уменьшение счетчика, только если свободных мест хватает.
+    // Возвращает false, если мест недостаточно
+    public boolean tryReserve(Long routeId, int count) {
+        SeatCounter counter = counter(routeId);
+        if (!tryDecrement(counter, count)) {
+            return false;
+        }
+        counter.pendingDelta.addAndGet(-count);
+        availabilityListener.accept(routeId);
+        return true;
+    }
+
+    // Освобождение мест (не больше общего количества мест маршрута)
+    public void release(Long routeId, int count) {
+        SeatCounter counter = counters.get(routeId);
+        if (counter == null) {
+            return; // Маршрут удален
+        }
+        int released = increment(counter, count);
+        counter.pendingDelta.addAndGet(released);
+        if (released > 0) {
+            availabilityListener.accept(routeId);
+        }
+    }
+
+    // Временное удержание мест: места становятся недоступны, но изменение не записывается в базу до подтверждения.
+    // Поэтому удержания, не дожившие до перезапуска, не уменьшают количество мест в базе
+    public boolean tryHold(Long routeId, int count) {
+        if (!tryDecrement(counter(routeId), count)) {
+            return false;
+        }
+        availabilityListener.accept(routeId);
+        return true;
+    }
+
+    // Подтверждение удержания: места становятся забронированными и изменение записывается в базу
+    public void confirmHold(Long routeId, int count) {
+        SeatCounter counter = counters.get(routeId);
+        if (counter != null) {
+            counter.pendingDelta.addAndGet(-count);
+        }
+    }
+
+    // Снятие удержания без записи изменения в базу
+    public void releaseHold(Long routeId, int count) {
+        SeatCounter counter = counters.get(routeId);
+        if (counter != null && increment(counter, count) > 0) {
+            availabilityListener.accept(routeId);
+        }
+    }
+
+    // Резервирование мест в текущей транзакции: при откате транзакции места освобождаются
+    public boolean tryReserveInTransaction(Long routeId, int count) {
+        if (!tryReserve(routeId, count)) {
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    release(routeId, count);
+                }
+            }
+        });
+        return true;
+    }
+
+    // Освобождение мест после фиксации текущей транзакции (например, после удаления бронирования)
+    public void releaseAfterCommit(Long routeId, int count) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                release(routeId, count);
+            }
+        });
+    }
+
+    // Удаление счетчика удаленного маршрута
+    public void remove(Long routeId) {
+        counters.remove(routeId);
+    }
+
+    // Запись накопленных изменений в таблицу routes одним пакетом.
+    // Несколько бронирований одного маршрута между записями объединяются в одно обновление строки
+    @Scheduled(fixedDelayString = "${seats.inventory.flush-interval-ms:200}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            doFlush();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Запись накопленных изменений (выполняется под блокировкой записи)
+    private void doFlush() {
+        List<Long> routeIds = new ArrayList<>();
+        List<Object[]> deltas = new ArrayList<>();
+        for (Map.Entry<Long, SeatCounter> entry : counters.entrySet()) {
+            int delta = entry.getValue().pendingDelta.getAndSet(0);
+            if (delta != 0) {
+                routeIds.add(entry.getKey());
+                deltas.add(new Object[]{delta, entry.getKey()});
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, deltas));
+        } catch (RuntimeException e) {
+            // Изменения возвращаются в счетчики и будут записаны при следующей попытке
+            for (Object[] delta : deltas) {
+                SeatCounter counter = counters.get((Long) delta[1]);
+                if (counter != null) {
+                    counter.pendingDelta.addAndGet((Integer) delta[0]);
+                }
+            }
+            log.warn("Не удалось записать изменения количества мест, повтор при следующей записи", e);
+            return;
+        }
+
+        for (Object[] delta : deltas) {
+            bookingJournal.append(BookingJournalRecord.Type.SEAT_DELTA, 0, (Long) delta[1], (Integer) delta[0]);
+        }
+        eventPublisher.publishEvent(new SeatCountsChangedEvent(routeIds));
+    }
+
+    // Запись накопленных изменений при остановке приложения
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // Получение счетчика маршрута; маршрут, созданный после запуска, загружается из базы при первом обращении.
+    // Запрос выполняется вне блокировки словаря, чтобы не задерживать обращения к соседним маршрутам;
+    // если счетчик параллельно загрузил другой поток, используется его счетчик
+    private SeatCounter counter(Long routeId) {
+        SeatCounter counter = counters.get(routeId);
+        if (counter != null) {
+            return counter;
+        }
+        int[] persisted = new int[2];
+        SeatCounter loaded = jdbcTemplate.query(LOAD_ONE_SQL,
+                resultSet -> {
+                    if (!resultSet.next()) {
+                        return null;
+                    }
+                    persisted[0] = resultSet.getInt(2);
+                    persisted[1] = resultSet.getInt(3);
+                    return toCounter(persisted[0], persisted[1], resultSet.getInt(4));
+                },
+                routeId);
+        if (loaded == null) {
+            throw new NoSuchElementException("Маршрут с ID " + routeId + " не найден.");
+        }
+        // Снимок записывается в журнал под блокировкой записи изменений: изменение мест этого маршрута
+        // не может попасть в журнал раньше снимка
+        flushLock.lock();
+        try {
+            counter = counters.putIfAbsent(routeId, loaded);
+            if (counter != null) {
+                return counter;
+            }
+            appendSnapshot(routeId, persisted[0], persisted[1]);
+            return loaded;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Запись в журнал снимка мест маршрута, с которого BookingJournalReplay продолжает суммировать изменения мест
+    private void appendSnapshot(long routeId, int bookable, int persistedAvailable) {
+        bookingJournal.append(BookingJournalRecord.Type.ROUTE_SNAPSHOT, bookable, routeId, persistedAvailable);
+    }
+
+    // Уменьшение количества свободных мест, только если их хватает
+    private boolean tryDecrement(SeatCounter counter, int count) {
+        while (true) {
+            int available = counter.available.get();
+            if (available < count) {
+                return false;
+            }
+            if (counter.available.compareAndSet(available, available - count)) {
+                return true;
+            }
+        }
+    }
+
+    // Увеличение количества свободных мест не больше общего количества; возвращает фактическое увеличение
+    private int increment(SeatCounter counter, int count) {
+        while (true) {
+            int available = counter.available.get();
+            int updated = Math.min(counter.total, available + count);
+            if (updated == available || counter.available.compareAndSet(available, updated)) {
+                return updated - available;
+            }
+        }
+    }
+
+    // Создание счетчика: свободные места - места, доступные для бронирования, за вычетом бронирований
+    private SeatCounter toCounter(int bookable, int persistedAvailable, int bookings) {
+        int available = Math.max(0, bookable - bookings);
+        SeatCounter counter = new SeatCounter(bookable, available);
+        counter.pendingDelta.set(available - persistedAvailable);
+        return counter;
+    }
+
+    // Счетчик мест одного маршрута
+    private static final class SeatCounter {
+
+        private final int total; // Места, доступные для бронирования (свободных мест не может быть больше)
+
+        private final AtomicInteger available; // Свободные места
+
+        private final AtomicInteger pendingDelta = new AtomicInteger(); // Изменение, еще не записанное в базу
+
+        private SeatCounter(int total, int available) {
+            this.total = total;
+            this.available = new AtomicInteger(available);
+        }
+    }
+}
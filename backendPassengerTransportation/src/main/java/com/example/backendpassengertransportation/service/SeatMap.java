@@ -0,0 +1,156 @@
+package com.example.backendpassengertransportation.service;
+
+import com.example.backendpassengertransportation.dto.SeatMapView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Карта занятых мест маршрутов в памяти: по одному биту на место, 64 места в одном слове.
+// Место занимается без блокировок операцией compare-and-set над словом, содержащим его бит,
+// поэтому бронирования разных мест одного маршрута почти не конкурируют между собой
+@Component
+public class SeatMap {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate; // Загрузка занятых мест маршрута
+
+    // Битовые карты мест по ID маршрута
+    private final Map<Long, RouteSeats> routes = new ConcurrentHashMap<>();
+
+    // Занятие места. Возвращает false, если место уже занято
+    public boolean tryClaim(Long routeId, int seatNumber) {
+        RouteSeats seats = seats(routeId);
+        checkSeatNumber(seats, seatNumber);
+        int word = (seatNumber - 1) >>> 6;
+        long bit = 1L << ((seatNumber - 1) & 63);
+        while (true) {
+            long current = seats.words.get(word);
+            if ((current & bit) != 0) {
+                return false;
+            }
+            if (seats.words.compareAndSet(word, current, current | bit)) {
+                return true;
+            }
+        }
+    }
+
+    // Освобождение места
+    public void release(Long routeId, int seatNumber) {
+        RouteSeats seats = routes.get(routeId);
+        if (seats == null || seatNumber < 1 || seatNumber > seats.total) {
+            return;
+        }
+        int word = (seatNumber - 1) >>> 6;
+        long bit = 1L << ((seatNumber - 1) & 63);
+        while (true) {
+            long current = seats.words.get(word);
+            if ((current & bit) == 0 || seats.words.compareAndSet(word, current, current & ~bit)) {
+                return;
+            }
+        }
+    }
+
+    // Занятие места в текущей транзакции: при откате транзакции место освобождается
+    public boolean tryClaimInTransaction(Long routeId, int seatNumber) {
+        if (!tryClaim(routeId, seatNumber)) {
+            return false;
+        }
+        releaseOnRollback(routeId, seatNumber);
+        return true;
+    }
+
+    // Освобождение уже занятого места при откате текущей транзакции
+    public void releaseOnRollback(Long routeId, int seatNumber) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    release(routeId, seatNumber);
+                }
+            }
+        });
+    }
+
+    // Освобождение места после фиксации текущей транзакции (например, после удаления бронирования)
+    public void releaseAfterCommit(Long routeId, int seatNumber) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                release(routeId, seatNumber);
+            }
+        });
+    }
+
+    // Удаление карты мест удаленного маршрута
+    public void remove(Long routeId) {
+        routes.remove(routeId);
+    }
+
+    // Получение карты мест маршрута в упакованном виде (по 8 мест в байте).
+    // Количество свободных мест передается из счетчика мест: бронирования без номера места в карте не отмечаются
+    public SeatMapView getSeatMap(Long routeId, int availableSeats) {
+        RouteSeats seats = seats(routeId);
+        byte[] bitmap = new byte[(seats.total + 7) / 8];
+        int occupied = 0;
+        for (int word = 0; word < seats.words.length(); word++) {
+            long value = seats.words.get(word);
+            occupied += Long.bitCount(value);
+            for (int i = 0; i < 8 && word * 8 + i < bitmap.length; i++) {
+                bitmap[word * 8 + i] = (byte) (value >>> (i * 8));
+            }
+        }
+        return new SeatMapView(routeId, seats.total, occupied, availableSeats, bitmap);
+    }
+
+    // Получение карты мест маршрута; при первом обращении занятые места загружаются из бронирований.
+    // Запросы выполняются вне блокировки словаря; если карту параллельно загрузил другой поток, используется его карта
+    private RouteSeats seats(Long routeId) {
+        RouteSeats existing = routes.get(routeId);
+        if (existing != null) {
+            return existing;
+        }
+        Integer total = jdbcTemplate.query("SELECT total_number_seats FROM routes WHERE id_route = ?",
+                resultSet -> resultSet.next() ? resultSet.getInt(1) : null, routeId);
+        if (total == null) {
+            throw new NoSuchElementException("Маршрут с ID " + routeId + " не найден.");
+        }
+        RouteSeats seats = new RouteSeats(total);
+        jdbcTemplate.query("SELECT seat_number FROM booking_tickets WHERE id_route = ? AND seat_number IS NOT NULL",
+                resultSet -> {
+                    int seatNumber = resultSet.getInt(1);
+                    if (seatNumber >= 1 && seatNumber <= total) {
+                        int word = (seatNumber - 1) >>> 6;
+                        seats.words.set(word, seats.words.get(word) | 1L << ((seatNumber - 1) & 63));
+                    }
+                }, routeId);
+        existing = routes.putIfAbsent(routeId, seats);
+        return existing != null ? existing : seats;
+    }
+
+    // Проверка, что номер места есть на маршруте
+    private void checkSeatNumber(RouteSeats seats, int seatNumber) {
+        if (seatNumber < 1 || seatNumber > seats.total) {
+            throw new IllegalArgumentException("Номер места должен быть от 1 до " + seats.total + ".");
+        }
+    }
+
+    // Занятые места одного маршрута
+    private static final class RouteSeats {
+
+        private final int total; // Общее количество мест
+
+        private final AtomicLongArray words; // Биты занятых мест, по 64 места в слове
+
+        private RouteSeats(int total) {
+            this.total = total;
+            this.words = new AtomicLongArray((total + 63) / 64);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.backendpassengertransportation.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+// Хешированное колесо таймеров: задачи раскладываются по ячейкам колеса по номеру такта срабатывания.
+// Добавление и отмена задачи выполняются за O(1), на каждом такте просматривается только одна ячейка,
+// поэтому стоимость истечения не зависит от общего количества запланированных задач.
+// Точность срабатывания - один такт
+public class TimingWheel implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(TimingWheel.class);
+
+    private final long tickNanos; // Длительность такта в наносекундах
+
+    private final List<Queue<Timeout>> buckets; // Ячейки колеса (используются только потоком колеса)
+
+    private final int mask; // Маска номера ячейки (размер колеса - степень двойки)
+
+    private final Queue<Timeout> added = new ConcurrentLinkedQueue<>(); // Новые задачи, еще не разложенные по ячейкам
+
+    private final Thread worker; // Поток, продвигающий колесо
+
+    private final long startNanos; // Время запуска колеса
+
+    private volatile boolean running = true; // Признак работы колеса
+
+    private long tick; // Номер текущего такта (используется только потоком колеса)
+
+    // Конструктор с параметрами: длительность такта, количество ячеек и имя потока колеса
+    public TimingWheel(Duration tickDuration, int wheelSize, String threadName) {
+        if (tickDuration.isZero() || tickDuration.isNegative()) {
+            throw new IllegalArgumentException("Длительность такта должна быть больше нуля.");
+        }
+        if (wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Размер колеса должен быть степенью двойки.");
+        }
+        this.tickNanos = tickDuration.toNanos();
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayDeque<>());
+        }
+        this.mask = wheelSize - 1;
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::run, threadName);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    // Планирование задачи через указанное время
+    public Timeout schedule(Runnable task, Duration delay) {
+        if (!running) {
+            throw new IllegalStateException("Колесо таймеров остановлено.");
+        }
+        long deadline = System.nanoTime() - startNanos + Math.max(0, delay.toNanos());
+        Timeout timeout = new Timeout(task, deadline);
+        added.add(timeout);
+        return timeout;
+    }
+
+    // Остановка колеса; незапущенные задачи не выполняются
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+    }
+
+    // Цикл потока колеса: ожидание очередного такта, раскладка новых задач и выполнение задач текущей ячейки
+    private void run() {
+        while (running) {
+            long sleepNanos = (tick + 1) * tickNanos - (System.nanoTime() - startNanos);
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        return;
+                    }
+                }
+                continue;
+            }
+            transferAdded();
+            expire(buckets.get((int) (tick & mask)));
+            tick++;
+        }
+    }
+
+    // Раскладка новых задач по ячейкам: номер ячейки - такт срабатывания по модулю размера колеса,
+    // количество оставшихся оборотов колеса хранится в задаче
+    private void transferAdded() {
+        Timeout timeout;
+        while ((timeout = added.poll()) != null) {
+            if (timeout.cancelled) {
+                continue;
+            }
+            long deadlineTick = Math.max(timeout.deadline / tickNanos, tick);
+            timeout.remainingRounds = (deadlineTick - tick) / buckets.size();
+            buckets.get((int) (deadlineTick & mask)).add(timeout);
+        }
+    }
+
+    // Выполнение задач ячейки, срок которых наступил на этом обороте колеса
+    private void expire(Queue<Timeout> bucket) {
+        for (int i = bucket.size(); i > 0; i--) {
+            Timeout timeout = bucket.poll();
+            if (timeout.cancelled) {
+                continue;
+            }
+            if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+                bucket.add(timeout);
+                continue;
+            }
+            try {
+                timeout.task.run();
+            } catch (RuntimeException e) {
+                log.warn("Ошибка при выполнении задачи колеса таймеров", e);
+            }
+        }
+    }
+
+    // Запланированная задача
+    public static final class Timeout {
+
+        private final Runnable task; // Выполняемая задача
+
+        private final long deadline; // Время срабатывания относительно запуска колеса в наносекундах
+
+        private long remainingRounds; // Оставшиеся обороты колеса до срабатывания
+
+        private volatile boolean cancelled; // Признак отмены
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        // Отмена задачи; отмененная задача удаляется из ячейки при ее следующем просмотре
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.backendpassengertransportation.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Сравнение пропускной способности чтения во время потока бронирований
+// для настроек SQLite по умолчанию и для профиля хранения "wal".
+// Запуск: mvn test -Pbenchmark
+@Tag("benchmark")
+class SqliteStorageBenchmarkTest {
+
+    private static final int ROUTES = 2_000; // Количество маршрутов в каталоге
+    private static final int READERS = 8; // Количество потоков чтения
+    private static final int WRITERS = 8; // Количество потоков бронирования
+    private static final long DURATION_MILLIS = 10_000; // Длительность каждого прогона
+
+    /**
+     * Сравнение чтения каталога во время потока бронирований.
+     * Проверка, что профиль "wal" обслуживает чтение без ошибок SQLITE_BUSY.
+     */
+    @Test
+    void benchmarkReadThroughputDuringBookingStorm() throws Exception {
+        Result defaults = run("default", defaultConfig(), false);
+        Result wal = run("wal", walConfig(), true);
+
+        System.out.println(defaults);
+        System.out.println(wal);
+
+        // Проверка, что в режиме WAL чтение не получает ошибок блокировки
+        assertEquals(0, wal.readBusy);
+        assertTrue(wal.reads > 0);
+    }
+
+    // Один прогон: читатели выбирают маршруты на случайную дату, писатели бронируют места
+    private Result run(String name, SQLiteConfig config, boolean singleWriter) throws Exception {
+        Path file = Files.createTempFile("sqlite-storage-benchmark-", ".db");
+        String url = "jdbc:sqlite:" + file;
+        createCatalog(url, config);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong reads = new AtomicLong();
+        AtomicLong readBusy = new AtomicLong();
+        AtomicLong bookings = new AtomicLong();
+        AtomicLong writeBusy = new AtomicLong();
+
+        // При одном писателе все потоки бронирования используют одно соединение по очереди, как пул из одного соединения
+        Connection sharedWriter = singleWriter ? DriverManager.getConnection(url, config.toProperties()) : null;
+        ReentrantLock writerLock = new ReentrantLock(true);
+
+        ExecutorService executor = Executors.newFixedThreadPool(READERS + WRITERS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < READERS; i++) {
+            futures.add(executor.submit(() -> {
+                try (Connection connection = DriverManager.getConnection(url, config.toProperties());
+                     PreparedStatement select = connection.prepareStatement(
+                             "SELECT * FROM routes WHERE departure_time >= ? AND departure_time < ?")) {
+                    while (running.get()) {
+                        int day = ThreadLocalRandom.current().nextInt(1, 28);
+                        select.setString(1, String.format("2030-03-%02d", day));
+                        select.setString(2, String.format("2030-03-%02d", day + 1));
+                        try (ResultSet resultSet = select.executeQuery()) {
+                            while (resultSet.next()) {
+                                resultSet.getInt("number_available_seats");
+                            }
+                            reads.incrementAndGet();
+                        } catch (SQLiteException e) {
+                            readBusy.incrementAndGet();
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        for (int i = 0; i < WRITERS; i++) {
+            futures.add(executor.submit(() -> {
+                Connection own = singleWriter ? null : DriverManager.getConnection(url, config.toProperties());
+                try {
+                    while (running.get()) {
+                        long routeId = ThreadLocalRandom.current().nextLong(1, ROUTES + 1);
+                        if (singleWriter) {
+                            writerLock.lock();
+                            try {
+                                book(sharedWriter, routeId, bookings, writeBusy);
+                            } finally {
+                                writerLock.unlock();
+                            }
+                        } else {
+                            book(own, routeId, bookings, writeBusy);
+                        }
+                    }
+                } finally {
+                    if (own != null) {
+                        own.close();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        Thread.sleep(DURATION_MILLIS);
+        running.set(false);
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+        if (sharedWriter != null) {
+            sharedWriter.close();
+        }
+        Files.deleteIfExists(file);
+
+        double seconds = DURATION_MILLIS / 1000.0;
+        return new Result(name, reads.get() / seconds, bookings.get() / seconds, readBusy.get(), writeBusy.get(), reads.get());
+    }
+
+    // Бронирование одного места: условное уменьшение счетчика и вставка бронирования в одной транзакции
+    private void book(Connection connection, long routeId, AtomicLong bookings, AtomicLong writeBusy) throws SQLException {
+        connection.setAutoCommit(false);
+        try (PreparedStatement update = connection.prepareStatement(
+                "UPDATE routes SET number_available_seats = number_available_seats - 1 " +
+                        "WHERE id_route = ? AND number_available_seats > 0");
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO booking_tickets (id_route, passenger_full_name, passenger_phone, passenger_email, booking_date) " +
+                             "VALUES (?, 'Петров Иван Иванович', '+7 904 123-45-67', 'ivan@mail.ru', '2030-02-01 10:00:00')")) {
+            update.setLong(1, routeId);
+            if (update.executeUpdate() == 1) {
+                insert.setLong(1, routeId);
+                insert.executeUpdate();
+            }
+            connection.commit();
+            bookings.incrementAndGet();
+        } catch (SQLiteException e) {
+            writeBusy.incrementAndGet();
+            connection.rollback();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    // Создание каталога маршрутов во временной базе
+    private void createCatalog(String url, SQLiteConfig config) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, config.toProperties());
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE TABLE routes (id_route INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    "transport_type TEXT NOT NULL, departure_city TEXT NOT NULL, destination_city TEXT NOT NULL, " +
+                    "departure_time DATETIME NOT NULL, arrival_time DATETIME NOT NULL, " +
+                    "total_number_seats INTEGER NOT NULL, number_available_seats INTEGER NOT NULL)");
+            statement.executeUpdate("CREATE TABLE booking_tickets (id_booking INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    "id_route INTEGER NOT NULL, passenger_full_name TEXT NOT NULL, passenger_phone TEXT NOT NULL, " +
+                    "passenger_email TEXT NOT NULL, booking_date DATETIME NOT NULL)");
+            statement.executeUpdate("CREATE INDEX idx_routes_departure_time ON routes (departure_time)");
+
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO routes (transport_type, departure_city, destination_city, departure_time, arrival_time, " +
+                            "total_number_seats, number_available_seats) VALUES ('Поезд', 'Москва', 'Казань', ?, ?, 1000000, 1000000)")) {
+                for (int i = 0; i < ROUTES; i++) {
+                    String departure = String.format("2030-03-%02d %02d:%02d:00", i % 28 + 1, i % 24, i % 60);
+                    insert.setString(1, departure);
+                    insert.setString(2, departure);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            connection.commit();
+        }
+    }
+
+    // Настройки SQLite по умолчанию (журнал отката, полная синхронизация)
+    private SQLiteConfig defaultConfig() {
+        return new SQLiteConfig();
+    }
+
+    // Настройки профиля "wal" (совпадают с SqliteWalDataSourceConfig)
+    private SQLiteConfig walConfig() {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        config.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+        config.setBusyTimeout(5000);
+        config.setCacheSize(-65536);
+        return config;
+    }
+
+    // Результат одного прогона
+    private record Result(String name, double readsPerSecond, double bookingsPerSecond,
+                          long readBusy, long writeBusy, long reads) {
+
+        @Override
+        public String toString() {
+            return String.format("%-8s чтений/с: %10.1f  бронирований/с: %8.1f  SQLITE_BUSY при чтении: %d, при записи: %d",
+                    name, readsPerSecond, bookingsPerSecond, readBusy, writeBusy);
+        }
+    }
+}
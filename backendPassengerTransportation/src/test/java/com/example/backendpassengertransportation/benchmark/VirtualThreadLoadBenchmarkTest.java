@@ -0,0 +1,185 @@
+package com.example.backendpassengertransportation.benchmark;
+
+import com.example.backendpassengertransportation.BackendPassengerTransportationApplication;
+import com.example.backendpassengertransportation.service.RouteService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Сравнение обработки запросов в потоках платформы (пул Tomcat) и в виртуальных потоках (профиль "virtual-threads")
+// при 1000 одновременных клиентах для GET /routes и POST /booking-tickets.
+// Запуск: mvn test -Pbenchmark,java21
+@Tag("benchmark")
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualThreadLoadBenchmarkTest {
+
+    private static final int CLIENTS = 1_000; // Количество одновременных клиентов
+    private static final int ROUTES = 200; // Количество маршрутов в каталоге
+    private static final long DURATION_MILLIS = 10_000; // Длительность каждого прогона
+    private static final long WARMUP_MILLIS = 3_000; // Длительность прогрева перед прогоном
+
+    /**
+     * Сравнение пропускной способности и задержек в потоках платформы и в виртуальных потоках.
+     * Проверка, что в обоих режимах запросы обслуживаются.
+     */
+    @Test
+    void benchmarkPlatformVersusVirtualThreads() throws Exception {
+        List<Result> results = new ArrayList<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            String mode = virtual ? "virtual" : "platform";
+            try (ConfigurableApplicationContext context = start(mode, virtual)) {
+                int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+                createCatalog(context.getBean(RouteService.class));
+                String base = "http://localhost:" + port;
+
+                HttpRequest getRoutes = HttpRequest.newBuilder(URI.create(base + "/routes")).GET().build();
+                run(mode, "GET /routes", () -> getRoutes, WARMUP_MILLIS);
+                results.add(run(mode, "GET /routes", () -> getRoutes, DURATION_MILLIS));
+                results.add(run(mode, "POST /booking-tickets", () -> bookingRequest(base), DURATION_MILLIS));
+            }
+        }
+
+        results.forEach(System.out::println);
+        for (Result result : results) {
+            assertTrue(result.requests > 0, result.mode + " " + result.scenario);
+        }
+    }
+
+    // Запуск приложения на случайном порту с отдельной базой и журналом для режима
+    private ConfigurableApplicationContext start(String mode, boolean virtual) throws Exception {
+        Path database = Path.of("target", "virtual-thread-benchmark-" + mode + ".db");
+        Files.deleteIfExists(database);
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(BackendPassengerTransportationApplication.class)
+                .properties(
+                        "server.port=0",
+                        "management.server.port=0",
+                        "spring.datasource.url=jdbc:sqlite:" + database,
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "bookings.journal.directory=target/virtual-thread-benchmark-" + mode + "-journal",
+                        "spring.threads.virtual.enabled=" + virtual);
+        if (virtual) {
+            builder.profiles("virtual-threads");
+        }
+        return builder.run();
+    }
+
+    // Создание каталога маршрутов с большим количеством мест
+    private void createCatalog(RouteService routeService) {
+        for (int i = 0; i < ROUTES; i++) {
+            String departure = String.format("2030-03-%02d %02d:00", i % 28 + 1, i % 24);
+            String arrival = String.format("2030-03-%02d %02d:59", i % 28 + 1, i % 24);
+            routeService.createRoute("Поезд", "Москва", "Казань", departure, arrival, 1_000_000, 1_000_000);
+        }
+    }
+
+    // Запрос бронирования на случайный маршрут
+    private HttpRequest bookingRequest(String base) {
+        long routeId = ThreadLocalRandom.current().nextLong(1, ROUTES + 1);
+        String query = "routeId=" + routeId
+                + "&passengerFullName=" + URLEncoder.encode("Петров Иван Иванович", StandardCharsets.UTF_8)
+                + "&passengerPhone=" + URLEncoder.encode("+7 904 123-45-67", StandardCharsets.UTF_8)
+                + "&passengerEmail=" + URLEncoder.encode("ivan@mail.ru", StandardCharsets.UTF_8);
+        return HttpRequest.newBuilder(URI.create(base + "/booking-tickets?" + query))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+
+    // Один прогон: CLIENTS клиентов отправляют запросы друг за другом в течение заданного времени
+    private Result run(String mode, String scenario, RequestFactory requests, long durationMillis) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+
+        // Клиенты - потоки платформы, чтобы генератор нагрузки одинаково работал для обоих режимов сервера
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        List<Future<List<Long>>> futures = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            futures.add(executor.submit(() -> {
+                List<Long> latencies = new ArrayList<>();
+                start.await();
+                while (running.get()) {
+                    long begin = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(requests.create(), HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        errors.incrementAndGet();
+                    }
+                    latencies.add(System.nanoTime() - begin);
+                }
+                return latencies;
+            }));
+        }
+
+        start.countDown();
+        Thread.sleep(durationMillis);
+        running.set(false);
+        List<Long> latencies = new ArrayList<>();
+        for (Future<List<Long>> future : futures) {
+            latencies.addAll(future.get(2, TimeUnit.MINUTES));
+        }
+        executor.shutdown();
+
+        latencies.sort(null);
+        return new Result(mode, scenario, latencies.size(), latencies.size() / (durationMillis / 1000.0),
+                percentile(latencies, 0.50), percentile(latencies, 0.99),
+                latencies.isEmpty() ? 0 : latencies.get(latencies.size() - 1) / 1_000_000.0, errors.get());
+    }
+
+    // Перцентиль отсортированных задержек в миллисекундах
+    private double percentile(List<Long> sorted, double quantile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.size() - 1, Math.ceil(quantile * sorted.size()) - 1);
+        return sorted.get(Math.max(0, index)) / 1_000_000.0;
+    }
+
+    // Фабрика запросов клиента
+    private interface RequestFactory {
+        HttpRequest create();
+    }
+
+    // Результат одного прогона
+    private record Result(String mode, String scenario, long requests, double requestsPerSecond,
+                          double p50Millis, double p99Millis, double maxMillis, long errors) {
+
+        @Override
+        public String toString() {
+            return String.format("%-9s %-22s запросов/с: %9.1f  p50: %8.2f мс  p99: %8.2f мс  max: %8.2f мс  ошибок: %d",
+                    mode, scenario, requestsPerSecond, p50Millis, p99Millis, maxMillis, errors);
+        }
+    }
+}
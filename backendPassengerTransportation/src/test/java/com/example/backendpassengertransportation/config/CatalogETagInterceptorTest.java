@@ -0,0 +1,121 @@
+package com.example.backendpassengertransportation.config;
+
+import com.example.backendpassengertransportation.service.CatalogVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Тесты условных GET-запросов каталога маршрутов
+class CatalogETagInterceptorTest {
+
+    private CatalogVersion catalogVersion;
+
+    private CatalogETagInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        catalogVersion = new CatalogVersion();
+        interceptor = new CatalogETagInterceptor(catalogVersion);
+    }
+
+    /**
+     * Тест запроса без If-None-Match.
+     * Проверка, что запрос передается контроллеру, а ответ помечается версией каталога.
+     */
+    @Test
+    void testPreHandle_SetsETag() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest("GET", "/routes"), response, null));
+        assertEquals(200, response.getStatus());
+        assertEquals(catalogVersion.getETag(), response.getHeader(HttpHeaders.ETAG));
+        assertNotNull(response.getHeader(HttpHeaders.LAST_MODIFIED));
+    }
+
+    /**
+     * Тест запроса с текущей версией в If-None-Match.
+     * Проверка, что запрос завершается статусом 304 без вызова контроллера.
+     */
+    @Test
+    void testPreHandle_NotModified() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/routes/1");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, catalogVersion.getETag());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(interceptor.preHandle(request, response, null));
+        assertEquals(304, response.getStatus());
+        assertEquals(catalogVersion.getETag(), response.getHeader(HttpHeaders.ETAG));
+    }
+
+    /**
+     * Тест запроса после изменения каталога.
+     * Проверка, что устаревшая версия в If-None-Match не дает 304 и ответ помечается новой версией.
+     */
+    @Test
+    void testPreHandle_ModifiedAfterCatalogChange() {
+        String oldETag = catalogVersion.getETag();
+        catalogVersion.increment();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/routes");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, oldETag);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(request, response, null));
+        assertNotEquals(oldETag, catalogVersion.getETag());
+        assertEquals(catalogVersion.getETag(), response.getHeader(HttpHeaders.ETAG));
+    }
+
+    /**
+     * Тест поиска относительно текущего времени.
+     * Проверка, что результат поиска с departsAfterMinutes не помечается версией каталога.
+     */
+    @Test
+    void testPreHandle_SkipsTimeRelativeSearch() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/routes/search");
+        request.setParameter("departsAfterMinutes", "30");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, catalogVersion.getETag());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(request, response, null));
+        assertNull(response.getHeader(HttpHeaders.ETAG));
+    }
+
+    /**
+     * Тест запроса каталога в CBOR.
+     * Проверка, что ETag представления CBOR отличается от ETag JSON и JSON-версия не дает 304.
+     */
+    @Test
+    void testPreHandle_CborHasOwnETag() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/routes");
+        request.addHeader(HttpHeaders.ACCEPT, "application/cbor");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, catalogVersion.getETag());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(request, response, null));
+        assertEquals("\"" + catalogVersion.getVersion() + "-cbor\"", response.getHeader(HttpHeaders.ETAG));
+    }
+
+    /**
+     * Тест выбора формата по заголовку Accept.
+     * Проверка, что CBOR выбирается только при более высоком приоритете, чем у JSON.
+     */
+    @Test
+    void testPrefersCbor() {
+        assertTrue(CatalogETagInterceptor.prefersCbor(accept("application/cbor, application/json;q=0.9")));
+        assertTrue(CatalogETagInterceptor.prefersCbor(accept("application/cbor, */*;q=0.2")));
+        assertFalse(CatalogETagInterceptor.prefersCbor(accept("application/json, application/cbor")));
+        assertFalse(CatalogETagInterceptor.prefersCbor(accept("application/cbor;q=0.5, application/json")));
+        assertFalse(CatalogETagInterceptor.prefersCbor(accept("*/*")));
+        assertFalse(CatalogETagInterceptor.prefersCbor(new MockHttpServletRequest("GET", "/routes")));
+    }
+
+    // Запрос каталога с указанным заголовком Accept
+    private static MockHttpServletRequest accept(String accept) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/routes");
+        request.addHeader(HttpHeaders.ACCEPT, accept);
+        return request;
+    }
+}
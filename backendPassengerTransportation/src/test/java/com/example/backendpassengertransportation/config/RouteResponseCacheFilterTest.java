@@ -0,0 +1,159 @@
+package com.example.backendpassengertransportation.config;
+
+import com.example.backendpassengertransportation.service.CatalogVersion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Тесты кэша сериализованных ответов каталога маршрутов
+class RouteResponseCacheFilterTest {
+
+    // Ответ контроллера размером больше порога сжатия
+    private static final String BODY = "[" + "{\"idRoute\":1,\"transportType\":\"Поезд\"},".repeat(100) + "{}]";
+
+    private final AtomicInteger invocations = new AtomicInteger(); // Количество вызовов контроллера
+
+    private final AtomicInteger status = new AtomicInteger(HttpServletResponse.SC_OK); // Статус ответа контроллера
+
+    private CatalogVersion catalogVersion;
+
+    private RouteResponseCacheFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        catalogVersion = new CatalogVersion();
+        filter = new RouteResponseCacheFilter();
+        ReflectionTestUtils.setField(filter, "catalogVersion", catalogVersion);
+        ReflectionTestUtils.setField(filter, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "maximumSize", DataSize.ofMegabytes(1));
+        ReflectionTestUtils.setField(filter, "gzip", true);
+        filter.init();
+    }
+
+    /**
+     * Тест повторного запроса каталога.
+     * Проверка, что второй ответ записывается из кэша без вызова контроллера и совпадает с первым.
+     */
+    @Test
+    void testDoFilter_ServesCachedBytes() throws Exception {
+        MockHttpServletResponse first = get("/routes", false);
+        MockHttpServletResponse second = get("/routes", false);
+
+        assertEquals(1, invocations.get());
+        assertEquals(BODY, first.getContentAsString(StandardCharsets.UTF_8));
+        assertEquals(BODY, second.getContentAsString(StandardCharsets.UTF_8));
+        assertEquals("application/json", second.getContentType());
+        assertEquals(catalogVersion.getETag(), second.getHeader(HttpHeaders.ETAG));
+    }
+
+    /**
+     * Тест изменения каталога.
+     * Проверка, что после увеличения версии каталога ответ формируется контроллером заново.
+     */
+    @Test
+    void testDoFilter_CatalogChangeInvalidates() throws Exception {
+        get("/routes/departure/Москва", false);
+        catalogVersion.increment();
+        get("/routes/departure/Москва", false);
+
+        assertEquals(2, invocations.get());
+    }
+
+    /**
+     * Тест сжатого ответа.
+     * Проверка, что клиент, принимающий gzip, получает сжатую копию сохраненного ответа.
+     */
+    @Test
+    void testDoFilter_GzipForAcceptingClient() throws Exception {
+        get("/routes/transport/Поезд", false);
+        MockHttpServletResponse response = get("/routes/transport/Поезд", true);
+
+        assertEquals(1, invocations.get());
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(BODY, gunzip(response.getContentAsByteArray()));
+    }
+
+    /**
+     * Тест ответа с ошибкой.
+     * Проверка, что сообщение об ошибке передается клиенту, но не сохраняется в кэше.
+     */
+    @Test
+    void testDoFilter_DoesNotCacheErrors() throws Exception {
+        status.set(HttpServletResponse.SC_NOT_FOUND);
+        MockHttpServletResponse response = get("/routes/destination/Тверь", false);
+        get("/routes/destination/Тверь", false);
+
+        assertEquals(404, response.getStatus());
+        assertEquals(BODY, response.getContentAsString(StandardCharsets.UTF_8));
+        assertEquals(2, invocations.get());
+    }
+
+    /**
+     * Тест запросов одного адреса в разных форматах.
+     * Проверка, что ответы JSON и CBOR хранятся отдельно и CBOR помечается собственным ETag.
+     */
+    @Test
+    void testDoFilter_SeparatesCborFromJson() throws Exception {
+        get("/routes", false);
+        get("/routes", false, "application/cbor");
+        MockHttpServletResponse cbor = get("/routes", false, "application/cbor");
+
+        assertEquals(2, invocations.get());
+        assertEquals("\"" + catalogVersion.getVersion() + "-cbor\"", cbor.getHeader(HttpHeaders.ETAG));
+        assertTrue(cbor.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT));
+    }
+
+    // Выполнение GET-запроса через фильтр и контроллер, записывающий JSON
+    private MockHttpServletResponse get(String uri, boolean acceptGzip) throws Exception {
+        return get(uri, acceptGzip, null);
+    }
+
+    // Выполнение GET-запроса с указанным заголовком Accept через фильтр и контроллер
+    private MockHttpServletResponse get(String uri, boolean acceptGzip, String accept) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        if (acceptGzip) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        }
+        if (accept != null) {
+            request.addHeader(HttpHeaders.ACCEPT, accept);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HttpServlet controller = new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                invocations.incrementAndGet();
+                resp.setStatus(status.get());
+                resp.setHeader(HttpHeaders.ETAG, catalogVersion.getETag());
+                resp.setContentType("application/json");
+                resp.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+            }
+        };
+        filter.doFilter(request, response, new MockFilterChain(controller));
+        return response;
+    }
+
+    // Распаковка ответа, сжатого gzip
+    private static String gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
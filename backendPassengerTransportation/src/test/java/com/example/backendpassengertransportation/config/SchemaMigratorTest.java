@@ -0,0 +1,98 @@
+package com.example.backendpassengertransportation.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sqlite.SQLiteDataSource;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Тесты миграции схемы на временной базе SQLite
+class SchemaMigratorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private SQLiteDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + tempDir.resolve("migration-test.db"));
+        new SchemaMigrator(dataSource).migrate();
+    }
+
+    /**
+     * Тест применения миграций.
+     * Проверка, что номер версии схемы обновлен, а повторный запуск ничего не меняет.
+     */
+    @Test
+    void testMigrate_SetsVersionAndIsIdempotent() throws SQLException {
+        assertEquals(SchemaMigrator.getLatestVersion(), userVersion());
+
+        // Повторный запуск на уже мигрированной базе
+        new SchemaMigrator(dataSource).migrate();
+
+        assertEquals(SchemaMigrator.getLatestVersion(), userVersion());
+    }
+
+    /**
+     * Тест планов запросов поиска маршрутов.
+     * Проверка, что каждый запрос RouteRepository выполняется по индексу, а не полным сканированием таблицы.
+     */
+    @Test
+    void testRouteQueries_UseIndexes() throws SQLException {
+        assertUsesIndex("SELECT * FROM routes WHERE transport_type = ?", 1);
+        assertUsesIndex("SELECT * FROM routes WHERE departure_city = ?", 1);
+        assertUsesIndex("SELECT * FROM routes WHERE destination_city = ?", 1);
+        assertUsesIndex("SELECT * FROM routes WHERE departure_city = ? AND destination_city = ?", 2);
+        assertUsesIndex("SELECT * FROM routes WHERE departure_time >= ? AND departure_time < ? ORDER BY departure_time", 2);
+    }
+
+    /**
+     * Тест планов запросов поиска бронирований.
+     * Проверка, что каждый запрос BookingTicketRepository выполняется по индексу, а не полным сканированием таблицы.
+     */
+    @Test
+    void testBookingTicketQueries_UseIndexes() throws SQLException {
+        assertUsesIndex("SELECT * FROM booking_tickets WHERE passenger_full_name = ?", 1);
+        assertUsesIndex("SELECT * FROM booking_tickets WHERE id_route = ? AND passenger_phone = ?", 2);
+        assertUsesIndex("SELECT * FROM booking_tickets WHERE id_route = ?", 1);
+        assertUsesIndex("SELECT id_booking FROM booking_tickets WHERE id_route = ? LIMIT 1", 1);
+    }
+
+    // Проверка по EXPLAIN QUERY PLAN, что запрос выполняется поиском по индексу
+    private void assertUsesIndex(String sql, int parameters) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+            for (int i = 1; i <= parameters; i++) {
+                statement.setString(i, "1");
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString("detail")).append('\n');
+                }
+            }
+            assertTrue(plan.toString().contains("USING INDEX") || plan.toString().contains("USING COVERING INDEX"),
+                    () -> "Запрос выполняется без индекса: " + sql + "\n" + plan);
+            assertFalse(plan.toString().contains("SCAN"), () -> "Запрос сканирует таблицу: " + sql + "\n" + plan);
+        }
+    }
+
+    // Чтение номера версии схемы
+    private int userVersion() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("PRAGMA user_version")) {
+            return resultSet.getInt(1);
+        }
+    }
+}
@@ -1,18 +1,34 @@
 package com.example.backendpassengertransportation.controller;
 
+import com.example.backendpassengertransportation.dto.BookingTicketSummary;
+import com.example.backendpassengertransportation.dto.CompactBookingTickets;
+import com.example.backendpassengertransportation.dto.GroupBookingRequest;
+import com.example.backendpassengertransportation.dto.KeysetPage;
+import com.example.backendpassengertransportation.dto.SeatHoldView;
 import com.example.backendpassengertransportation.model.BookingTicket;
+import com.example.backendpassengertransportation.model.Route;
 import com.example.backendpassengertransportation.service.BookingTicketService;
+import com.example.backendpassengertransportation.service.IdempotencyStore;
+import com.example.backendpassengertransportation.service.SeatHoldService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -23,6 +39,15 @@ class BookingTicketControllerTest {
     @Mock
     private BookingTicketService bookingTicketService;
 
+    @Mock
+    private SeatHoldService seatHoldService;
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private BookingTicketController bookingTicketController;
 
@@ -144,7 +169,7 @@ class BookingTicketControllerTest {
                 .thenThrow(new IllegalArgumentException("Неверный формат телефона"));
 
         // Вызов метода контроллера, который должен вернуть статус 400 и сообщение об ошибке
-        ResponseEntity<?> response = bookingTicketController.createBookingTicket(1L, "Петров Иван Иванович", "12345", "ivan@mail.ru");
+        ResponseEntity<?> response = bookingTicketController.createBookingTicket(1L, "Петров Иван Иванович", "12345", "ivan@mail.ru", null);
 
         // Проверка, что статус ответа должен быть 400 (Bad Request)
         assertEquals(400, response.getStatusCodeValue());
@@ -163,7 +188,7 @@ class BookingTicketControllerTest {
                 .thenThrow(new IllegalArgumentException("Неверный формат электронной почты"));
 
         // Вызов метода контроллера, который должен вернуть статус 400 и сообщение об ошибке
-        ResponseEntity<?> response = bookingTicketController.createBookingTicket(1L, "Петров Иван Иванович", "+7 904 123-45-67", "ivan@unknown.com");
+        ResponseEntity<?> response = bookingTicketController.createBookingTicket(1L, "Петров Иван Иванович", "+7 904 123-45-67", "ivan@unknown.com", null);
 
         // Проверка, что статус ответа должен быть 400 (Bad Request)
         assertEquals(400, response.getStatusCodeValue());
@@ -182,7 +207,7 @@ class BookingTicketControllerTest {
                 .thenThrow(new IllegalArgumentException("Некорректные данные"));
 
         // Вызов метода контроллера, который должен вернуть статус 400 и сообщение об ошибке
-        ResponseEntity<?> response = bookingTicketController.createBookingTicket(1L, "", "", "");
+        ResponseEntity<?> response = bookingTicketController.createBookingTicket(1L, "", "", "", null);
 
         // Проверка, что статус ответа должен быть 400 (Bad Request)
         assertEquals(400, response.getStatusCodeValue());
@@ -311,4 +336,331 @@ class BookingTicketControllerTest {
         // Проверка, что тело ответа должно быть пустым списком
         assertTrue(response.getBody().isEmpty());
     }
-}
\ No newline at end of file
+
+    /**
+     * Тест постраничного получения бронирований.
+     * Проверка, что на последней странице курсор следующей страницы отсутствует.
+     */
+    @Test
+    void testGetBookingTicketsPage_LastPage() {
+        // Создание тестовых данных: последняя страница из одного бронирования
+        BookingTicket ticket = new BookingTicket(null, "Петров Иван Иванович", "+7 904 123-45-67", "ivan@mail.ru", "2025-03-14 10:00:00");
+        KeysetPage<BookingTicket> page = new KeysetPage<>(Collections.singletonList(ticket), null);
+
+        // Мокирование сервиса: при запросе страницы после бронирования с ID 200 возвращается последняя страница
+        when(bookingTicketService.getBookingTicketsPage(200L, 50)).thenReturn(page);
+
+        // Вызов метода контроллера, который должен вернуть страницу бронирований
+        ResponseEntity<?> response = bookingTicketController.getBookingTicketsPage(200L, 50);
+
+        // Проверка, что статус ответа должен быть 200 (OK)
+        assertEquals(200, response.getStatusCodeValue());
+
+        // Проверка, что страница содержит одно бронирование и не содержит курсора следующей страницы
+        KeysetPage<BookingTicket> result = (KeysetPage<BookingTicket>) response.getBody();
+        assertEquals(1, result.getItems().size());
+        assertEquals("Петров Иван Иванович", result.getItems().get(0).getPassengerFullName());
+        assertNull(result.getNext());
+    }
+
+    /**
+     * Тест постраничного получения бронирований с отрицательным курсором.
+     * Проверка, что контроллер возвращает статус 400 и сообщение об ошибке.
+     */
+    @Test
+    void testGetBookingTicketsPage_NegativeCursor() {
+        // Мокирование сервиса: при отрицательном курсоре выбрасывается исключение
+        when(bookingTicketService.getBookingTicketsPage(-1L, 50))
+                .thenThrow(new IllegalArgumentException("Курсор страницы не может быть отрицательным."));
+
+        // Вызов метода контроллера с отрицательным курсором
+        ResponseEntity<?> response = bookingTicketController.getBookingTicketsPage(-1L, 50);
+
+        // Проверка, что статус ответа должен быть 400 (BAD REQUEST)
+        assertEquals(400, response.getStatusCodeValue());
+
+        // Проверка, что тело ответа содержит сообщение об ошибке
+        assertEquals("Курсор страницы не может быть отрицательным.", response.getBody());
+    }
+
+    /**
+     * Тест группового бронирования.
+     * Проверка, что контроллер возвращает статус 201 и список созданных бронирований.
+     */
+    @Test
+    void testCreateGroupBooking_Success() {
+        // Создание тестовых данных: запрос на бронирование двух пассажиров
+        List<GroupBookingRequest.Passenger> passengers = Arrays.asList(
+                new GroupBookingRequest.Passenger("Петров Иван Иванович", "+7 904 123-45-67", "ivan@mail.ru"),
+                new GroupBookingRequest.Passenger("Петрова Мария Ивановна", "+7 904 123-45-68", "maria@mail.ru"));
+        GroupBookingRequest request = new GroupBookingRequest(1L, passengers);
+        List<BookingTicket> tickets = Arrays.asList(
+                new BookingTicket(null, "Петров Иван Иванович", "+7 904 123-45-67", "ivan@mail.ru", "2025-03-14 10:00:00"),
+                new BookingTicket(null, "Петрова Мария Ивановна", "+7 904 123-45-68", "maria@mail.ru", "2025-03-14 10:00:00"));
+
+        // Мокирование сервиса: при групповом бронировании возвращаются два бронирования
+        when(bookingTicketService.createGroupBooking(1L, passengers)).thenReturn(tickets);
+
+        // Вызов метода контроллера, который должен создать групповое бронирование
+        ResponseEntity<?> response = bookingTicketController.createGroupBooking(request);
+
+        // Проверка, что статус ответа должен быть 201 (CREATED) и тело содержит оба бронирования
+        assertEquals(201, response.getStatusCodeValue());
+        assertEquals(2, ((List<BookingTicket>) response.getBody()).size());
+    }
+
+    /**
+     * Тест группового бронирования при нехватке мест.
+     * Проверка, что контроллер возвращает статус 400 и сообщение об ошибке.
+     */
+    @Test
+    void testCreateGroupBooking_NotEnoughSeats() {
+        // Создание тестовых данных: запрос на бронирование одного пассажира
+        List<GroupBookingRequest.Passenger> passengers = Collections.singletonList(
+                new GroupBookingRequest.Passenger("Петров Иван Иванович", "+7 904 123-45-67", "ivan@mail.ru"));
+        GroupBookingRequest request = new GroupBookingRequest(1L, passengers);
+
+        // Мокирование сервиса: при нехватке мест выбрасывается исключение
+        when(bookingTicketService.createGroupBooking(1L, passengers))
+                .thenThrow(new IllegalStateException("Недостаточно доступных мест для бронирования группы из 1 пассажиров."));
+
+        // Вызов метода контроллера
+        ResponseEntity<?> response = bookingTicketController.createGroupBooking(request);
+
+        // Проверка, что статус ответа должен быть 400 (BAD REQUEST) и тело содержит сообщение об ошибке
+        assertEquals(400, response.getStatusCodeValue());
+        assertEquals("Недостаточно доступных мест для бронирования группы из 1 пассажиров.", response.getBody());
+    }
+
+    /**
+     * Тест получения бронирований пассажира в компактном представлении.
+     * Проверка, что бронирования ссылаются на маршрут по ID, а маршрут передается один раз.
+     */
+    @Test
+    void testGetBookingTicketsByPassengerFullNameCompact_Success() {
+        // Создание тестовых данных: два бронирования пассажира на один маршрут
+        Route route = new Route("Поезд", "Москва", "Казань", "2025-03-14 10:00:00", "2025-03-14 22:00:00", 100, 98);
+        List<BookingTicketSummary> summaries = Arrays.asList(
+                new BookingTicketSummary(1L, 5L, "Петров Иван Иванович", "+7 904 123-45-67", "ivan@mail.ru", "2025-03-10 10:00:00", 12),
+                new BookingTicketSummary(2L, 5L, "Петров Иван Иванович", "+7 904 123-45-67", "ivan@mail.ru", "2025-03-11 12:00:00", null));
+        CompactBookingTickets compact = new CompactBookingTickets(summaries, Map.of(5L, route));
+
+        // Мокирование сервиса: при поиске по ФИО возвращается компактный ответ
+        when(bookingTicketService.getBookingTicketsByPassengerFullNameCompact("Петров Иван Иванович")).thenReturn(compact);
+
+        // Вызов метода контроллера, который должен вернуть бронирования в компактном представлении
+        ResponseEntity<?> response = bookingTicketController.getBookingTicketsByPassengerFullNameCompact("Петров Иван Иванович");
+
+        // Проверка, что статус ответа должен быть 200 (OK)
+        assertEquals(200, response.getStatusCodeValue());
+
+        // Проверка, что два бронирования ссылаются на один маршрут из словаря маршрутов
+        CompactBookingTickets result = (CompactBookingTickets) response.getBody();
+        assertEquals(2, result.getBookingTickets().size());
+        assertEquals(1, result.getRoutes().size());
+        assertEquals("Казань", result.getRoutes().get(result.getBookingTickets().get(0).getRouteId()).getDestinationCity());
+    }
+
+    /**
+     * Тест получения бронирований несуществующего маршрута в компактном представлении.
+     * Проверка, что контроллер возвращает статус 404 и сообщение об ошибке.
+     */
+    @Test
+    void testGetBookingTicketsByRouteCompact_RouteNotFound() {
+        // Мокирование сервиса: при отсутствии маршрута выбрасывается исключение
+        when(bookingTicketService.getBookingTicketsByRouteCompact(999L))
+                .thenThrow(new IllegalArgumentException("Маршрут с таким ID не найден."));
+
+        // Вызов метода контроллера для несуществующего маршрута
+        ResponseEntity<?> response = bookingTicketController.getBookingTicketsByRouteCompact(999L);
+
+        // Проверка, что статус ответа должен быть 404 (NOT FOUND) и тело содержит сообщение об ошибке
+        assertEquals(404, response.getStatusCodeValue());
+        assertEquals("Маршрут с таким ID не найден.", response.getBody());
+    }
+
+    /**
+     * Тест создания бронирования на уже занятое место.
+     * Проверка, что контроллер возвращает статус 400 и сообщение об ошибке.
+     */
+    @Test
+    void testCreateBookingTicketWithSeat_SeatTaken() {
+        // Мокирование сервиса: при бронировании занятого места выбрасывается исключение
+        when(bookingTicketService.createBookingTicket(1L, "Петров Иван Иванович", "+7 904 123-45-67", "ivan@mail.ru", 12))
+                .thenThrow(new IllegalStateException("Место 12 уже занято."));
+
+        // Вызов метода контроллера для бронирования места 12
+        ResponseEntity<?> response = bookingTicketController.createBookingTicketWithSeat(
+                1L, "Петров Иван Иванович", "+7 904 123-45-67", "ivan@mail.ru", 12, null);
+
+        // Проверка, что статус ответа должен быть 400 (BAD REQUEST) и тело содержит сообщение об ошибке
+        assertEquals(400, response.getStatusCodeValue());
+        assertEquals("Место 12 уже занято.", response.getBody());
+    }
+
+    /**
+     * Тест удержания места.
+     * Проверка, что контроллер возвращает статус 201 и данные удержания.
+     */
+    @Test
+    void testHoldSeat_Success() {
+        // Мокирование сервиса: удержание места 12 маршрута 1
+        SeatHoldView hold = new SeatHoldView("hold-1", 1L, 12, "2030-02-01 10:10:00");
+        when(seatHoldService.holdSeat(1L, 12)).thenReturn(hold);
+
+        // Вызов метода контроллера
+        ResponseEntity<?> response = bookingTicketController.holdSeat(1L, 12);
+
+        // Проверка, что статус ответа должен быть 201 (CREATED) и тело содержит удержание
+        assertEquals(201, response.getStatusCodeValue());
+        assertEquals(hold, response.getBody());
+    }
+
+    /**
+     * Тест удержания места при отсутствии свободных мест.
+     * Проверка, что контроллер возвращает статус 400 и сообщение об ошибке.
+     */
+    @Test
+    void testHoldSeat_NoSeats() {
+        // Мокирование сервиса: свободных мест нет
+        when(seatHoldService.holdSeat(1L, null))
+                .thenThrow(new IllegalStateException("Нет доступных мест для бронирования."));
+
+        // Вызов метода контроллера
+        ResponseEntity<?> response = bookingTicketController.holdSeat(1L, null);
+
+        // Проверка, что статус ответа должен быть 400 (BAD REQUEST) и тело содержит сообщение об ошибке
+        assertEquals(400, response.getStatusCodeValue());
+        assertEquals("Нет доступных мест для бронирования.", response.getBody());
+    }
+
+    /**
+     * Тест подтверждения удержания места.
+     * Проверка, что контроллер возвращает статус 201 и созданное бронирование.
+     */
+    @Test
+    void testConfirmHold_Success() {
+        // Создание тестовых данных: бронирование на удержанное место
+        Route route = new Route("Поезд", "Москва", "Казань", "2030-03-01 10:00:00", "2030-03-01 22:00:00", 100, 99);
+        BookingTicket bookingTicket = new BookingTicket(route, "Петров Иван Иванович", "+7 904 123-45-67", "ivan@mail.ru", "2030-02-01 10:00:00");
+        bookingTicket.setSeatNumber(12);
+
+        // Мокирование сервиса: подтверждение удержания
+        when(seatHoldService.confirmHold("hold-1", "Петров Иван Иванович", "+7 904 123-45-67", "ivan@mail.ru"))
+                .thenReturn(bookingTicket);
+
+        // Вызов метода контроллера
+        ResponseEntity<?> response = bookingTicketController.confirmHold(
+                "hold-1", "Петров Иван Иванович", "+7 904 123-45-67", "ivan@mail.ru");
+
+        // Проверка, что статус ответа должен быть 201 (CREATED) и тело содержит бронирование
+        assertEquals(201, response.getStatusCodeValue());
+        assertEquals(bookingTicket, response.getBody());
+    }
+
+    /**
+     * Тест подтверждения истекшего удержания.
+     * Проверка, что контроллер возвращает статус 404 и сообщение об ошибке.
+     */
+    @Test
+    void testConfirmHold_Expired() {
+        // Мокирование сервиса: удержание истекло
+        when(seatHoldService.confirmHold("hold-1", "Петров Иван Иванович", "+7 904 123-45-67", "ivan@mail.ru"))
+                .thenThrow(new NoSuchElementException("Удержание места не найдено или истекло."));
+
+        // Вызов метода контроллера
+        ResponseEntity<?> response = bookingTicketController.confirmHold(
+                "hold-1", "Петров Иван Иванович", "+7 904 123-45-67", "ivan@mail.ru");
+
+        // Проверка, что статус ответа должен быть 404 (NOT FOUND) и тело содержит сообщение об ошибке
+        assertEquals(404, response.getStatusCodeValue());
+        assertEquals("Удержание места не найдено или истекло.", response.getBody());
+    }
+
+    /**
+     * Тест снятия удержания места.
+     * Проверка, что контроллер возвращает статус 200 и вызывает сервис.
+     */
+    @Test
+    void testReleaseHold_Success() {
+        // Вызов метода контроллера
+        ResponseEntity<String> response = bookingTicketController.releaseHold("hold-1");
+
+        // Проверка, что статус ответа должен быть 200 (OK) и удержание снято
+        assertEquals(200, response.getStatusCodeValue());
+        verify(seatHoldService).releaseHold("hold-1");
+    }
+
+    /**
+     * Тест создания бронирования с ключом идемпотентности.
+     * Проверка, что запрос выполняется через хранилище ключей и возвращается его ответ.
+     */
+    @Test
+    void testCreateBookingTicket_WithIdempotencyKey() {
+        // Мокирование хранилища: выполнение переданного запроса
+        when(idempotencyStore.execute(eq("key-1"), anyString(), any())).thenAnswer(invocation ->
+                invocation.<Supplier<ResponseEntity<?>>>getArgument(2).get());
+        Route route = new Route("Поезд", "Москва", "Казань", "2030-03-01 10:00:00", "2030-03-01 22:00:00", 100, 99);
+        BookingTicket bookingTicket = new BookingTicket(route, "Петров Иван Иванович", "+7 904 123-45-67", "ivan@mail.ru", "2030-02-01 10:00:00");
+        when(bookingTicketService.createBookingTicket(1L, "Петров Иван Иванович", "+7 904 123-45-67", "ivan@mail.ru"))
+                .thenReturn(bookingTicket);
+
+        // Вызов метода контроллера с ключом идемпотентности
+        ResponseEntity<?> response = bookingTicketController.createBookingTicket(
+                1L, "Петров Иван Иванович", "+7 904 123-45-67", "ivan@mail.ru", "key-1");
+
+        // Проверка, что статус ответа должен быть 201 (CREATED) и тело содержит бронирование
+        assertEquals(201, response.getStatusCodeValue());
+        assertEquals(bookingTicket, response.getBody());
+    }
+
+    /**
+     * Тест повтора ключа идемпотентности с другими параметрами.
+     * Проверка, что контроллер возвращает статус 422 и не создает бронирование.
+     */
+    @Test
+    void testCreateBookingTicket_IdempotencyKeyReusedWithOtherParameters() {
+        // Мокирование хранилища: ключ уже использован для другого запроса
+        when(idempotencyStore.execute(eq("key-1"), anyString(), any()))
+                .thenThrow(new IllegalStateException("Ключ идемпотентности уже использован для запроса с другими параметрами."));
+
+        // Вызов метода контроллера с ключом идемпотентности
+        ResponseEntity<?> response = bookingTicketController.createBookingTicket(
+                1L, "Петров Иван Иванович", "+7 904 123-45-67", "ivan@mail.ru", "key-1");
+
+        // Проверка, что статус ответа должен быть 422 и бронирование не создавалось
+        assertEquals(422, response.getStatusCodeValue());
+        verifyNoInteractions(bookingTicketService);
+    }
+
+    /**
+     * Тест потокового получения бронирований.
+     * Проверка, что бронирования, переданные сервисом, записываются в ответ одним JSON-массивом.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStreamAllBookingTickets_WritesJsonArray() throws Exception {
+        Route route = new Route("Поезд", "Москва", "Казань", "2025-03-14 10:00", "2025-03-14 22:00", 100, 98);
+        BookingTicket ticket1 = new BookingTicket(route, "Петров Иван Иванович", "+7 904 123-45-67", "ivan@mail.ru", "2025-03-14 10:00:00");
+        BookingTicket ticket2 = new BookingTicket(route, "Сидорова Анна Петровна", "+7 911 456-78-90", "anna@gmail.com", "2025-03-14 11:00:00");
+
+        // Мокирование сервиса: бронирования передаются получателю по одному
+        doAnswer(invocation -> {
+            Consumer<BookingTicket> consumer = invocation.getArgument(0);
+            consumer.accept(ticket1);
+            consumer.accept(ticket2);
+            return null;
+        }).when(bookingTicketService).streamAllBookingTickets(any(Consumer.class));
+
+        ResponseEntity<StreamingResponseBody> response = bookingTicketController.streamAllBookingTickets();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        response.getBody().writeTo(output);
+
+        // Проверка, что массив содержит оба бронирования с вложенным маршрутом
+        assertEquals(200, response.getStatusCodeValue());
+        JsonNode json = objectMapper.readTree(output.toByteArray());
+        assertEquals(2, json.size());
+        assertEquals("Петров Иван Иванович", json.get(0).get("passengerFullName").asText());
+        assertEquals("Казань", json.get(1).get("route").get("destinationCity").asText());
+    }
+}
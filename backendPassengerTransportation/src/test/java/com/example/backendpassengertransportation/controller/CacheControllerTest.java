@@ -0,0 +1,53 @@
+package com.example.backendpassengertransportation.controller;
+
+import com.example.backendpassengertransportation.config.CacheConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheControllerTest {
+
+    private CacheManager cacheManager;
+
+    private CacheController cacheController;
+
+    @BeforeEach
+    void setUp() {
+        // Настоящий менеджер кэшей из конфигурации приложения
+        cacheManager = new CacheConfig().cacheManager(Duration.ofMinutes(5), 100);
+        cacheController = new CacheController();
+        ReflectionTestUtils.setField(cacheController, "cacheManager", cacheManager);
+    }
+
+    /**
+     * Тест получения статистики кэша.
+     * Проверка, что попадания и промахи считаются для каждого кэша.
+     */
+    @Test
+    void testGetCacheStats_CountsHitsAndMisses() {
+        // Один промах и два попадания в кэш каталога маршрутов
+        Cache catalogCache = cacheManager.getCache(CacheConfig.ROUTE_CATALOG_CACHE);
+        assertNull(catalogCache.get("all"));
+        catalogCache.put("all", "routes");
+        catalogCache.get("all");
+        catalogCache.get("all");
+
+        // Вызов метода контроллера, который должен вернуть статистику кэшей
+        Map<String, Map<String, Object>> stats = cacheController.getCacheStats();
+
+        // Проверка, что статистика содержит оба кэша маршрутов
+        assertTrue(stats.containsKey(CacheConfig.ROUTE_CATALOG_CACHE));
+        assertTrue(stats.containsKey(CacheConfig.ROUTE_BY_ID_CACHE));
+        // Проверка количества попаданий и промахов
+        assertEquals(2L, stats.get(CacheConfig.ROUTE_CATALOG_CACHE).get("hits"));
+        assertEquals(1L, stats.get(CacheConfig.ROUTE_CATALOG_CACHE).get("misses"));
+        assertEquals(1L, stats.get(CacheConfig.ROUTE_CATALOG_CACHE).get("size"));
+    }
+}
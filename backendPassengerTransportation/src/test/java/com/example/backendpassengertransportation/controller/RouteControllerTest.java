@@ -1,17 +1,32 @@
 package com.example.backendpassengertransportation.controller;
 
+import com.example.backendpassengertransportation.dto.KeysetPage;
+import com.example.backendpassengertransportation.dto.RouteImportResult;
+import com.example.backendpassengertransportation.dto.SeatMapView;
 import com.example.backendpassengertransportation.model.Route;
 import com.example.backendpassengertransportation.service.RouteService;
+import com.example.backendpassengertransportation.service.SeatEventBroadcaster;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -22,6 +37,12 @@ class RouteControllerTest {
     @Mock
     private RouteService routeService;
 
+    @Mock
+    private SeatEventBroadcaster seatEventBroadcaster;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private RouteController routeController;
 
@@ -489,4 +510,262 @@ class RouteControllerTest {
         // Проверка, что тело ответа должно содержать сообщение об ошибке
         assertEquals("Неверный формат даты. Используйте формат dd.MM.yyyy.", response.getBody());
     }
-}
\ No newline at end of file
+
+    /**
+     * Тест комбинированного поиска маршрутов.
+     * Проверка корректности возвращаемого списка маршрутов.
+     */
+    @Test
+    void testSearchRoutes_Success() {
+        // Создание тестовых данных: два маршрута, удовлетворяющих всем фильтрам
+        Route route1 = new Route("Поезд", "Москва", "Санкт-Петербург", "2025-03-14 10:00:00", "2025-03-14 18:00:00", 100, 100);
+        Route route2 = new Route("Поезд", "Москва", "Санкт-Петербург", "2025-03-15 12:00:00", "2025-03-15 20:00:00", 100, 100);
+        List<Route> routes = Arrays.asList(route1, route2);
+
+        // Мокирование сервиса: при вызове метода searchRoutes() с заданными фильтрами возвращается тестовый список маршрутов
+        when(routeService.searchRoutes("Поезд", "Москва", "Санкт-Петербург", "14.03.2025", "15.03.2025", 30)).thenReturn(routes);
+
+        // Вызов метода контроллера, который должен вернуть список маршрутов по всем фильтрам одним запросом
+        ResponseEntity<?> response = routeController.searchRoutes("Поезд", "Москва", "Санкт-Петербург", "14.03.2025", "15.03.2025", 30);
+
+        // Проверка, что статус ответа должен быть 200 (OK)
+        assertEquals(200, response.getStatusCodeValue());
+        // Проверка, что размер списка должен быть равен 2 (так как было создано два маршрута)
+        assertEquals(2, ((List<?>) response.getBody()).size());
+    }
+
+    /**
+     * Тест комбинированного поиска маршрутов (маршруты не найдены).
+     * Проверка возврата статуса 404 и сообщения об ошибке.
+     */
+    @Test
+    void testSearchRoutes_NotFound() {
+        // Мокирование сервиса: при вызове метода searchRoutes() выбрасывается исключение NoSuchElementException
+        when(routeService.searchRoutes("Самолет", null, "Сочи", null, null, 30))
+                .thenThrow(new NoSuchElementException("Маршруты по заданным фильтрам не найдены."));
+
+        // Вызов метода контроллера, который должен вернуть статус 404 (Not Found)
+        ResponseEntity<?> response = routeController.searchRoutes("Самолет", null, "Сочи", null, null, 30);
+
+        // Проверка, что статус ответа должен быть 404 (Not Found)
+        assertEquals(404, response.getStatusCodeValue());
+        // Проверка, что тело ответа должно содержать сообщение об ошибке
+        assertEquals("Маршруты по заданным фильтрам не найдены.", response.getBody());
+    }
+
+    /**
+     * Тест комбинированного поиска маршрутов (некорректный формат даты).
+     * Проверка возврата статуса 400 и сообщения об ошибке.
+     */
+    @Test
+    void testSearchRoutes_InvalidDateFormat() {
+        // Мокирование сервиса: при вызове метода searchRoutes() с некорректной датой выбрасывается исключение IllegalArgumentException
+        when(routeService.searchRoutes(null, null, null, "2025-03-14", null, null))
+                .thenThrow(new IllegalArgumentException("Неверный формат даты. Используйте формат dd.MM.yyyy."));
+
+        // Вызов метода контроллера, который должен вернуть статус 400 (Bad Request)
+        ResponseEntity<?> response = routeController.searchRoutes(null, null, null, "2025-03-14", null, null);
+
+        // Проверка, что статус ответа должен быть 400 (Bad Request)
+        assertEquals(400, response.getStatusCodeValue());
+        // Проверка, что тело ответа должно содержать сообщение об ошибке
+        assertEquals("Неверный формат даты. Используйте формат dd.MM.yyyy.", response.getBody());
+    }
+
+    /**
+     * Тест постраничного получения маршрутов.
+     * Проверка, что контроллер возвращает страницу маршрутов с курсором следующей страницы.
+     */
+    @Test
+    void testGetRoutesPage_Success() {
+        // Создание тестовых данных: страница из двух маршрутов с курсором следующей страницы
+        Route route1 = new Route("Автобус", "Москва", "Санкт-Петербург", "2025-03-14 10:00", "2025-03-14 18:00", 50, 50);
+        Route route2 = new Route("Поезд", "Казань", "Екатеринбург", "2025-03-15 12:00", "2025-03-16 08:00", 100, 100);
+        KeysetPage<Route> page = new KeysetPage<>(Arrays.asList(route1, route2), 12L);
+
+        // Мокирование сервиса: при запросе страницы после маршрута с ID 10 возвращается тестовая страница
+        when(routeService.getRoutesPage(10L, 2)).thenReturn(page);
+
+        // Вызов метода контроллера, который должен вернуть страницу маршрутов
+        ResponseEntity<?> response = routeController.getRoutesPage(10L, 2);
+
+        // Проверка, что статус ответа должен быть 200 (OK)
+        assertEquals(200, response.getStatusCodeValue());
+
+        // Проверка, что страница содержит два маршрута и курсор следующей страницы
+        KeysetPage<Route> result = (KeysetPage<Route>) response.getBody();
+        assertEquals(2, result.getItems().size());
+        assertEquals(12L, result.getNext());
+    }
+
+    /**
+     * Тест постраничного получения маршрутов с некорректным размером страницы.
+     * Проверка, что контроллер возвращает статус 400 и сообщение об ошибке.
+     */
+    @Test
+    void testGetRoutesPage_InvalidLimit() {
+        // Мокирование сервиса: при нулевом размере страницы выбрасывается исключение
+        when(routeService.getRoutesPage(null, 0))
+                .thenThrow(new IllegalArgumentException("Размер страницы должен быть от 1 до 500."));
+
+        // Вызов метода контроллера с некорректным размером страницы
+        ResponseEntity<?> response = routeController.getRoutesPage(null, 0);
+
+        // Проверка, что статус ответа должен быть 400 (BAD REQUEST)
+        assertEquals(400, response.getStatusCodeValue());
+
+        // Проверка, что тело ответа содержит сообщение об ошибке
+        assertEquals("Размер страницы должен быть от 1 до 500.", response.getBody());
+    }
+
+    /**
+     * Тест импорта маршрутов.
+     * Проверка, что контроллер возвращает результат импорта с ошибками по строкам.
+     */
+    @Test
+    void testImportRoutes_Success() throws Exception {
+        // Создание тестовых данных: CSV с одной корректной и одной некорректной строкой
+        InputStream body = new ByteArrayInputStream((
+                "Автобус,Москва,Тверь,2030-03-14 10:00,2030-03-14 14:00,50,50\n" +
+                "Поезд,Казань,Самара,2030-03-14 10:00,2030-03-14 08:00,100,100\n").getBytes(StandardCharsets.UTF_8));
+        RouteImportResult importResult = new RouteImportResult();
+        importResult.addImported(1);
+        importResult.addError(2, "Время прибытия не может быть раньше времени отправления.");
+
+        // Мокирование сервиса: при импорте возвращается результат с одной ошибкой
+        when(routeService.importRoutes(body, "csv")).thenReturn(importResult);
+
+        // Вызов метода контроллера, который должен импортировать маршруты
+        ResponseEntity<?> response = routeController.importRoutes("csv", body);
+
+        // Проверка, что статус ответа должен быть 200 (OK)
+        assertEquals(200, response.getStatusCodeValue());
+
+        // Проверка количества импортированных строк и ошибки во второй строке
+        RouteImportResult result = (RouteImportResult) response.getBody();
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(2, result.getErrors().get(0).getLine());
+    }
+
+    /**
+     * Тест импорта маршрутов в неподдерживаемом формате.
+     * Проверка, что контроллер возвращает статус 400 и сообщение об ошибке.
+     */
+    @Test
+    void testImportRoutes_UnsupportedFormat() throws Exception {
+        InputStream body = new ByteArrayInputStream(new byte[0]);
+
+        // Мокирование сервиса: при неподдерживаемом формате выбрасывается исключение
+        when(routeService.importRoutes(body, "xml"))
+                .thenThrow(new IllegalArgumentException("Неподдерживаемый формат импорта. Используйте csv или ndjson."));
+
+        // Вызов метода контроллера с неподдерживаемым форматом
+        ResponseEntity<?> response = routeController.importRoutes("xml", body);
+
+        // Проверка, что статус ответа должен быть 400 (BAD REQUEST) и тело содержит сообщение об ошибке
+        assertEquals(400, response.getStatusCodeValue());
+        assertEquals("Неподдерживаемый формат импорта. Используйте csv или ndjson.", response.getBody());
+    }
+
+    /**
+     * Тест получения карты мест маршрута.
+     * Проверка, что контроллер возвращает упакованную карту мест.
+     */
+    @Test
+    void testGetSeatMap_Success() {
+        // Создание тестовых данных: маршрут на 16 мест, заняты места 1 и 9
+        SeatMapView seatMap = new SeatMapView(1L, 16, 2, 14, new byte[]{1, 1});
+
+        // Мокирование сервиса: при запросе карты мест возвращается тестовая карта
+        when(routeService.getSeatMap(1L)).thenReturn(seatMap);
+
+        // Вызов метода контроллера, который должен вернуть карту мест
+        ResponseEntity<?> response = routeController.getSeatMap(1L);
+
+        // Проверка, что статус ответа должен быть 200 (OK) и карта содержит два занятых места
+        assertEquals(200, response.getStatusCodeValue());
+        SeatMapView result = (SeatMapView) response.getBody();
+        assertEquals(16, result.getTotalSeats());
+        assertEquals(2, result.getOccupiedSeats());
+        assertEquals(14, result.getAvailableSeats());
+        assertArrayEquals(new byte[]{1, 1}, result.getBitmap());
+    }
+
+    /**
+     * Тест получения карты мест несуществующего маршрута.
+     * Проверка, что контроллер возвращает статус 404 и сообщение об ошибке.
+     */
+    @Test
+    void testGetSeatMap_NotFound() {
+        // Мокирование сервиса: при отсутствии маршрута выбрасывается исключение
+        when(routeService.getSeatMap(999L)).thenThrow(new NoSuchElementException("Маршрут с ID 999 не найден."));
+
+        // Вызов метода контроллера для несуществующего маршрута
+        ResponseEntity<?> response = routeController.getSeatMap(999L);
+
+        // Проверка, что статус ответа должен быть 404 (NOT FOUND) и тело содержит сообщение об ошибке
+        assertEquals(404, response.getStatusCodeValue());
+        assertEquals("Маршрут с ID 999 не найден.", response.getBody());
+    }
+
+    /**
+     * Тест потокового получения маршрутов.
+     * Проверка, что маршруты, переданные сервисом, записываются в ответ одним JSON-массивом.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStreamAllRoutes_WritesJsonArray() throws Exception {
+        Route route1 = new Route("Автобус", "Москва", "Санкт-Петербург", "2025-03-14 10:00", "2025-03-14 18:00", 50, 50);
+        Route route2 = new Route("Поезд", "Казань", "Екатеринбург", "2025-03-15 12:00", "2025-03-16 08:00", 100, 100);
+
+        // Мокирование сервиса: маршруты передаются получателю по одному
+        doAnswer(invocation -> {
+            Consumer<Route> consumer = invocation.getArgument(0);
+            consumer.accept(route1);
+            consumer.accept(route2);
+            return null;
+        }).when(routeService).streamAllRoutes(any(Consumer.class));
+
+        ResponseEntity<StreamingResponseBody> response = routeController.streamAllRoutes();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        response.getBody().writeTo(output);
+
+        // Проверка, что статус ответа 200, тип JSON и массив содержит оба маршрута в порядке выдачи
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        JsonNode json = objectMapper.readTree(output.toByteArray());
+        assertEquals(2, json.size());
+        assertEquals("Москва", json.get(0).get("departureCity").asText());
+        assertEquals("Казань", json.get(1).get("departureCity").asText());
+    }
+
+    /**
+     * Тест подписки на изменения мест.
+     * Проверка, что клиент получает подключение Server-Sent Events от сервиса рассылки.
+     */
+    @Test
+    void testSubscribeToSeatEvents_Success() {
+        SseEmitter emitter = new SseEmitter();
+        when(seatEventBroadcaster.subscribe()).thenReturn(emitter);
+
+        ResponseEntity<SseEmitter> response = routeController.subscribeToSeatEvents();
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertSame(emitter, response.getBody());
+    }
+
+    /**
+     * Тест подписки на изменения мест (превышено количество подписчиков).
+     * Проверка возврата статуса 503.
+     */
+    @Test
+    void testSubscribeToSeatEvents_TooManySubscribers() {
+        when(seatEventBroadcaster.subscribe()).thenThrow(new IllegalStateException("Превышено количество подписчиков на изменения мест."));
+
+        ResponseEntity<SseEmitter> response = routeController.subscribeToSeatEvents();
+
+        assertEquals(503, response.getStatusCodeValue());
+        assertNull(response.getBody());
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.backendpassengertransportation.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Тесты журнала бронирований и инструмента восстановления на временном каталоге
+class BookingJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Тест восстановления состояния по журналу.
+     * Проверка действующих бронирований, занятых мест и изменений количества мест маршрутов.
+     */
+    @Test
+    void testReplay_RebuildsBookingState() throws Exception {
+        BookingJournal journal = openJournal(DataSize.ofMegabytes(1));
+        journal.append(BookingJournalRecord.Type.BOOKING_CREATED, 1, 10, 5);
+        journal.append(BookingJournalRecord.Type.BOOKING_CREATED, 2, 10, BookingJournalRecord.NO_SEAT);
+        journal.append(BookingJournalRecord.Type.BOOKING_CREATED, 3, 20, 7);
+        journal.append(BookingJournalRecord.Type.BOOKING_CANCELLED, 1, 10, 5);
+        journal.append(BookingJournalRecord.Type.SEAT_DELTA, 0, 10, -2);
+        journal.append(BookingJournalRecord.Type.SEAT_DELTA, 0, 10, 1);
+        journal.close();
+
+        BookingJournalReplay.Result result = BookingJournalReplay.replay(tempDir);
+
+        assertEquals(6, result.getRecords());
+        assertEquals(6, result.getLastSequence());
+        assertEquals(2, result.getActiveBookings().size());
+        assertNull(result.getActiveBookings().get(2L).seatNumber());
+        assertEquals(1, result.getRoutes().get(10L).getActiveBookings());
+        assertTrue(result.getRoutes().get(10L).getOccupiedSeats().isEmpty());
+        assertEquals(-1, result.getRoutes().get(10L).getSeatDelta());
+        assertEquals(7, result.getRoutes().get(20L).getOccupiedSeats().first());
+    }
+
+    /**
+     * Тест восстановления количества мест по снимку маршрута.
+     * Проверка, что свободные места считаются от последнего снимка с изменениями после него,
+     * а маршрут без снимка сообщает только сумму изменений.
+     */
+    @Test
+    void testReplay_RestoresSeatsFromSnapshot() throws Exception {
+        BookingJournal journal = openJournal(DataSize.ofMegabytes(1));
+        journal.append(BookingJournalRecord.Type.ROUTE_SNAPSHOT, 10, 10, 10);
+        journal.append(BookingJournalRecord.Type.SEAT_DELTA, 0, 10, -3);
+        // Снимок после перезапуска: изменения до него уже учтены в сохраненном количестве мест
+        journal.append(BookingJournalRecord.Type.ROUTE_SNAPSHOT, 10, 10, 7);
+        journal.append(BookingJournalRecord.Type.SEAT_DELTA, 0, 10, -2);
+        journal.append(BookingJournalRecord.Type.SEAT_DELTA, 0, 20, -1);
+        journal.close();
+
+        BookingJournalReplay.Result result = BookingJournalReplay.replay(tempDir);
+
+        BookingJournalReplay.RouteState route = result.getRoutes().get(10L);
+        assertTrue(route.hasSnapshot());
+        assertEquals(10, route.getBookableSeats());
+        assertEquals(5, route.getAvailableSeats());
+        assertFalse(result.getRoutes().get(20L).hasSnapshot());
+        assertEquals(-1, result.getRoutes().get(20L).getAvailableSeats());
+        assertEquals(-1, result.getRoutes().get(20L).getSeatDelta());
+    }
+
+    /**
+     * Тест переоткрытия журнала и перехода на следующий сегмент.
+     * Проверка, что номера записей продолжаются после перезапуска, а записи не теряются при заполнении сегмента.
+     */
+    @Test
+    void testAppend_ReopenAndSegmentRollover() throws Exception {
+        DataSize segmentSize = DataSize.ofBytes(BookingJournalRecord.SIZE * 4L);
+        BookingJournal journal = openJournal(segmentSize);
+        for (int i = 1; i <= 6; i++) {
+            journal.append(BookingJournalRecord.Type.BOOKING_CREATED, i, 1, BookingJournalRecord.NO_SEAT);
+        }
+        journal.close();
+
+        journal = openJournal(segmentSize);
+        assertEquals(6, journal.getLastSequence());
+        for (int i = 7; i <= 10; i++) {
+            journal.append(BookingJournalRecord.Type.BOOKING_CREATED, i, 1, BookingJournalRecord.NO_SEAT);
+        }
+        journal.close();
+
+        BookingJournalReplay.Result result = BookingJournalReplay.replay(tempDir);
+        assertEquals(3, BookingJournal.segments(tempDir).size());
+        assertEquals(10, result.getRecords());
+        assertFalse(result.isGapDetected());
+        assertEquals(10, result.getRoutes().get(1L).getActiveBookings());
+    }
+
+    /**
+     * Тест поврежденной последней записи (аварийная остановка во время записи).
+     * Проверка, что чтение останавливается на поврежденной записи, а после переоткрытия запись продолжается с нее.
+     */
+    @Test
+    void testOpen_TruncatesTornRecord() throws Exception {
+        BookingJournal journal = openJournal(DataSize.ofMegabytes(1));
+        journal.append(BookingJournalRecord.Type.BOOKING_CREATED, 1, 1, 1);
+        journal.append(BookingJournalRecord.Type.BOOKING_CREATED, 2, 1, 2);
+        journal.close();
+
+        // Повреждение второй записи
+        try (RandomAccessFile file = new RandomAccessFile(BookingJournal.segments(tempDir).get(0).toFile(), "rw")) {
+            file.seek(BookingJournalRecord.SIZE + 20);
+            file.writeInt(0x7FFFFFFF);
+        }
+        assertEquals(1, BookingJournalReplay.replay(tempDir).getRecords());
+
+        journal = openJournal(DataSize.ofMegabytes(1));
+        assertEquals(1, journal.getLastSequence());
+        journal.append(BookingJournalRecord.Type.BOOKING_CREATED, 3, 1, 3);
+        journal.close();
+
+        BookingJournalReplay.Result result = BookingJournalReplay.replay(tempDir);
+        assertEquals(2, result.getRecords());
+        assertTrue(result.getActiveBookings().containsKey(3L));
+        assertFalse(result.getActiveBookings().containsKey(2L));
+    }
+
+    // Открытие журнала во временном каталоге с указанным размером сегмента
+    private BookingJournal openJournal(DataSize segmentSize) throws Exception {
+        BookingJournal journal = new BookingJournal();
+        ReflectionTestUtils.setField(journal, "enabled", true);
+        ReflectionTestUtils.setField(journal, "directory", tempDir);
+        ReflectionTestUtils.setField(journal, "segmentSize", segmentSize);
+        journal.open();
+        return journal;
+    }
+}
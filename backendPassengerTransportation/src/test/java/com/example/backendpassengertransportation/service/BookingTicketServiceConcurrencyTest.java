@@ -0,0 +1,330 @@
+package com.example.backendpassengertransportation.service;
+
+import com.example.backendpassengertransportation.dto.BookingTicketSummary;
+import com.example.backendpassengertransportation.dto.GroupBookingRequest;
+import com.example.backendpassengertransportation.dto.SeatMapView;
+import com.example.backendpassengertransportation.model.BookingTicket;
+import com.example.backendpassengertransportation.model.Route;
+import com.example.backendpassengertransportation.repository.BookingTicketRepository;
+import com.example.backendpassengertransportation.repository.RouteRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.search.Search;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Тесты бронирования при конкурентной нагрузке на отдельной временной базе SQLite
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:sqlite:target/booking-contention-test.db",
+        "bookings.journal.directory=target/booking-contention-test-journal",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class BookingTicketServiceConcurrencyTest {
+
+    private static final int THREADS = 8; // Количество параллельных клиентов
+    private static final int ATTEMPTS_PER_THREAD = 25; // Количество попыток бронирования на одного клиента
+
+    @Autowired
+    private BookingTicketService bookingTicketService;
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private RouteService routeService;
+
+    @Autowired
+    private BookingTicketRepository bookingTicketRepository;
+
+    @Autowired
+    private SeatInventory seatInventory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Тест конкурентного бронирования при нехватке мест.
+     * Проверка, что мест продается ровно столько, сколько было доступно, и счетчик не уходит в минус.
+     */
+    @Test
+    void testCreateBookingTicket_NoOverselling() throws Exception {
+        // Маршрут, на который попыток бронирования в несколько раз больше, чем мест
+        int seats = 40;
+        Route route = routeRepository.save(new Route("Автобус", "Москва", "Казань",
+                "2030-03-14 10:00:00", "2030-03-14 20:00:00", seats, seats));
+
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+
+        // Все потоки одновременно бронируют места на один маршрут
+        runConcurrently(() -> {
+            try {
+                bookingTicketService.createBookingTicket(route.getIdRoute(),
+                        "Петров Иван Иванович", "+7 904 123-45-67", "ivan@mail.ru");
+                booked.incrementAndGet();
+            } catch (IllegalStateException e) {
+                rejected.incrementAndGet(); // Ожидаемый отказ: места закончились
+            } catch (Throwable e) {
+                errors.add(e);
+            }
+        });
+
+        // Запись накопленных изменений количества мест в базу
+        seatInventory.flush();
+        Route reloaded = routeRepository.findById(route.getIdRoute()).orElseThrow();
+        List<BookingTicket> tickets = bookingTicketRepository.findByRoute(reloaded);
+
+        // Проверка, что не было непредвиденных ошибок (например, потерянных блокировок SQLite)
+        assertTrue(errors.isEmpty(), () -> "Непредвиденные ошибки: " + errors);
+        // Проверка, что продано ровно столько мест, сколько было доступно
+        assertEquals(seats, booked.get());
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD - seats, rejected.get());
+        // Проверка, что счетчик мест и количество бронирований согласованы
+        assertEquals(0, reloaded.getNumberAvailableSeats());
+        assertEquals(seats, tickets.size());
+    }
+
+    /**
+     * Сравнение пропускной способности бронирования через учет мест в памяти и прежнего пути "чтение-изменение-запись".
+     * Проверка, что новый путь сохраняет согласованность счетчика мест.
+     * Замер пропускной способности запускается только в профиле benchmark.
+     */
+    @Test
+    @Tag("benchmark")
+    void testCreateBookingTicket_AtomicVersusReadModifyWriteThroughput() throws Exception {
+        int attempts = THREADS * ATTEMPTS_PER_THREAD;
+
+        // Маршрут для прежнего пути: чтение маршрута, проверка и сохранение без транзакции
+        Route legacyRoute = routeRepository.save(new Route("Поезд", "Казань", "Екатеринбург",
+                "2030-03-15 12:00:00", "2030-03-16 08:00:00", attempts, attempts));
+        AtomicInteger legacyBooked = new AtomicInteger();
+        AtomicInteger legacyFailed = new AtomicInteger();
+        long legacyNanos = runConcurrently(() -> {
+            try {
+                bookReadModifyWrite(legacyRoute.getIdRoute());
+                legacyBooked.incrementAndGet();
+            } catch (Throwable e) {
+                legacyFailed.incrementAndGet();
+            }
+        });
+
+        // Маршрут для атомарного пути через BookingTicketService
+        Route atomicRoute = routeRepository.save(new Route("Поезд", "Казань", "Екатеринбург",
+                "2030-03-15 12:00:00", "2030-03-16 08:00:00", attempts, attempts));
+        AtomicInteger atomicBooked = new AtomicInteger();
+        Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        long atomicNanos = runConcurrently(() -> {
+            try {
+                bookingTicketService.createBookingTicket(atomicRoute.getIdRoute(),
+                        "Сидорова Анна Петровна", "+7 911 456-78-90", "anna@gmail.com");
+                atomicBooked.incrementAndGet();
+            } catch (Throwable e) {
+                errors.add(e);
+            }
+        });
+
+        seatInventory.flush();
+        Route legacyReloaded = routeRepository.findById(legacyRoute.getIdRoute()).orElseThrow();
+        Route atomicReloaded = routeRepository.findById(atomicRoute.getIdRoute()).orElseThrow();
+
+        // Потерянные обновления: бронирования, уменьшение счетчика мест для которых перезаписано другим потоком
+        int lostUpdates = legacyBooked.get() - (attempts - legacyReloaded.getNumberAvailableSeats());
+
+        // Вывод результатов сравнения
+        System.out.printf("Чтение-изменение-запись: %d бронирований, %d ошибок, %d потерянных обновлений, %.1f бронирований/с%n",
+                legacyBooked.get(), legacyFailed.get(), lostUpdates, legacyBooked.get() / (legacyNanos / 1e9));
+        System.out.printf("Учет мест в памяти: %d бронирований, %.1f бронирований/с%n",
+                atomicBooked.get(), atomicBooked.get() / (atomicNanos / 1e9));
+
+        // Проверка, что атомарный путь обработал все попытки без ошибок и без потерянных обновлений
+        assertTrue(errors.isEmpty(), () -> "Непредвиденные ошибки: " + errors);
+        assertEquals(attempts, atomicBooked.get());
+        assertEquals(0, atomicReloaded.getNumberAvailableSeats());
+        assertEquals(attempts, bookingTicketRepository.findByRoute(atomicReloaded).size());
+    }
+
+    /**
+     * Тест группового бронирования.
+     * Проверка, что все бронирования группы сохранены с возвращенными ID, а места списаны одним обновлением.
+     */
+    @Test
+    void testCreateGroupBooking_BooksAllPassengers() {
+        Route route = routeRepository.save(new Route("Автобус", "Москва", "Тверь",
+                "2030-03-16 09:00:00", "2030-03-16 13:00:00", 10, 10));
+        List<GroupBookingRequest.Passenger> passengers = Arrays.asList(
+                new GroupBookingRequest.Passenger("Петров Иван Иванович", "+7 904 123-45-67", "ivan@mail.ru"),
+                new GroupBookingRequest.Passenger("Петрова Мария Ивановна", "+7 904 123-45-68", "maria@mail.ru"),
+                new GroupBookingRequest.Passenger("Петров Павел Иванович", "+7 904 123-45-69", "pavel@gmail.com"));
+
+        List<BookingTicket> result = bookingTicketService.createGroupBooking(route.getIdRoute(), passengers);
+
+        // Проверка, что возвращенные ID совпадают с сохраненными бронированиями
+        assertEquals(3, result.size());
+        for (BookingTicket ticket : result) {
+            BookingTicket saved = bookingTicketRepository.findById(ticket.getIdBooking()).orElseThrow();
+            assertEquals(ticket.getPassengerPhone(), saved.getPassengerPhone());
+        }
+        // Проверка, что счетчик мест и количество бронирований согласованы
+        seatInventory.flush();
+        Route reloaded = routeRepository.findById(route.getIdRoute()).orElseThrow();
+        assertEquals(7, reloaded.getNumberAvailableSeats());
+        assertEquals(3, bookingTicketRepository.findByRoute(reloaded).size());
+    }
+
+    /**
+     * Тест компактного представления бронирований маршрута.
+     * Проверка, что компактное представление содержит номер выбранного места и null для бронирования без места.
+     */
+    @Test
+    void testGetBookingTicketsByRouteCompact_IncludesSeatNumber() {
+        Route route = routeRepository.save(new Route("Автобус", "Москва", "Владимир",
+                "2030-03-18 09:00:00", "2030-03-18 13:00:00", 10, 10));
+        bookingTicketService.createBookingTicket(route.getIdRoute(),
+                "Петров Иван Иванович", "+7 904 123-45-67", "ivan@mail.ru", 4);
+        bookingTicketService.createBookingTicket(route.getIdRoute(),
+                "Петрова Мария Ивановна", "+7 904 123-45-68", "maria@mail.ru");
+
+        List<BookingTicketSummary> summaries =
+                bookingTicketService.getBookingTicketsByRouteCompact(route.getIdRoute()).getBookingTickets();
+
+        assertEquals(2, summaries.size());
+        assertEquals(4, summaries.get(0).getSeatNumber());
+        assertNull(summaries.get(1).getSeatNumber());
+    }
+
+    /**
+     * Тест карты мест маршрута, распроданного бронированиями без номера места.
+     * Проверка, что карта не отмечает занятых мест, но показывает, что свободных мест нет.
+     */
+    @Test
+    void testGetSeatMap_ReflectsBookingsWithoutSeatNumber() {
+        Route route = routeRepository.save(new Route("Автобус", "Москва", "Владимир",
+                "2030-03-18 09:00:00", "2030-03-18 13:00:00", 2, 2));
+        bookingTicketService.createBookingTicket(route.getIdRoute(),
+                "Петров Иван Иванович", "+7 904 123-45-67", "ivan@mail.ru");
+        bookingTicketService.createBookingTicket(route.getIdRoute(),
+                "Петрова Мария Ивановна", "+7 904 123-45-68", "maria@mail.ru");
+
+        SeatMapView view = routeService.getSeatMap(route.getIdRoute());
+
+        assertEquals(2, view.getTotalSeats());
+        assertEquals(0, view.getOccupiedSeats());
+        assertEquals(0, view.getAvailableSeats());
+    }
+
+    /**
+     * Тест группового бронирования при нехватке мест.
+     * Проверка, что не создается ни одного бронирования и счетчик мест не меняется.
+     */
+    @Test
+    void testCreateGroupBooking_AllOrNothing() {
+        Route route = routeRepository.save(new Route("Автобус", "Москва", "Тула",
+                "2030-03-17 09:00:00", "2030-03-17 12:00:00", 2, 2));
+        List<GroupBookingRequest.Passenger> passengers = Arrays.asList(
+                new GroupBookingRequest.Passenger("Петров Иван Иванович", "+7 904 123-45-67", "ivan@mail.ru"),
+                new GroupBookingRequest.Passenger("Петрова Мария Ивановна", "+7 904 123-45-68", "maria@mail.ru"),
+                new GroupBookingRequest.Passenger("Петров Павел Иванович", "+7 904 123-45-69", "pavel@gmail.com"));
+
+        // Проверка, что при нехватке мест выбрасывается исключение
+        assertThrows(IllegalStateException.class,
+                () -> bookingTicketService.createGroupBooking(route.getIdRoute(), passengers));
+
+        // Проверка, что места и бронирования остались без изменений
+        seatInventory.flush();
+        assertEquals(2, seatInventory.getAvailableSeats(route.getIdRoute()));
+        Route reloaded = routeRepository.findById(route.getIdRoute()).orElseThrow();
+        assertEquals(2, reloaded.getNumberAvailableSeats());
+        assertTrue(bookingTicketRepository.findByRoute(reloaded).isEmpty());
+    }
+
+    /**
+     * Тест метрик создания и удаления бронирования.
+     * Проверка, что время бронирования и его этапов учтено в таймерах, а отказ из-за нехватки мест - в счетчике.
+     */
+    @Test
+    void testCreateBookingTicket_RecordsMetrics() {
+        Route route = routeRepository.save(new Route("Автобус", "Москва", "Ярославль",
+                "2030-03-18 09:00:00", "2030-03-18 13:00:00", 1, 1));
+        long created = timerCount(Search.in(meterRegistry).name("bookings.create").tag("outcome", "created"));
+        long rejected = timerCount(Search.in(meterRegistry).name("bookings.create").tag("outcome", "rejected"));
+        long inserts = timerCount(Search.in(meterRegistry).name("bookings.create.phase").tag("phase", "insert"));
+        double soldOut = Search.in(meterRegistry).name("bookings.seat.rejections").tag("reason", "sold-out")
+                .counters().stream().mapToDouble(counter -> counter.count()).sum();
+
+        BookingTicket bookingTicket = bookingTicketService.createBookingTicket(route.getIdRoute(),
+                "Петров Иван Иванович", "+7 904 123-45-67", "ivan@mail.ru");
+        assertThrows(IllegalStateException.class, () -> bookingTicketService.createBookingTicket(route.getIdRoute(),
+                "Петрова Мария Ивановна", "+7 904 123-45-68", "maria@mail.ru"));
+        bookingTicketService.deleteBookingTicket(bookingTicket.getIdBooking());
+
+        assertEquals(created + 1, timerCount(Search.in(meterRegistry).name("bookings.create").tag("outcome", "created")));
+        assertEquals(rejected + 1, timerCount(Search.in(meterRegistry).name("bookings.create").tag("outcome", "rejected")));
+        assertEquals(inserts + 1, timerCount(Search.in(meterRegistry).name("bookings.create.phase").tag("phase", "insert")));
+        assertEquals(soldOut + 1, meterRegistry.get("bookings.seat.rejections").tag("reason", "sold-out").counter().count());
+        assertTrue(meterRegistry.get("bookings.delete").tag("outcome", "deleted").timer().count() >= 1);
+    }
+
+    // Количество измерений таймеров, найденных поиском (0, если таймер еще не создан)
+    private long timerCount(Search search) {
+        return search.timers().stream().mapToLong(timer -> timer.count()).sum();
+    }
+
+    // Прежний алгоритм бронирования: чтение маршрута, проверка и запись без транзакции и блокировок
+    private void bookReadModifyWrite(Long routeId) {
+        Route route = routeRepository.findById(routeId).orElseThrow();
+        if (route.getNumberAvailableSeats() <= 0) {
+            throw new IllegalStateException("Нет доступных мест для бронирования.");
+        }
+        route.setNumberAvailableSeats(route.getNumberAvailableSeats() - 1);
+        routeRepository.save(route);
+
+        String bookingDate = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+        bookingTicketRepository.save(new BookingTicket(route, "Петров Иван Иванович",
+                "+7 904 123-45-67", "ivan@mail.ru", bookingDate));
+    }
+
+    // Запуск действия во всех потоках одновременно; возвращает затраченное время в наносекундах
+    private long runConcurrently(Runnable action) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < ATTEMPTS_PER_THREAD; j++) {
+                        action.run();
+                    }
+                    return null;
+                }));
+            }
+
+            long startedAt = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+            return System.nanoTime() - startedAt;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.backendpassengertransportation.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.sqlite.SQLiteDataSource;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Тесты потока записи бронирований на временной базе SQLite
+class BookingWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private final AtomicInteger commits = new AtomicInteger(); // Количество зафиксированных транзакций
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry(); // Метрики потока записи
+
+    private BookingWriter bookingWriter;
+
+    @BeforeEach
+    void setUp() {
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + tempDir.resolve("booking-writer-test.db"));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE bookings (id INTEGER PRIMARY KEY, value INTEGER NOT NULL)");
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource) {
+            @Override
+            protected void doCommit(DefaultTransactionStatus status) {
+                super.doCommit(status);
+                commits.incrementAndGet();
+            }
+        };
+        bookingWriter = new BookingWriter();
+        ReflectionTestUtils.setField(bookingWriter, "transactionTemplate", new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(bookingWriter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(bookingWriter, "queueCapacity", 1024);
+        ReflectionTestUtils.setField(bookingWriter, "maxBatchSize", 256);
+        ReflectionTestUtils.setField(bookingWriter, "enqueueTimeout", Duration.ofSeconds(5));
+        bookingWriter.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        bookingWriter.stop();
+    }
+
+    /**
+     * Тест групповой фиксации.
+     * Проверка, что команды, накопившиеся в очереди, фиксируются одной транзакцией и каждый вызывающий получает свой результат.
+     */
+    @Test
+    void testSubmit_GroupCommit() throws Exception {
+        // Поток записи занят первой командой, пока в очередь ставятся остальные
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> blocker = bookingWriter.submit(() -> {
+            awaitQuietly(release);
+            return insert(0);
+        });
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            int value = i;
+            futures.add(bookingWriter.submit(() -> insert(value)));
+        }
+        release.countDown();
+
+        assertEquals(0, blocker.get(10, TimeUnit.SECONDS));
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals(i + 1, futures.get(i).get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(101, count());
+        // Первая команда и все команды, накопившиеся за время ее выполнения, - не больше двух транзакций
+        assertTrue(commits.get() <= 2);
+        assertEquals(101, meterRegistry.get("bookings.writer.queue.wait").timer().count());
+        assertEquals(101, (long) meterRegistry.get("bookings.writer.batch.size").summary().totalAmount());
+    }
+
+    /**
+     * Тест ошибки одной команды группы.
+     * Проверка, что ошибочная команда получает свое исключение, а изменения остальных команд группы сохраняются.
+     */
+    @Test
+    void testSubmit_FailingCommandIsIsolated() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> blocker = bookingWriter.submit(() -> {
+            awaitQuietly(release);
+            return insert(0);
+        });
+        CompletableFuture<Integer> before = bookingWriter.submit(() -> insert(1));
+        CompletableFuture<Integer> failing = bookingWriter.submit(() -> {
+            insert(2);
+            throw new IllegalStateException("Нет доступных мест для бронирования.");
+        });
+        CompletableFuture<Integer> after = bookingWriter.submit(() -> insert(3));
+        release.countDown();
+
+        assertEquals(0, blocker.get(10, TimeUnit.SECONDS));
+        assertEquals(1, before.get(10, TimeUnit.SECONDS));
+        assertEquals(3, after.get(10, TimeUnit.SECONDS));
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> bookingWriter.execute(() -> {
+            throw new IllegalStateException("Нет доступных мест для бронирования.");
+        }));
+        assertEquals("Нет доступных мест для бронирования.", exception.getMessage());
+        assertTrue(failing.isCompletedExceptionally());
+
+        // Изменения ошибочной команды откачены, остальные сохранены по одному разу
+        assertEquals(List.of(0, 1, 3), jdbcTemplate.queryForList("SELECT value FROM bookings ORDER BY value", Integer.class));
+        // Откат группы из-за ошибочной команды учтен в счетчике (вторая ошибка - при синхронном вызове)
+        assertEquals(2, meterRegistry.get("bookings.writer.rollbacks").tag("reason", "command-failure").counter().count());
+    }
+
+    /**
+     * Тест отклоненной команды группы.
+     * Проверка, что команда, отклоненная до изменения состояния, получает исходное исключение,
+     * а остальные команды группы фиксируются той же транзакцией без отката и повторного выполнения.
+     */
+    @Test
+    void testSubmit_RejectedCommandKeepsGroupTransaction() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> blocker = bookingWriter.submit(() -> {
+            awaitQuietly(release);
+            return insert(0);
+        });
+        AtomicInteger runs = new AtomicInteger();
+        CompletableFuture<Integer> before = bookingWriter.submit(() -> {
+            runs.incrementAndGet();
+            return insert(1);
+        });
+        CompletableFuture<Integer> rejected = bookingWriter.submit(() -> {
+            throw BookingWriter.reject(new IllegalStateException("Место 5 уже занято."));
+        });
+        CompletableFuture<Integer> after = bookingWriter.submit(() -> insert(3));
+        release.countDown();
+
+        assertEquals(0, blocker.get(10, TimeUnit.SECONDS));
+        assertEquals(1, before.get(10, TimeUnit.SECONDS));
+        assertEquals(3, after.get(10, TimeUnit.SECONDS));
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> rejected.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+        assertEquals("Место 5 уже занято.", exception.getCause().getMessage());
+
+        // Команды выполнены по одному разу, откатов не было
+        assertEquals(1, runs.get());
+        assertEquals(List.of(0, 1, 3), jdbcTemplate.queryForList("SELECT value FROM bookings ORDER BY value", Integer.class));
+        assertNull(meterRegistry.find("bookings.writer.rollbacks").counter());
+        assertEquals(1, meterRegistry.get("bookings.writer.rejections").counter().count());
+    }
+
+    /**
+     * Тест синхронного выполнения команды.
+     * Проверка, что исключение команды пробрасывается вызывающему без обертки.
+     */
+    @Test
+    void testExecute_RethrowsCommandException() {
+        assertEquals(5, bookingWriter.execute(() -> insert(5)));
+        assertThrows(IllegalArgumentException.class, () -> bookingWriter.execute(() -> {
+            throw new IllegalArgumentException("Бронирование с таким ID не найдено.");
+        }));
+        assertEquals(1, count());
+    }
+
+    // Вставка строки и возврат значения
+    private int insert(int value) {
+        jdbcTemplate.update("INSERT INTO bookings (value) VALUES (?)", value);
+        return value;
+    }
+
+    // Количество строк
+    private int count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings", Integer.class);
+    }
+
+    // Ожидание без проверяемого исключения
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
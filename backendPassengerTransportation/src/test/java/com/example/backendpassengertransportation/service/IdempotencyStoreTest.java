@@ -0,0 +1,131 @@
+package com.example.backendpassengertransportation.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Тесты хранилища ключей идемпотентности
+class IdempotencyStoreTest {
+
+    private IdempotencyStore idempotencyStore;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyStore = new IdempotencyStore();
+        ReflectionTestUtils.setField(idempotencyStore, "ttl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(idempotencyStore, "maximumSize", 1000L);
+        idempotencyStore.init();
+    }
+
+    /**
+     * Тест повторного запроса с тем же ключом.
+     * Проверка, что запрос выполняется один раз, а повтор получает сохраненный ответ с отметкой в заголовке.
+     */
+    @Test
+    void testExecute_ReplaysStoredResponse() {
+        AtomicInteger executions = new AtomicInteger();
+
+        ResponseEntity<?> first = idempotencyStore.execute("key-1", "fingerprint",
+                () -> ResponseEntity.status(HttpStatus.CREATED).body("booking-" + executions.incrementAndGet()));
+        ResponseEntity<?> second = idempotencyStore.execute("key-1", "fingerprint",
+                () -> ResponseEntity.status(HttpStatus.CREATED).body("booking-" + executions.incrementAndGet()));
+
+        assertEquals(1, executions.get());
+        assertEquals(201, second.getStatusCode().value());
+        assertEquals("booking-1", second.getBody());
+        assertNull(first.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals("true", second.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+    }
+
+    /**
+     * Тест повтора ключа с другими параметрами запроса.
+     * Проверка, что такой запрос отклоняется и не выполняется.
+     */
+    @Test
+    void testExecute_FingerprintMismatch() {
+        idempotencyStore.execute("key-1", "fingerprint-1", () -> ResponseEntity.ok("booking"));
+
+        assertThrows(IllegalStateException.class, () -> idempotencyStore.execute("key-1", "fingerprint-2",
+                () -> fail("Запрос не должен выполняться")));
+    }
+
+    /**
+     * Тест ответа с ошибкой сервера.
+     * Проверка, что такой ответ не сохраняется и запрос с тем же ключом выполняется повторно.
+     */
+    @Test
+    void testExecute_ServerErrorIsNotStored() {
+        AtomicInteger executions = new AtomicInteger();
+
+        idempotencyStore.execute("key-1", "fingerprint", () -> {
+            executions.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("error");
+        });
+        ResponseEntity<?> retry = idempotencyStore.execute("key-1", "fingerprint", () -> {
+            executions.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.CREATED).body("booking");
+        });
+
+        assertEquals(2, executions.get());
+        assertEquals(201, retry.getStatusCode().value());
+    }
+
+    /**
+     * Тест некорректного ключа.
+     * Проверка, что пустой и слишком длинный ключи отклоняются.
+     */
+    @Test
+    void testExecute_InvalidKey() {
+        assertThrows(IllegalArgumentException.class,
+                () -> idempotencyStore.execute(" ", "fingerprint", () -> ResponseEntity.ok("booking")));
+        assertThrows(IllegalArgumentException.class,
+                () -> idempotencyStore.execute("k".repeat(IdempotencyStore.MAX_KEY_LENGTH + 1), "fingerprint",
+                        () -> ResponseEntity.ok("booking")));
+    }
+
+    /**
+     * Тест одновременных повторов одного запроса.
+     * Проверка, что запрос выполняется один раз, а все повторы получают его ответ.
+     */
+    @Test
+    void testExecute_ConcurrentDuplicates() throws Exception {
+        int threads = 16;
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<ResponseEntity<?>>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return idempotencyStore.execute("key-1", "fingerprint", () -> {
+                    executions.incrementAndGet();
+                    return ResponseEntity.status(HttpStatus.CREATED).body("booking");
+                });
+            }));
+        }
+        start.countDown();
+
+        for (Future<ResponseEntity<?>> future : futures) {
+            ResponseEntity<?> response = future.get(10, TimeUnit.SECONDS);
+            assertEquals(201, response.getStatusCode().value());
+            assertEquals("booking", response.getBody());
+        }
+        executor.shutdown();
+
+        assertEquals(1, executions.get());
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.backendpassengertransportation.service;
+
+import com.example.backendpassengertransportation.config.CacheConfig;
+import com.example.backendpassengertransportation.event.RouteCatalogChangedEvent;
+import com.example.backendpassengertransportation.event.SeatCountsChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Тесты сброса кэша маршрутов
+class RouteCacheInvalidatorTest {
+
+    private ConcurrentMapCacheManager cacheManager;
+
+    private CatalogVersion catalogVersion;
+
+    private RouteCacheInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager(CacheConfig.ROUTE_CATALOG_CACHE, CacheConfig.ROUTE_BY_ID_CACHE);
+        catalogVersion = new CatalogVersion();
+        invalidator = new RouteCacheInvalidator();
+        ReflectionTestUtils.setField(invalidator, "cacheManager", cacheManager);
+        ReflectionTestUtils.setField(invalidator, "catalogVersion", catalogVersion);
+    }
+
+    /**
+     * Тест изменения количества мест.
+     * Проверка, что записи изменений мест не сбрасывают кэш сразу, а обновляют его одним сбросом за интервал
+     * только по измененным маршрутам.
+     */
+    @Test
+    void testSeatCountsChanged_RefreshedOncePerInterval() {
+        Cache catalogCache = cacheManager.getCache(CacheConfig.ROUTE_CATALOG_CACHE);
+        Cache routeByIdCache = cacheManager.getCache(CacheConfig.ROUTE_BY_ID_CACHE);
+        catalogCache.put("all", "Каталог");
+        routeByIdCache.put(1L, "Маршрут 1");
+        routeByIdCache.put(2L, "Маршрут 2");
+        long version = catalogVersion.getVersion();
+
+        invalidator.onSeatCountsChanged(new SeatCountsChangedEvent(List.of(1L)));
+        invalidator.onSeatCountsChanged(new SeatCountsChangedEvent(List.of(1L)));
+
+        // Проверка, что до обновления кэш и версия не изменились
+        assertEquals(version, catalogVersion.getVersion());
+        assertNotNull(catalogCache.get("all"));
+        assertNotNull(routeByIdCache.get(1L));
+
+        invalidator.refreshSeatCounts();
+        invalidator.refreshSeatCounts();
+
+        // Проверка, что версия увеличена один раз, а из кэша по ID удален только измененный маршрут
+        assertEquals(version + 1, catalogVersion.getVersion());
+        assertNull(catalogCache.get("all"));
+        assertNull(routeByIdCache.get(1L));
+        assertNotNull(routeByIdCache.get(2L));
+    }
+
+    /**
+     * Тест удаления маршрута.
+     * Проверка, что изменение каталога сбрасывает кэш и увеличивает версию сразу.
+     */
+    @Test
+    void testRouteCatalogChanged_InvalidatesImmediately() {
+        Cache catalogCache = cacheManager.getCache(CacheConfig.ROUTE_CATALOG_CACHE);
+        Cache routeByIdCache = cacheManager.getCache(CacheConfig.ROUTE_BY_ID_CACHE);
+        catalogCache.put("all", "Каталог");
+        routeByIdCache.put(1L, "Маршрут 1");
+        long version = catalogVersion.getVersion();
+
+        invalidator.onRouteCatalogChanged(new RouteCatalogChangedEvent(RouteCatalogChangedEvent.Change.DELETED, 1L));
+
+        assertEquals(version + 1, catalogVersion.getVersion());
+        assertNull(catalogCache.get("all"));
+        assertNull(routeByIdCache.get(1L));
+    }
+}
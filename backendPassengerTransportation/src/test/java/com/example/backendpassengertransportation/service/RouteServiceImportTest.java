@@ -0,0 +1,102 @@
+package com.example.backendpassengertransportation.service;
+
+import com.example.backendpassengertransportation.dto.RouteImportResult;
+import com.example.backendpassengertransportation.model.Route;
+import com.example.backendpassengertransportation.repository.RouteRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Тесты потокового импорта маршрутов на отдельной временной базе SQLite
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:sqlite:target/route-import-test.db",
+        "bookings.journal.directory=target/route-import-test-journal",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class RouteServiceImportTest {
+
+    @Autowired
+    private RouteService routeService;
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    /**
+     * Тест импорта маршрутов из CSV.
+     * Проверка, что корректные строки импортируются, а строки с ошибками перечисляются с номерами.
+     */
+    @Test
+    void testImportRoutes_Csv() throws Exception {
+        long before = routeRepository.count();
+        InputStream input = stream(
+                "transportType,departureCity,destinationCity,departureTime,arrivalTime,totalNumberSeats,numberAvailableSeats\n" +
+                "Автобус,Москва,Тверь,2030-04-01 10:00,2030-04-01 14:00,50,50\n" +
+                "\"Поезд\",\"Нижний Новгород, Московский вокзал\",Казань,2030-04-01 08:00,2030-04-01 16:30,300,280\n" +
+                "Автобус,Москва,Тула,2030-04-01 10:00,2030-04-01 09:00,40,40\n" +
+                "Автобус,Москва,Рязань,2030-04-01 10:00,2030-04-01 13:00,сорок,40\n" +
+                "\n" +
+                "Самолет,Москва,Сочи,2030-04-02 07:00,2030-04-02 11:00,180,180\n");
+
+        RouteImportResult result = routeService.importRoutes(input, "csv");
+
+        // Проверка количества импортированных и отклоненных строк
+        assertEquals(3, result.getImported());
+        assertEquals(2, result.getFailed());
+        assertEquals(4, result.getErrors().get(0).getLine());
+        assertEquals("Время прибытия не может быть раньше времени отправления.", result.getErrors().get(0).getMessage());
+        assertEquals(5, result.getErrors().get(1).getLine());
+        assertEquals(before + 3, routeRepository.count());
+
+        // Проверка, что поле в кавычках с запятой разобрано, а время приведено к формату хранения
+        List<Route> routes = routeRepository.findByDestinationCity("Казань");
+        assertEquals(1, routes.size());
+        assertEquals("Нижний Новгород, Московский вокзал", routes.get(0).getDepartureCity());
+        assertEquals("2030-04-01 08:00:00", routes.get(0).getDepartureTime());
+    }
+
+    /**
+     * Тест импорта маршрутов из NDJSON.
+     * Проверка, что некорректный JSON и пропущенные поля отклоняются построчно.
+     */
+    @Test
+    void testImportRoutes_Ndjson() throws Exception {
+        long before = routeRepository.count();
+        InputStream input = stream(
+                "{\"transportType\":\"Поезд\",\"departureCity\":\"Москва\",\"destinationCity\":\"Владимир\"," +
+                        "\"departureTime\":\"2030-04-03 09:00\",\"arrivalTime\":\"2030-04-03 11:00\"," +
+                        "\"totalNumberSeats\":400,\"numberAvailableSeats\":400}\n" +
+                "{\"transportType\":\"Поезд\",\n" +
+                "{\"transportType\":\"Поезд\",\"departureCity\":\"Москва\",\"destinationCity\":\"Ярославль\"," +
+                        "\"departureTime\":\"2030-04-03 09:00\",\"arrivalTime\":\"2030-04-03 13:00\"}\n");
+
+        RouteImportResult result = routeService.importRoutes(input, "ndjson");
+
+        // Проверка количества импортированных и отклоненных строк
+        assertEquals(1, result.getImported());
+        assertEquals(2, result.getFailed());
+        assertEquals(2, result.getErrors().get(0).getLine());
+        assertEquals(3, result.getErrors().get(1).getLine());
+        assertEquals(before + 1, routeRepository.count());
+    }
+
+    /**
+     * Тест импорта маршрутов в неподдерживаемом формате.
+     * Проверка, что выбрасывается исключение IllegalArgumentException.
+     */
+    @Test
+    void testImportRoutes_UnsupportedFormat() {
+        assertThrows(IllegalArgumentException.class, () -> routeService.importRoutes(stream(""), "xml"));
+    }
+
+    // Входные данные импорта в кодировке UTF-8
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.backendpassengertransportation.service;
+
+import com.example.backendpassengertransportation.event.RouteCatalogChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Тесты рассылки изменений количества свободных мест
+class SeatEventBroadcasterTest {
+
+    private SeatInventory seatInventory;
+
+    private SeatEventBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        seatInventory = mock(SeatInventory.class);
+        broadcaster = new SeatEventBroadcaster();
+        ReflectionTestUtils.setField(broadcaster, "seatInventory", seatInventory);
+        ReflectionTestUtils.setField(broadcaster, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(broadcaster, "maxSubscribers", 10);
+        ReflectionTestUtils.setField(broadcaster, "queueCapacity", 2);
+        ReflectionTestUtils.setField(broadcaster, "timeout", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(broadcaster, "writeTimeout", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(broadcaster, "senderThreads", 1);
+        broadcaster.init();
+        broadcaster.shutdown();
+        ReflectionTestUtils.setField(broadcaster, "senderExecutor", new SyncTaskExecutor());
+    }
+
+    /**
+     * Тест объединения изменений.
+     * Проверка, что несколько изменений маршрута за интервал рассылки передаются одним событием
+     * с последним количеством мест, а созданные и удаленные маршруты - отдельными событиями.
+     */
+    @Test
+    void testBroadcast_CoalescesChanges() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.subscribe(emitter);
+        when(seatInventory.peekAvailableSeats(1L)).thenReturn(7);
+        when(seatInventory.peekAvailableSeats(2L)).thenReturn(0);
+
+        broadcaster.onSeatsChanged(1L);
+        broadcaster.onSeatsChanged(1L);
+        broadcaster.onSeatsChanged(2L);
+        broadcaster.onRouteCatalogChanged(new RouteCatalogChangedEvent(RouteCatalogChangedEvent.Change.CREATED, 5L));
+        broadcaster.onRouteCatalogChanged(new RouteCatalogChangedEvent(RouteCatalogChangedEvent.Change.DELETED, 6L));
+        broadcaster.broadcast();
+        broadcaster.broadcast();
+
+        assertEquals(List.of(
+                "event:route-removed\ndata:[6]\n\n",
+                "event:route-added\ndata:[5]\n\n",
+                "event:seats\ndata:[[1,7],[2,0]]\n\n"), emitter.events);
+    }
+
+    /**
+     * Тест медленного подписчика.
+     * Проверка, что при переполнении очереди подписчика накопленные события заменяются одним событием resync.
+     */
+    @Test
+    void testBroadcast_ReplacesBacklogOfSlowSubscriberWithResync() {
+        List<Runnable> pendingSends = new ArrayList<>();
+        ReflectionTestUtils.setField(broadcaster, "senderExecutor", (TaskExecutor) pendingSends::add);
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.subscribe(emitter);
+        when(seatInventory.peekAvailableSeats(1L)).thenReturn(3);
+
+        for (int i = 0; i < 3; i++) {
+            broadcaster.onSeatsChanged(1L);
+            broadcaster.broadcast();
+        }
+        pendingSends.forEach(Runnable::run);
+
+        assertEquals(1, pendingSends.size());
+        assertEquals(List.of("event:resync\ndata:[]\n\n"), emitter.events);
+    }
+
+    /**
+     * Тест импорта маршрутов.
+     * Проверка, что изменение нескольких маршрутов передается событием resync без отдельных изменений мест.
+     */
+    @Test
+    void testBroadcast_ImportSendsResync() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.subscribe(emitter);
+
+        broadcaster.onSeatsChanged(1L);
+        broadcaster.onRouteCatalogChanged(new RouteCatalogChangedEvent(null));
+        broadcaster.broadcast();
+
+        assertEquals(List.of("event:resync\ndata:[]\n\n"), emitter.events);
+    }
+
+    /**
+     * Тест отключения клиента.
+     * Проверка, что подписчик, запись которому завершилась ошибкой, удаляется.
+     */
+    @Test
+    void testBroadcast_RemovesDisconnectedSubscriber() {
+        broadcaster.subscribe(new SseEmitter() {
+            @Override
+            public synchronized void send(Set<DataWithMediaType> items) throws IOException {
+                throw new IOException("Соединение закрыто клиентом");
+            }
+        });
+        when(seatInventory.peekAvailableSeats(1L)).thenReturn(3);
+
+        broadcaster.onSeatsChanged(1L);
+        broadcaster.broadcast();
+
+        assertEquals(0, broadcaster.getSubscriberCount());
+    }
+
+    /**
+     * Тест зависшей записи.
+     * Проверка, что подписчик, запись которому не завершилась за время записи, удаляется, больше не получает событий,
+     * а его подключение завершается после возврата из записи.
+     */
+    @Test
+    void testExpireStuckSubscribers_RemovesAndCompletesSubscriber() {
+        ReflectionTestUtils.setField(broadcaster, "writeTimeout", Duration.ZERO);
+        AtomicBoolean completed = new AtomicBoolean();
+        List<String> events = new ArrayList<>();
+        broadcaster.subscribe(new SseEmitter() {
+            @Override
+            public synchronized void send(Set<DataWithMediaType> items) {
+                events.add("seats");
+                // Проверка зависших подписчиков, пока запись еще не завершилась
+                broadcaster.expireStuckSubscribers();
+            }
+
+            @Override
+            public synchronized void completeWithError(Throwable ex) {
+                completed.set(true);
+            }
+        });
+        when(seatInventory.peekAvailableSeats(1L)).thenReturn(3);
+
+        broadcaster.onSeatsChanged(1L);
+        broadcaster.broadcast();
+        broadcaster.onSeatsChanged(1L);
+        broadcaster.broadcast();
+
+        assertEquals(0, broadcaster.getSubscriberCount());
+        assertTrue(completed.get());
+        assertEquals(List.of("seats"), events);
+    }
+
+    // Подключение, сохраняющее отправленные события в текстовом виде
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<String> events = new ArrayList<>(); // Отправленные события
+
+        @Override
+        public synchronized void send(Set<DataWithMediaType> items) {
+            StringBuilder event = new StringBuilder();
+            for (DataWithMediaType item : items) {
+                event.append(item.getData());
+            }
+            events.add(event.toString());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.backendpassengertransportation.service;
+
+import com.example.backendpassengertransportation.model.Route;
+import com.example.backendpassengertransportation.repository.RouteRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Тесты учета мест в памяти на отдельной временной базе SQLite
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:sqlite:target/seat-inventory-test.db",
+        "bookings.journal.directory=target/seat-inventory-test-journal",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class SeatInventoryTest {
+
+    @Autowired
+    private SeatInventory seatInventory;
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingJournal bookingJournal;
+
+    /**
+     * Тест резервирования и освобождения мест.
+     * Проверка, что резервирование не превышает свободные места, а изменения записываются в базу одним значением.
+     */
+    @Test
+    void testReserveAndRelease_PersistedOnFlush() {
+        Route route = routeRepository.save(new Route("Автобус", "Москва", "Тверь",
+                "2030-05-01 10:00:00", "2030-05-01 14:00:00", 5, 5));
+        Long routeId = route.getIdRoute();
+
+        // Резервирование всех мест и попытка зарезервировать лишнее место
+        assertTrue(seatInventory.tryReserve(routeId, 3));
+        assertTrue(seatInventory.tryReserve(routeId, 2));
+        assertFalse(seatInventory.tryReserve(routeId, 1));
+
+        // Освобождение не может превысить общее количество мест
+        seatInventory.release(routeId, 1);
+        seatInventory.release(routeId, 10);
+        assertEquals(5, seatInventory.getAvailableSeats(routeId));
+        assertTrue(seatInventory.tryReserve(routeId, 4));
+
+        // Проверка, что после записи изменений в базе то же количество мест, что и в памяти
+        seatInventory.flush();
+        assertEquals(1, routeRepository.findById(routeId).orElseThrow().getNumberAvailableSeats());
+    }
+
+    /**
+     * Тест восстановления счетчиков после аварийной остановки.
+     * Проверка, что бронирования, сохраненные без записи количества мест, учитываются при запуске.
+     */
+    @Test
+    void testRebuild_RecomputesFromBookings() {
+        Route route = routeRepository.save(new Route("Поезд", "Москва", "Казань",
+                "2030-05-02 10:00:00", "2030-05-02 22:00:00", 10, 10));
+        Long routeId = route.getIdRoute();
+
+        // Бронирования сохранены, а количество мест маршрута в базе не изменилось (остановка до записи изменений)
+        for (int i = 0; i < 3; i++) {
+            jdbcTemplate.update("INSERT INTO booking_tickets (id_route, passenger_full_name, passenger_phone, " +
+                    "passenger_email, booking_date) VALUES (?, 'Петров Иван Иванович', '+7 904 123-45-67', " +
+                    "'ivan@mail.ru', '2030-04-01 10:00:00')", routeId);
+        }
+
+        // Восстановление счетчиков, как при запуске приложения
+        seatInventory.rebuild();
+
+        // Проверка, что свободные места - общее количество мест за вычетом бронирований
+        assertEquals(7, seatInventory.getAvailableSeats(routeId));
+        // Проверка, что исправленное значение записывается в базу
+        seatInventory.flush();
+        assertEquals(7, routeRepository.findById(routeId).orElseThrow().getNumberAvailableSeats());
+    }
+
+    /**
+     * Тест восстановления мест, зарезервированных без сохранения бронирования.
+     * Проверка, что место, резервирование которого записано в базу, а бронирование не сохранено,
+     * снова становится свободным, и что маршрут, созданный не со всеми свободными местами, не получает лишних мест.
+     */
+    @Test
+    void testRebuild_RestoresSeatsWithoutBookings() {
+        Route route = routeRepository.save(new Route("Самолет", "Москва", "Сочи",
+                "2030-05-03 10:00:00", "2030-05-03 14:00:00", 10, 6));
+        Long routeId = route.getIdRoute();
+
+        // Резервирование двух мест записано в базу, а бронирования не сохранены (остановка до фиксации транзакции)
+        assertTrue(seatInventory.tryReserve(routeId, 2));
+        seatInventory.flush();
+        assertEquals(4, routeRepository.findById(routeId).orElseThrow().getNumberAvailableSeats());
+
+        // Восстановление счетчиков, как при запуске приложения
+        seatInventory.rebuild();
+
+        // Проверка, что свободны места, доступные при создании маршрута, а не все места маршрута
+        assertEquals(6, seatInventory.getAvailableSeats(routeId));
+        seatInventory.flush();
+        assertEquals(6, routeRepository.findById(routeId).orElseThrow().getNumberAvailableSeats());
+    }
+
+    /**
+     * Тест повторного запуска без изменений мест.
+     * Проверка, что снимки маршрутов записываются в журнал, только если сохраненные места расходятся с журналом.
+     */
+    @Test
+    void testRebuild_AppendsSnapshotOnlyWhenChanged() {
+        Route route = routeRepository.save(new Route("Автобус", "Москва", "Ярославль",
+                "2030-05-04 10:00:00", "2030-05-04 15:00:00", 8, 8));
+        Long routeId = route.getIdRoute();
+        assertTrue(seatInventory.tryReserve(routeId, 1));
+        seatInventory.rebuild();
+        seatInventory.flush();
+
+        // Проверка, что повторное восстановление без изменений не добавляет записей в журнал
+        long sequence = bookingJournal.getLastSequence();
+        seatInventory.rebuild();
+        assertEquals(sequence, bookingJournal.getLastSequence());
+
+        // Проверка, что места, измененные в базе в обход счетчиков (бронирования и количество мест записаны
+        // без журнала), записываются одним снимком
+        for (int i = 0; i < 5; i++) {
+            jdbcTemplate.update("INSERT INTO booking_tickets (id_route, passenger_full_name, passenger_phone, " +
+                    "passenger_email, booking_date) VALUES (?, 'Петров Иван Иванович', '+7 904 123-45-67', " +
+                    "'ivan@mail.ru', '2030-04-01 10:00:00')", routeId);
+        }
+        jdbcTemplate.update("UPDATE routes SET number_available_seats = 3 WHERE id_route = ?", routeId);
+        seatInventory.rebuild();
+        assertEquals(sequence + 1, bookingJournal.getLastSequence());
+        assertEquals(3, bookingJournal.replayRoutes().get(routeId).getAvailableSeats());
+    }
+
+    /**
+     * Тест обращения к несуществующему маршруту.
+     * Проверка, что выбрасывается исключение NoSuchElementException.
+     */
+    @Test
+    void testTryReserve_UnknownRoute() {
+        assertThrows(NoSuchElementException.class, () -> seatInventory.tryReserve(Long.MAX_VALUE, 1));
+    }
+}
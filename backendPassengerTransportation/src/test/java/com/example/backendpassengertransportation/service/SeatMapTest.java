@@ -0,0 +1,147 @@
+package com.example.backendpassengertransportation.service;
+
+import com.example.backendpassengertransportation.config.SchemaMigrator;
+import com.example.backendpassengertransportation.dto.SeatMapView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.sqlite.SQLiteDataSource;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Тесты карты мест на временной базе SQLite
+class SeatMapTest {
+
+    @TempDir
+    Path tempDir;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private SeatMap seatMap;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + tempDir.resolve("seat-map-test.db"));
+        new SchemaMigrator(dataSource).migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        seatMap = new SeatMap();
+        ReflectionTestUtils.setField(seatMap, "jdbcTemplate", jdbcTemplate);
+    }
+
+    /**
+     * Тест занятия и освобождения места.
+     * Проверка, что место нельзя занять дважды, а после освобождения его можно занять снова.
+     */
+    @Test
+    void testTryClaim_AndRelease() {
+        long routeId = insertRoute(100);
+
+        assertTrue(seatMap.tryClaim(routeId, 65));
+        assertFalse(seatMap.tryClaim(routeId, 65));
+
+        seatMap.release(routeId, 65);
+        assertTrue(seatMap.tryClaim(routeId, 65));
+    }
+
+    /**
+     * Тест номера места вне диапазона мест маршрута.
+     * Проверка, что выбрасывается исключение IllegalArgumentException, а для неизвестного маршрута - NoSuchElementException.
+     */
+    @Test
+    void testTryClaim_InvalidSeat() {
+        long routeId = insertRoute(10);
+
+        assertThrows(IllegalArgumentException.class, () -> seatMap.tryClaim(routeId, 0));
+        assertThrows(IllegalArgumentException.class, () -> seatMap.tryClaim(routeId, 11));
+        assertThrows(NoSuchElementException.class, () -> seatMap.tryClaim(Long.MAX_VALUE, 1));
+    }
+
+    /**
+     * Тест упакованной карты мест.
+     * Проверка, что место n соответствует биту (n - 1) % 8 байта (n - 1) / 8, а места из базы загружаются при первом обращении.
+     */
+    @Test
+    void testGetSeatMap_PackedBitmap() {
+        long routeId = insertRoute(70);
+        insertBooking(routeId, 1);
+        insertBooking(routeId, 70);
+        insertBooking(routeId, null);
+
+        assertTrue(seatMap.tryClaim(routeId, 10));
+        SeatMapView view = seatMap.getSeatMap(routeId, 66);
+
+        assertEquals(70, view.getTotalSeats());
+        assertEquals(3, view.getOccupiedSeats());
+        assertEquals(66, view.getAvailableSeats());
+        assertEquals(9, view.getBitmap().length);
+        assertEquals(0b0000_0001, view.getBitmap()[0]);
+        assertEquals(0b0000_0010, view.getBitmap()[1]);
+        assertEquals(0b0010_0000, view.getBitmap()[8]);
+    }
+
+    /**
+     * Тест конкурентного занятия мест.
+     * Проверка, что при одновременных попытках каждое место занимается ровно одним потоком.
+     */
+    @Test
+    void testTryClaim_Concurrent() throws Exception {
+        int seats = 640;
+        long routeId = insertRoute(seats);
+        AtomicInteger claimed = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int seat = 1; seat <= seats; seat++) {
+                        if (seatMap.tryClaim(routeId, seat)) {
+                            claimed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(seats, claimed.get());
+        assertEquals(seats, seatMap.getSeatMap(routeId, 0).getOccupiedSeats());
+    }
+
+    // Создание маршрута с заданным количеством мест
+    private long insertRoute(int seats) {
+        jdbcTemplate.update("INSERT INTO routes (transport_type, departure_city, destination_city, departure_time, " +
+                "arrival_time, total_number_seats, number_available_seats) " +
+                "VALUES ('Поезд', 'Москва', 'Казань', '2030-06-01 10:00:00', '2030-06-01 22:00:00', ?, ?)", seats, seats);
+        return jdbcTemplate.queryForObject("SELECT MAX(id_route) FROM routes", Long.class);
+    }
+
+    // Создание бронирования на указанное место
+    private void insertBooking(long routeId, Integer seatNumber) {
+        jdbcTemplate.update("INSERT INTO booking_tickets (id_route, passenger_full_name, passenger_phone, passenger_email, " +
+                "booking_date, seat_number) VALUES (?, 'Петров Иван Иванович', '+7 904 123-45-67', 'ivan@mail.ru', " +
+                "'2030-05-01 10:00:00', ?)", routeId, seatNumber);
+    }
+}
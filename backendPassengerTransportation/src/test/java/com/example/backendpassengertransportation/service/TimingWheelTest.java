@@ -0,0 +1,94 @@
+package com.example.backendpassengertransportation.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Тесты колеса таймеров истечения удержаний мест
+class TimingWheelTest {
+
+    private final TimingWheel timingWheel = new TimingWheel(Duration.ofMillis(10), 8, "timing-wheel-test");
+
+    @AfterEach
+    void tearDown() {
+        timingWheel.close();
+    }
+
+    /**
+     * Тест срабатывания задачи.
+     * Проверка, что задача выполняется не раньше заданной задержки.
+     */
+    @Test
+    void testSchedule_FiresAfterDelay() throws Exception {
+        CountDownLatch fired = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        timingWheel.schedule(fired::countDown, Duration.ofMillis(50));
+
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    /**
+     * Тест задержки длиннее одного оборота колеса.
+     * Проверка, что задача не выполняется на первом обороте (8 ячеек по 10 мс = 80 мс).
+     */
+    @Test
+    void testSchedule_DelayLongerThanOneRound() throws Exception {
+        CountDownLatch fired = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        timingWheel.schedule(fired::countDown, Duration.ofMillis(250));
+
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(250));
+    }
+
+    /**
+     * Тест отмены задачи.
+     * Проверка, что отмененная задача не выполняется, а остальные выполняются.
+     */
+    @Test
+    void testCancel_PreventsExecution() throws Exception {
+        AtomicInteger cancelledRuns = new AtomicInteger();
+        CountDownLatch fired = new CountDownLatch(1);
+
+        timingWheel.schedule(cancelledRuns::incrementAndGet, Duration.ofMillis(30)).cancel();
+        timingWheel.schedule(fired::countDown, Duration.ofMillis(60));
+
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertEquals(0, cancelledRuns.get());
+    }
+
+    /**
+     * Тест большого количества задач.
+     * Проверка, что выполняются все задачи, запланированные с разными задержками.
+     */
+    @Test
+    void testSchedule_ManyTimeouts() throws Exception {
+        int count = 10_000;
+        CountDownLatch fired = new CountDownLatch(count);
+
+        for (int i = 0; i < count; i++) {
+            timingWheel.schedule(fired::countDown, Duration.ofMillis(i % 200));
+        }
+
+        assertTrue(fired.await(10, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Тест некорректного размера колеса.
+     * Проверка, что размер колеса, не являющийся степенью двойки, отклоняется.
+     */
+    @Test
+    void testConstructor_InvalidWheelSize() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new TimingWheel(Duration.ofMillis(10), 100, "timing-wheel-invalid"));
+    }
+}
@@ -0,0 +1,446 @@
+package com.example.backendpassengertransportation.benchmark;
+
+import com.example.backendpassengertransportation.BackendPassengerTransportationApplication;
+import com.example.backendpassengertransportation.service.RouteService;
+import com.example.backendpassengertransportation.service.SeatInventory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Генератор нагрузки "утренний наплыв бронирований": запускает серверную часть на временной базе SQLite
+// и из множества одновременных клиентов выполняет заданную смесь запросов GET /routes, поиска маршрутов,
+// POST /booking-tickets и DELETE /booking-tickets/{id}.
+// Выводит пропускную способность, перцентили задержек (HdrHistogram), доли ошибок и SQLITE_BUSY
+// и в конце проверяет согласованность количества мест с бронированиями в базе.
+// Клиенты работают по замкнутой модели: следующий запрос отправляется после ответа на предыдущий.
+// Запуск: mvn package exec:exec@load -Dload.args="--clients=500 --duration=60s --mix=routes:20,search:30,book:40,cancel:10"
+public class BookingLoadGenerator {
+
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(2); // Верхняя граница гистограммы
+    private static final int SIGNIFICANT_DIGITS = 3; // Точность гистограммы
+
+    private final Settings settings; // Параметры прогона
+    private final ObjectMapper objectMapper = new ObjectMapper(); // Чтение ID созданных бронирований
+    private final Queue<Long> bookingIds = new ConcurrentLinkedQueue<>(); // Бронирования, доступные для отмены
+
+    private String base; // Адрес запущенного приложения
+    private HttpClient client; // HTTP-клиент, общий для всех клиентов нагрузки
+
+    public BookingLoadGenerator(Settings settings) {
+        this.settings = settings;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Settings settings = Settings.parse(args);
+        boolean consistent = new BookingLoadGenerator(settings).run();
+        System.exit(consistent ? 0 : 1);
+    }
+
+    // Запуск приложения, прогон нагрузки и проверка согласованности; возвращает false, если найдены расхождения
+    public boolean run() throws Exception {
+        Path directory = Files.createTempDirectory("passenger-transportation-load-");
+        try (ConfigurableApplicationContext context = start(directory)) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            base = "http://localhost:" + port;
+            client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+            createCatalog(context.getBean(RouteService.class));
+
+            System.out.println(settings);
+            Stats stats = drive();
+            stats.print(settings.duration);
+
+            return checkConsistency(context, stats);
+        } finally {
+            FileSystemUtils.deleteRecursively(directory);
+        }
+    }
+
+    // Запуск приложения на случайном порту с базой и журналом во временном каталоге.
+    // Сообщения ошибок включаются в ответы, чтобы распознавать SQLITE_BUSY по ответу сервера
+    private ConfigurableApplicationContext start(Path directory) {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(BackendPassengerTransportationApplication.class)
+                .logStartupInfo(false)
+                .properties(
+                        "server.port=0",
+                        "management.server.port=0",
+                        "server.error.include-message=always",
+                        "spring.datasource.url=jdbc:sqlite:" + directory.resolve("load.db"),
+                        "bookings.journal.directory=" + directory.resolve("journal"),
+                        "logging.level.root=WARN");
+        if (!settings.profiles.isEmpty()) {
+            builder.profiles(settings.profiles.split(","));
+        }
+        return builder.run();
+    }
+
+    // Создание каталога маршрутов; места ограничены, чтобы при наплыве маршруты распродавались и освобождались отменами
+    private void createCatalog(RouteService routeService) {
+        for (int i = 0; i < settings.routes; i++) {
+            String departure = String.format("2030-03-%02d %02d:00", i % 28 + 1, i % 24);
+            String arrival = String.format("2030-03-%02d %02d:59", i % 28 + 1, i % 24);
+            routeService.createRoute("Поезд", "Москва", "Казань", departure, arrival, settings.seats, settings.seats);
+        }
+    }
+
+    // Прогрев и замер: клиенты выполняют запросы без остановки, статистика собирается только во время замера
+    private Stats drive() throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicBoolean measuring = new AtomicBoolean(false);
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(settings.clients);
+        List<Future<Stats>> futures = new ArrayList<>();
+        for (int i = 0; i < settings.clients; i++) {
+            futures.add(executor.submit(() -> {
+                Stats stats = new Stats();
+                start.await();
+                while (running.get()) {
+                    execute(settings.nextOperation(), measuring.get() ? stats : null);
+                }
+                return stats;
+            }));
+        }
+
+        start.countDown();
+        Thread.sleep(settings.warmup.toMillis());
+        measuring.set(true);
+        Thread.sleep(settings.duration.toMillis());
+        measuring.set(false);
+        running.set(false);
+
+        Stats total = new Stats();
+        for (Future<Stats> future : futures) {
+            total.add(future.get(2, TimeUnit.MINUTES));
+        }
+        executor.shutdown();
+        return total;
+    }
+
+    // Выполнение одной операции клиента; stats равен null во время прогрева
+    private void execute(Operation operation, Stats stats) {
+        Long cancelId = null;
+        if (operation == Operation.CANCEL) {
+            cancelId = bookingIds.poll();
+            if (cancelId == null) {
+                operation = Operation.BOOK; // Отменять пока нечего
+            }
+        }
+
+        HttpRequest request = switch (operation) {
+            case ROUTES -> HttpRequest.newBuilder(URI.create(base + "/routes")).GET().build();
+            case SEARCH -> searchRequest();
+            case BOOK -> bookingRequest();
+            case CANCEL -> HttpRequest.newBuilder(URI.create(base + "/booking-tickets/" + cancelId)).DELETE().build();
+        };
+
+        long begin = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            if (cancelId != null) {
+                bookingIds.add(cancelId);
+            }
+            if (stats != null) {
+                stats.record(operation, System.nanoTime() - begin, Outcome.ERROR);
+            }
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long latency = System.nanoTime() - begin;
+
+        Outcome outcome = outcome(response);
+        if (outcome == Outcome.OK && operation == Operation.BOOK) {
+            bookingIds.add(bookingId(response.body()));
+        } else if (outcome != Outcome.OK && cancelId != null) {
+            bookingIds.add(cancelId); // Бронирование не отменено, его можно отменить позже
+        }
+        if (stats != null) {
+            stats.record(operation, latency, outcome);
+        }
+    }
+
+    // Классификация ответа: 4xx - отказ по бизнес-правилам (нет мест, маршруты не найдены), 5xx - ошибка
+    private Outcome outcome(HttpResponse<String> response) {
+        String body = response.body();
+        if (body != null && (body.contains("SQLITE_BUSY") || body.contains("database is locked"))) {
+            return Outcome.BUSY;
+        }
+        if (response.statusCode() >= 500) {
+            return Outcome.ERROR;
+        }
+        if (response.statusCode() >= 400) {
+            return Outcome.REJECTED;
+        }
+        return Outcome.OK;
+    }
+
+    // ID созданного бронирования из тела ответа
+    private Long bookingId(String body) {
+        try {
+            return objectMapper.readTree(body).get("idBooking").asLong();
+        } catch (IOException e) {
+            throw new IllegalStateException("Некорректный ответ на создание бронирования: " + body, e);
+        }
+    }
+
+    // Комбинированный поиск маршрутов на случайную дату, часть запросов - на промежуток в неделю
+    private HttpRequest searchRequest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int day = random.nextInt(1, 22);
+        String query = "departureCity=" + encode("Москва") + "&startDate=" + String.format("%02d.03.2030", day);
+        if (random.nextBoolean()) {
+            query += "&endDate=" + String.format("%02d.03.2030", day + 7);
+        }
+        return HttpRequest.newBuilder(URI.create(base + "/routes/search?" + query)).GET().build();
+    }
+
+    // Запрос бронирования на случайный маршрут
+    private HttpRequest bookingRequest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long routeId = random.nextLong(1, settings.routes + 1);
+        String phone = String.format("+7 9%02d %03d-%02d-%02d",
+                random.nextInt(100), random.nextInt(1000), random.nextInt(100), random.nextInt(100));
+        String query = "routeId=" + routeId
+                + "&passengerFullName=" + encode("Петров Иван Иванович")
+                + "&passengerPhone=" + encode(phone)
+                + "&passengerEmail=" + encode("ivan@mail.ru");
+        return HttpRequest.newBuilder(URI.create(base + "/booking-tickets?" + query))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+
+    // Проверка согласованности после прогона: накопленные изменения мест записываются в базу,
+    // затем для каждого маршрута свободные места в базе и в памяти сравниваются с общим количеством за вычетом бронирований,
+    // а количество бронирований в базе - с количеством успешных бронирований за вычетом отмен
+    private boolean checkConsistency(ConfigurableApplicationContext context, Stats stats) {
+        SeatInventory seatInventory = context.getBean(SeatInventory.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        seatInventory.flush();
+
+        List<String> problems = new ArrayList<>();
+        jdbcTemplate.query("SELECT r.id_route, r.total_number_seats, r.number_available_seats, " +
+                "(SELECT COUNT(*) FROM booking_tickets b WHERE b.id_route = r.id_route) FROM routes r", resultSet -> {
+            long routeId = resultSet.getLong(1);
+            int expected = resultSet.getInt(2) - resultSet.getInt(4);
+            int persisted = resultSet.getInt(3);
+            int inMemory = seatInventory.getAvailableSeats(routeId);
+            if (expected < 0 || persisted != expected || inMemory != expected) {
+                problems.add(String.format("маршрут %d: ожидается свободных мест %d, в базе %d, в памяти %d",
+                        routeId, expected, persisted, inMemory));
+            }
+        });
+
+        // Бронирования, созданные и отмененные во время прогрева, не учтены в статистике,
+        // поэтому сравнивается количество бронирований, оставшихся доступными для отмены
+        Long bookings = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM booking_tickets", Long.class);
+        if (bookings == null || bookings != bookingIds.size()) {
+            problems.add(String.format("бронирований в базе %d, создано и не отменено клиентами %d",
+                    bookings, bookingIds.size()));
+        }
+
+        if (problems.isEmpty()) {
+            System.out.printf("Проверка согласованности: OK (%d маршрутов, %d бронирований)%n", settings.routes, bookings);
+            return true;
+        }
+        System.out.printf("Проверка согласованности: найдено расхождений: %d%n", problems.size());
+        problems.stream().limit(20).forEach(problem -> System.out.println("  " + problem));
+        return false;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    // Операции клиента
+    enum Operation {
+        ROUTES("GET /routes"),
+        SEARCH("GET /routes/search"),
+        BOOK("POST /booking-tickets"),
+        CANCEL("DELETE /booking-tickets/{id}");
+
+        private final String title; // Название в отчете
+
+        Operation(String title) {
+            this.title = title;
+        }
+    }
+
+    // Результат запроса
+    enum Outcome {
+        OK, // Успешный ответ
+        REJECTED, // Отказ по бизнес-правилам (4xx)
+        BUSY, // База данных заблокирована (SQLITE_BUSY)
+        ERROR // Ошибка сервера (5xx) или соединения
+    }
+
+    // Статистика одного клиента или суммарная статистика
+    static final class Stats {
+
+        private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class); // Задержки в микросекундах
+        private final Map<Operation, long[]> outcomes = new EnumMap<>(Operation.class); // Количество ответов по результатам
+
+        Stats() {
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, new Histogram(HIGHEST_LATENCY_MICROS, SIGNIFICANT_DIGITS));
+                outcomes.put(operation, new long[Outcome.values().length]);
+            }
+        }
+
+        void record(Operation operation, long latencyNanos, Outcome outcome) {
+            latencies.get(operation).recordValue(Math.min(HIGHEST_LATENCY_MICROS, latencyNanos / 1_000));
+            outcomes.get(operation)[outcome.ordinal()]++;
+        }
+
+        void add(Stats other) {
+            for (Operation operation : Operation.values()) {
+                latencies.get(operation).add(other.latencies.get(operation));
+                long[] counts = outcomes.get(operation);
+                long[] otherCounts = other.outcomes.get(operation);
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] += otherCounts[i];
+                }
+            }
+        }
+
+        // Вывод отчета: по каждой операции и суммарно
+        void print(Duration duration) {
+            double seconds = duration.toMillis() / 1000.0;
+            System.out.printf("%-30s %10s %10s %9s %9s %9s %9s %9s %8s %8s %8s%n", "операция", "запросов", "запросов/с",
+                    "p50 мс", "p90 мс", "p99 мс", "p99.9 мс", "max мс", "отказы", "ошибки", "BUSY");
+            Histogram all = new Histogram(HIGHEST_LATENCY_MICROS, SIGNIFICANT_DIGITS);
+            long[] allCounts = new long[Outcome.values().length];
+            for (Operation operation : Operation.values()) {
+                Histogram histogram = latencies.get(operation);
+                all.add(histogram);
+                long[] counts = outcomes.get(operation);
+                for (int i = 0; i < counts.length; i++) {
+                    allCounts[i] += counts[i];
+                }
+                printLine(operation.title, histogram, counts, seconds);
+            }
+            printLine("всего", all, allCounts, seconds);
+        }
+
+        private static void printLine(String title, Histogram histogram, long[] counts, double seconds) {
+            long total = histogram.getTotalCount();
+            System.out.printf("%-30s %10d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f %7.2f%% %7.2f%% %7.2f%%%n",
+                    title, total, total / seconds,
+                    millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                    histogram.getMaxValue() / 1000.0,
+                    rate(counts[Outcome.REJECTED.ordinal()], total),
+                    rate(counts[Outcome.ERROR.ordinal()], total),
+                    rate(counts[Outcome.BUSY.ordinal()], total));
+        }
+
+        private static double millis(Histogram histogram, double percentile) {
+            return histogram.getValueAtPercentile(percentile) / 1000.0;
+        }
+
+        private static double rate(long count, long total) {
+            return total == 0 ? 0 : count * 100.0 / total;
+        }
+    }
+
+    // Параметры прогона; задаются аргументами вида --clients=500
+    record Settings(int clients, Duration duration, Duration warmup, int routes, int seats,
+                    Map<Operation, Integer> mix, String profiles) {
+
+        // Параметры по умолчанию: 200 клиентов, минута замера после 10 секунд прогрева, 50 маршрутов по 100 мест
+        static Settings parse(String[] args) {
+            Map<String, String> values = new HashMap<>();
+            for (String arg : args) {
+                if (!arg.startsWith("--") || !arg.contains("=")) {
+                    throw new IllegalArgumentException("Аргумент должен иметь вид --имя=значение: " + arg);
+                }
+                values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+            Settings settings = new Settings(
+                    Integer.parseInt(values.getOrDefault("clients", "200")),
+                    DurationStyle.detectAndParse(values.getOrDefault("duration", "60s")),
+                    DurationStyle.detectAndParse(values.getOrDefault("warmup", "10s")),
+                    Integer.parseInt(values.getOrDefault("routes", "50")),
+                    Integer.parseInt(values.getOrDefault("seats", "100")),
+                    parseMix(values.getOrDefault("mix", "routes:20,search:30,book:40,cancel:10")),
+                    values.getOrDefault("profiles", ""));
+            if (settings.clients < 1 || settings.routes < 1 || settings.seats < 1 || settings.duration.isZero()) {
+                throw new IllegalArgumentException("Количество клиентов, маршрутов, мест и длительность должны быть больше нуля.");
+            }
+            return settings;
+        }
+
+        // Смесь операций вида routes:20,search:30,book:40,cancel:10 (веса, не обязательно в сумме 100)
+        private static Map<Operation, Integer> parseMix(String mix) {
+            Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+            for (String part : mix.split(",")) {
+                String[] pair = part.trim().split(":");
+                if (pair.length != 2) {
+                    throw new IllegalArgumentException("Некорректная смесь операций: " + mix);
+                }
+                int weight = Integer.parseInt(pair[1].trim());
+                if (weight < 0) {
+                    throw new IllegalArgumentException("Вес операции не может быть отрицательным: " + part);
+                }
+                weights.put(Operation.valueOf(pair[0].trim().toUpperCase()), weight);
+            }
+            if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+                throw new IllegalArgumentException("Сумма весов операций должна быть больше нуля.");
+            }
+            return weights;
+        }
+
+        // Случайная операция в соответствии с весами смеси
+        Operation nextOperation() {
+            int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+            int point = ThreadLocalRandom.current().nextInt(total);
+            for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+                point -= entry.getValue();
+                if (point < 0) {
+                    return entry.getKey();
+                }
+            }
+            throw new IllegalStateException("Смесь операций пуста.");
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Клиентов: %d, прогрев: %s, замер: %s, маршрутов: %d по %d мест, смесь: %s%s",
+                    clients, warmup, duration, routes, seats, mix,
+                    profiles.isEmpty() ? "" : ", профили: " + profiles);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.backendpassengertransportation.benchmark;
+
+import com.example.backendpassengertransportation.model.BookingTicket;
+import com.example.backendpassengertransportation.model.Route;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Сериализация списков маршрутов и бронирований в JSON тем же ObjectMapper, что строит Spring для ответов контроллеров
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"100", "10000"})
+    public int size; // Количество элементов списка
+
+    private ObjectMapper objectMapper; // Преобразователь JSON
+    private List<Route> routes; // Список маршрутов
+    private List<BookingTicket> bookingTickets; // Список бронирований
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        // ID маршрута задается только базой данных, поэтому в синтетическом каталоге устанавливается через отражение
+        Field idRoute = Route.class.getDeclaredField("idRoute");
+        idRoute.setAccessible(true);
+        objectMapper = new Jackson2ObjectMapperBuilder().build();
+        routes = new ArrayList<>(size);
+        bookingTickets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Route route = new Route("Поезд", "Москва", "Казань", "2030-03-01 10:00:00", "2030-03-01 22:00:00", 100, 100 - i % 100);
+            idRoute.set(route, (long) i + 1);
+            routes.add(route);
+            BookingTicket bookingTicket = new BookingTicket(route, "Петров Иван Иванович", SqliteCatalogState.phone(i),
+                    "ivan@mail.ru", "2030-02-01 10:00:00");
+            bookingTicket.setIdBooking((long) i + 1);
+            bookingTickets.add(bookingTicket);
+        }
+    }
+
+    // Список маршрутов
+    @Benchmark
+    public byte[] serializeRoutes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(routes);
+    }
+
+    // Список бронирований (каждое содержит свой маршрут)
+    @Benchmark
+    public byte[] serializeBookingTickets() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookingTickets);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.backendpassengertransportation.benchmark;
+
+import com.example.backendpassengertransportation.dto.GroupBookingRequest;
+import com.example.backendpassengertransportation.service.BookingTicketService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Проверка телефона и электронной почты пассажира через BookingTicketService.createGroupBooking.
+// Групповое бронирование проверяет данные всех пассажиров до обращения к базе данных, поэтому группа,
+// последний пассажир которой не прошел проверку, измеряет только проверку и не создает бронирований
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PassengerValidationBenchmark {
+
+    private static final int VALID_PASSENGERS = BookingTicketService.MAX_GROUP_SIZE - 1; // Пассажиры с корректными данными
+
+    private final BookingTicketService bookingTicketService = new BookingTicketService(); // Проверка не использует зависимости сервиса
+
+    // Группа максимального размера: корректные телефон и почта у всех пассажиров, кроме последнего без ФИО
+    private final List<GroupBookingRequest.Passenger> validContacts = validContactsGroup();
+
+    // Пассажир с некорректным телефоном
+    private final List<GroupBookingRequest.Passenger> invalidPhone = List.of(
+            new GroupBookingRequest.Passenger("Петров Иван Иванович", "8 904 1234567", "ivan.petrov@mail.ru"));
+
+    // Пассажир с почтой на недопустимом домене
+    private final List<GroupBookingRequest.Passenger> unknownEmailDomain = List.of(
+            new GroupBookingRequest.Passenger("Петров Иван Иванович", "+7 904 123-45-67", "ivan.petrov@unknown.com"));
+
+    // Корректные телефон и почта (время на одного пассажира)
+    @Benchmark
+    @OperationsPerInvocation(VALID_PASSENGERS)
+    public String validateValidContacts() {
+        return createGroupBooking(validContacts);
+    }
+
+    // Некорректный телефон (проверка завершается исключением)
+    @Benchmark
+    public String validateInvalidPhone() {
+        return createGroupBooking(invalidPhone);
+    }
+
+    // Почта с недопустимым доменом
+    @Benchmark
+    public String validateUnknownEmailDomain() {
+        return createGroupBooking(unknownEmailDomain);
+    }
+
+    // Проверка группы; возвращается сообщение об ошибке проверки
+    private String createGroupBooking(List<GroupBookingRequest.Passenger> passengers) {
+        try {
+            bookingTicketService.createGroupBooking(1L, passengers);
+            throw new IllegalStateException("Группа прошла проверку и была бы записана в базу.");
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+    }
+
+    // Создание группы с корректными контактами и последним пассажиром без ФИО
+    private static List<GroupBookingRequest.Passenger> validContactsGroup() {
+        List<GroupBookingRequest.Passenger> passengers = new ArrayList<>();
+        for (int i = 0; i < VALID_PASSENGERS; i++) {
+            passengers.add(new GroupBookingRequest.Passenger("Петров Иван Иванович",
+                    "+7 904 123-45-67", "ivan.petrov@mail.ru"));
+        }
+        passengers.add(new GroupBookingRequest.Passenger("", "+7 904 123-45-67", "ivan.petrov@mail.ru"));
+        return passengers;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.backendpassengertransportation.benchmark;
+
+import com.example.backendpassengertransportation.model.Route;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Размер ответа и время кодирования и разбора каталога из 100 000 маршрутов в JSON и CBOR.
+// Серверный преобразователь CBOR - копия ObjectMapper для JSON с фабрикой CBOR, как в WebConfig.
+// Размеры ответа (без сжатия и со сжатием gzip) печатаются при подготовке каталога
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class PayloadEncodingBenchmark {
+
+    private static final String[] TRANSPORT_TYPES = {"Поезд", "Автобус", "Самолет"};
+    private static final String[] CITIES = {"Москва", "Санкт-Петербург", "Казань", "Нижний Новгород", "Тверь",
+            "Екатеринбург", "Новосибирск", "Ростов-на-Дону"};
+
+    private static final TypeReference<List<Route>> ROUTE_LIST = new TypeReference<>() {};
+
+    @Param({"json", "cbor"})
+    public String format; // Формат ответа
+
+    @Param({"100000"})
+    public int size; // Количество маршрутов каталога
+
+    private ObjectMapper objectMapper; // Преобразователь выбранного формата
+    private List<Route> routes; // Каталог маршрутов
+    private byte[] payload; // Закодированный каталог для разбора
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException, IOException {
+        ObjectMapper jsonMapper = new Jackson2ObjectMapperBuilder().build();
+        objectMapper = "cbor".equals(format) ? jsonMapper.copyWith(new CBORFactory()) : jsonMapper;
+
+        // ID маршрута задается только базой данных, поэтому в синтетическом каталоге устанавливается через отражение
+        Field idRoute = Route.class.getDeclaredField("idRoute");
+        idRoute.setAccessible(true);
+        routes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String day = String.format("2030-%02d-%02d", i % 12 + 1, i % 28 + 1);
+            Route route = new Route(TRANSPORT_TYPES[i % TRANSPORT_TYPES.length], CITIES[i % CITIES.length],
+                    CITIES[(i + 1 + i / CITIES.length % (CITIES.length - 1)) % CITIES.length], day + " " + String.format("%02d:00:00", i % 24),
+                    day + " 23:30:00", 100, 100 - i % 100);
+            idRoute.set(route, (long) i + 1);
+            routes.add(route);
+        }
+        payload = objectMapper.writeValueAsBytes(routes);
+        System.out.printf("%n%s: %d маршрутов, %d байт, %d байт со сжатием gzip%n",
+                format, size, payload.length, gzipSize(payload));
+    }
+
+    // Кодирование каталога на сервере
+    @Benchmark
+    public byte[] encodeRoutes() throws IOException {
+        return objectMapper.writeValueAsBytes(routes);
+    }
+
+    // Разбор каталога клиентом
+    @Benchmark
+    public List<Route> decodeRoutes() throws IOException {
+        return objectMapper.readValue(payload, ROUTE_LIST);
+    }
+
+    // Размер ответа после сжатия gzip
+    private static int gzipSize(byte[] body) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzipOutput = new GZIPOutputStream(output)) {
+            gzipOutput.write(body);
+        }
+        return output.size();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.backendpassengertransportation.benchmark;
+
+import com.example.backendpassengertransportation.dto.BookingTicketSummary;
+import com.example.backendpassengertransportation.model.BookingTicket;
+import com.example.backendpassengertransportation.model.Route;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Поиск по репозиториям в файле SQLite: маршрут по ID, бронирование по маршруту и телефону, бронирования маршрута
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryLookupBenchmark {
+
+    // Маршрут по первичному ключу
+    @Benchmark
+    public Optional<Route> findRouteById(SqliteCatalogState catalog) {
+        return catalog.routeRepository.findById(catalog.randomRouteId());
+    }
+
+    // Бронирование по маршруту и телефону пассажира (индекс idx_booking_tickets_route_phone)
+    @Benchmark
+    public Optional<BookingTicket> findBookingByRouteAndPhone(SqliteCatalogState catalog) {
+        long routeId = catalog.randomBookedRouteId();
+        Route route = catalog.routeRepository.getReferenceById(routeId);
+        return catalog.bookingTicketRepository.findByRouteAndPassengerPhone(route, SqliteCatalogState.phone(routeId));
+    }
+
+    // Компактные представления бронирований маршрута
+    @Benchmark
+    public List<BookingTicketSummary> findBookingSummariesByRoute(SqliteCatalogState catalog) {
+        return catalog.bookingTicketRepository.findSummariesByRouteId(catalog.randomBookedRouteId());
+    }
+}
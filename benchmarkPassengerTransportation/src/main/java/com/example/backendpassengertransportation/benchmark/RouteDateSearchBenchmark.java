@@ -0,0 +1,38 @@
+package com.example.backendpassengertransportation.benchmark;
+
+import com.example.backendpassengertransportation.model.Route;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Поиск маршрутов по дате отправления (RouteService) на каталогах 10 тыс. - 1 млн маршрутов
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RouteDateSearchBenchmark {
+
+    private static final int RANGE_DAYS = 7; // Длина промежутка дат
+
+    // Маршруты на одну дату
+    @Benchmark
+    public List<Route> fetchRoutesForExactDate(SqliteCatalogState catalog) {
+        return catalog.routeService.fetchRoutesForExactDate(catalog.randomDate());
+    }
+
+    // Маршруты за неделю
+    @Benchmark
+    public List<Route> fetchRoutesWithinDateRange(SqliteCatalogState catalog) {
+        int first = ThreadLocalRandom.current().nextInt(SqliteCatalogState.DAYS - RANGE_DAYS + 1);
+        return catalog.routeService.fetchRoutesWithinDateRange(catalog.date(first), catalog.date(first + RANGE_DAYS - 1));
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.backendpassengertransportation.benchmark;
+
+import com.example.backendpassengertransportation.BackendPassengerTransportationApplication;
+import com.example.backendpassengertransportation.repository.BookingTicketRepository;
+import com.example.backendpassengertransportation.repository.RouteRepository;
+import com.example.backendpassengertransportation.service.RouteService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Каталог маршрутов и бронирований во временном файле SQLite с запущенным контекстом приложения (без веб-сервера).
+// Маршруты равномерно распределены по дням одного года, бронирование создается для каждого десятого маршрута
+@State(Scope.Benchmark)
+public class SqliteCatalogState {
+
+    public static final int DAYS = 365; // Количество дней, по которым распределены отправления
+    public static final LocalDate FIRST_DAY = LocalDate.of(2030, 1, 1); // Первый день каталога
+    public static final int BOOKING_EVERY = 10; // Бронирование создается для каждого N-го маршрута
+
+    private static final int INSERT_BATCH_SIZE = 10_000; // Размер пакета вставки
+    private static final DateTimeFormatter STORAGE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter INPUT_DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    @Param({"10000", "100000", "1000000"})
+    public int routes; // Количество маршрутов в каталоге
+
+    public RouteService routeService; // Сервис маршрутов приложения
+    public RouteRepository routeRepository; // Репозиторий маршрутов
+    public BookingTicketRepository bookingTicketRepository; // Репозиторий бронирований
+
+    private Path directory; // Временный каталог базы и журнала
+    private ConfigurableApplicationContext context; // Контекст приложения
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("passenger-transportation-benchmark-");
+        context = new SpringApplicationBuilder(BackendPassengerTransportationApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .properties(
+                        "spring.datasource.url=jdbc:sqlite:" + directory.resolve("catalog.db"),
+                        "bookings.journal.directory=" + directory.resolve("journal"),
+                        "logging.level.root=WARN")
+                .run();
+        routeService = context.getBean(RouteService.class);
+        routeRepository = context.getBean(RouteRepository.class);
+        bookingTicketRepository = context.getBean(BookingTicketRepository.class);
+        fill(context.getBean(JdbcTemplate.class), context.getBean(TransactionTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    // Случайный день каталога в формате ввода dd.MM.yyyy
+    public String randomDate() {
+        return date(ThreadLocalRandom.current().nextInt(DAYS));
+    }
+
+    // День каталога с указанным номером в формате ввода dd.MM.yyyy
+    public String date(int day) {
+        return FIRST_DAY.plusDays(day).format(INPUT_DATE_FORMAT);
+    }
+
+    // Случайный ID маршрута каталога
+    public long randomRouteId() {
+        return ThreadLocalRandom.current().nextLong(1, routes + 1);
+    }
+
+    // Случайный ID маршрута, для которого создано бронирование
+    public long randomBookedRouteId() {
+        return (long) ThreadLocalRandom.current().nextInt(routes / BOOKING_EVERY) * BOOKING_EVERY + 1;
+    }
+
+    // Телефон пассажира бронирования маршрута
+    public static String phone(long routeId) {
+        long n = routeId % 10_000_000;
+        return String.format("+7 9%02d %03d-%02d-%02d", n / 100_000 % 100, n / 100 % 1000, n / 10 % 100, n % 100);
+    }
+
+    // Заполнение каталога пакетной вставкой и сбор статистики для планировщика запросов
+    private void fill(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        LocalDateTime start = FIRST_DAY.atStartOfDay();
+        for (int from = 0; from < routes; from += INSERT_BATCH_SIZE) {
+            List<Object[]> routeRows = new ArrayList<>(INSERT_BATCH_SIZE);
+            List<Object[]> bookingRows = new ArrayList<>();
+            for (int i = from; i < Math.min(routes, from + INSERT_BATCH_SIZE); i++) {
+                LocalDateTime departure = start.plusDays(i % DAYS).plusMinutes(i / DAYS % 1440);
+                routeRows.add(new Object[]{"Поезд", "Москва", "Казань", departure.format(STORAGE_FORMAT),
+                        departure.plusHours(12).format(STORAGE_FORMAT), 100, 100});
+                long routeId = i + 1;
+                if (i % BOOKING_EVERY == 0) {
+                    bookingRows.add(new Object[]{routeId, "Петров Иван Иванович", phone(routeId), "ivan@mail.ru",
+                            "2029-12-01 10:00:00"});
+                }
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate("INSERT INTO routes (transport_type, departure_city, destination_city, " +
+                        "departure_time, arrival_time, total_number_seats, number_available_seats) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?)", routeRows);
+                jdbcTemplate.batchUpdate("INSERT INTO booking_tickets (id_route, passenger_full_name, passenger_phone, " +
+                        "passenger_email, booking_date) VALUES (?, ?, ?, ?, ?)", bookingRows);
+            });
+        }
+        jdbcTemplate.execute("ANALYZE");
+    }
+}
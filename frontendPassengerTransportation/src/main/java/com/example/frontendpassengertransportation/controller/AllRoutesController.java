@@ -2,7 +2,7 @@ package com.example.frontendpassengertransportation.controller;
 
 import com.example.frontendpassengertransportation.model.Route;
 import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -13,18 +13,21 @@ import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
+import javafx.stage.Window;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.Set;
 import javafx.util.Callback;
 
 // Класс AllRoutesController отвечает за управление окном со списком всех маршрутов
@@ -50,6 +53,16 @@ public class AllRoutesController implements Initializable {
     @FXML
     private Button backButton; // Кнопка для возврата на главное окно
 
+    // Последний загруженный список маршрутов (тело ответа, его тип и версия ETag), общие для всех открытий окна.
+    // Повторная загрузка отправляет версию в If-None-Match, и если каталог не изменился,
+    // сервер отвечает 304 без тела, а список берется из сохраненного ответа
+    private static String cachedRoutesETag;
+    private static String cachedRoutesContentType;
+    private static byte[] cachedRoutesBody;
+
+    // Подписка на изменения количества свободных мест, пока окно открыто
+    private SeatEventsClient seatEvents;
+
     @Override
     // Метод initialize вызывается при загрузке FXML
     public void initialize(URL location, ResourceBundle resources) {
@@ -66,6 +79,49 @@ public class AllRoutesController implements Initializable {
 
         // Загрузка данных о маршрутах из API
         loadRoutes();
+
+        // Подписка на изменения мест: количество свободных мест в таблице обновляется без повторного открытия окна
+        seatEvents = new SeatEventsClient((name, data) -> Platform.runLater(() -> handleSeatEvent(name, data)));
+        seatEvents.start();
+    }
+
+    // Метод для обработки события изменения мест (выполняется в потоке JavaFX)
+    private void handleSeatEvent(String name, String data) {
+        // Окно закрыто без перехода по кнопкам - подписка больше не нужна
+        Window window = routesTable.getScene() == null ? null : routesTable.getScene().getWindow();
+        if (window != null && !window.isShowing()) {
+            seatEvents.close();
+            return;
+        }
+
+        switch (name) {
+            case "seats" -> {
+                // Пары [ID маршрута, свободные места]
+                Map<Long, Integer> seats = new HashMap<>();
+                for (long[] change : new Gson().fromJson(data, long[][].class)) {
+                    seats.put(change[0], (int) change[1]);
+                }
+                for (Route route : routesTable.getItems()) {
+                    Integer available = seats.get((long) route.getIdRoute());
+                    if (available != null) {
+                        route.setNumberAvailableSeats(available);
+                    }
+                }
+                routesTable.refresh();
+            }
+            case "route-removed" -> {
+                Set<Long> removed = new HashSet<>();
+                for (long idRoute : new Gson().fromJson(data, long[].class)) {
+                    removed.add(idRoute);
+                }
+                routesTable.getItems().removeIf(route -> removed.contains((long) route.getIdRoute()));
+            }
+            // Новый маршрут или пропущенные изменения: список загружается заново (без изменений каталога - ответ 304)
+            case "route-added", "resync" -> loadRoutes();
+            default -> {
+                // Неизвестные события пропускаются
+            }
+        }
     }
 
     // Метод для добавления кнопки "Забронировать" в таблицу
@@ -107,7 +163,8 @@ public class AllRoutesController implements Initializable {
     // Метод для обработки нажатия кнопки "Забронировать"
     private void handleBookingButton(Route route) {
         try {
-            // Закрытие текущего окна
+            // Закрытие подписки на изменения мест и текущего окна
+            seatEvents.close();
             Stage currentStage = (Stage) backButton.getScene().getWindow();
             currentStage.close();
 
@@ -140,21 +197,22 @@ public class AllRoutesController implements Initializable {
             URL url = new URL("http://localhost:8080/routes");
             HttpURLConnection connection = (HttpURLConnection) url.openConnection();
             connection.setRequestMethod("GET");
-
-            // Чтение ответа от сервера
-            BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-            String inputLine;
-            StringBuilder content = new StringBuilder();
-            while ((inputLine = in.readLine()) != null) {
-                content.append(inputLine);
+            connection.setRequestProperty("Accept", RoutePayloads.ACCEPT);
+            if (cachedRoutesETag != null) {
+                connection.setRequestProperty("If-None-Match", cachedRoutesETag);
             }
 
-            in.close(); // Закрытие потока чтения
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_NOT_MODIFIED || cachedRoutesBody == null) {
+                // Чтение ответа от сервера
+                cachedRoutesBody = RoutePayloads.readBody(connection);
+                cachedRoutesContentType = connection.getContentType();
+                cachedRoutesETag = connection.getHeaderField("ETag");
+            }
+            // Иначе каталог не изменился с прошлой загрузки
             connection.disconnect(); // Закрытие соединения
 
-            // Преобразование JSON в список объектов Route
-            Gson gson = new Gson();
-            List<Route> routes = gson.fromJson(content.toString(), new TypeToken<List<Route>>() {}.getType());
+            // Преобразование ответа (CBOR или JSON) в список объектов Route
+            List<Route> routes = RoutePayloads.toRoutes(cachedRoutesContentType, cachedRoutesBody);
 
             // Фильтрация маршрутов
             LocalDateTime now = LocalDateTime.now();
@@ -189,7 +247,8 @@ public class AllRoutesController implements Initializable {
     @FXML
     private void handleBackButton() {
         try {
-            // Закрытие текущего окна
+            // Закрытие подписки на изменения мест и текущего окна
+            seatEvents.close();
             Stage currentStage = (Stage) backButton.getScene().getWindow();
             currentStage.close();
 
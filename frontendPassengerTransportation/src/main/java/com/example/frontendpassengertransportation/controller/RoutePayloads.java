@@ -0,0 +1,51 @@
+package com.example.frontendpassengertransportation.controller;
+
+import com.example.frontendpassengertransportation.model.Route;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// Чтение списков маршрутов из ответов сервера.
+// Клиент запрашивает двоичный формат CBOR: в нем имена полей не повторяются текстом для каждого маршрута,
+// поэтому ответ меньше и разбирается быстрее JSON. Если сервер ответил JSON (например, старая версия сервера),
+// ответ разбирается Gson, как раньше
+final class RoutePayloads {
+
+    // Заголовок Accept: CBOR предпочтительнее, JSON допустим
+    static final String ACCEPT = "application/cbor, application/json;q=0.9";
+
+    private static final String CBOR_CONTENT_TYPE = "application/cbor";
+
+    // Разбор CBOR; поля ответа, которых нет в модели клиента, пропускаются
+    private static final CBORMapper CBOR_MAPPER = CBORMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private static final TypeReference<List<Route>> ROUTE_LIST = new TypeReference<>() {};
+
+    private RoutePayloads() {
+    }
+
+    // Чтение тела ответа целиком
+    static byte[] readBody(HttpURLConnection connection) throws IOException {
+        try (InputStream input = connection.getInputStream()) {
+            return input.readAllBytes();
+        }
+    }
+
+    // Преобразование тела ответа в список маршрутов по типу содержимого ответа
+    static List<Route> toRoutes(String contentType, byte[] body) throws IOException {
+        if (contentType != null && contentType.startsWith(CBOR_CONTENT_TYPE)) {
+            return CBOR_MAPPER.readValue(body, ROUTE_LIST);
+        }
+        return new Gson().fromJson(new String(body, StandardCharsets.UTF_8), new TypeToken<List<Route>>() {}.getType());
+    }
+}
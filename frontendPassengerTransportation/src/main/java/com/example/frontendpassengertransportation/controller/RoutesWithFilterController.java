@@ -1,8 +1,6 @@
 package com.example.frontendpassengertransportation.controller;
 
 import com.example.frontendpassengertransportation.model.Route;
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -15,18 +13,15 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 import javafx.util.Callback;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.time.Duration;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.*;
+import java.util.Collections;
+import java.util.List;
 
 // Класс RoutesWithFilterController отвечает за управление окном со списком отфильтрованных маршрутов
 public class RoutesWithFilterController {
@@ -56,6 +51,9 @@ public class RoutesWithFilterController {
     private String startDate; // Начальная дата
     private String endDate; // Конечная дата
 
+    // Бронирование доступно, если до отправления осталось более 30 минут
+    private static final int MIN_MINUTES_BEFORE_DEPARTURE = 30;
+
     // Метод для форматирования даты в строку
     private String formatDate(LocalDate date) {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
@@ -72,115 +70,36 @@ public class RoutesWithFilterController {
         loadFilteredRoutes(); // Загрузка отфильтрованных маршрутов
     }
 
-    // Метод для загрузки маршрутов с учетом фильтров
+    // Метод для загрузки маршрутов с учетом фильтров.
+    // Все фильтры передаются серверу в одном запросе /routes/search, который отвечает одним индексированным запросом к базе
     private void loadFilteredRoutes() {
-        // Словарь для хранения маршрутов по idRoute
-        Map<Integer, Route> routeMap = new HashMap<>();
-        // Словарь для хранения количества совпадений с фильтрами
-        Map<Integer, Integer> filterCountMap = new HashMap<>();
-
         try {
-            // Инициализация словаря routeMap
-            List<Route> allRoutes = fetchRoutes("http://localhost:8080/routes");
-            for (Route route : allRoutes) {
-                routeMap.put(route.getIdRoute(), route);
-                filterCountMap.put(route.getIdRoute(), 0);
-            }
+            StringBuilder query = new StringBuilder("http://localhost:8080/routes/search?departsAfterMinutes=")
+                    .append(MIN_MINUTES_BEFORE_DEPARTURE);
 
             // Фильтр по типу транспорта
             if (transportType != null) {
-                String encodedTransportType = URLEncoder.encode(transportType, StandardCharsets.UTF_8.name());
-                List<Route> transportRoutes = fetchRoutes("http://localhost:8080/routes/transport/" + encodedTransportType);
-                for (Route route : transportRoutes) {
-                    if (routeMap.containsKey(route.getIdRoute())) {
-                        filterCountMap.put(route.getIdRoute(), filterCountMap.get(route.getIdRoute()) + 1);
-                    }
-                }
+                query.append("&transportType=").append(URLEncoder.encode(transportType, StandardCharsets.UTF_8));
             }
 
             // Фильтр по городам отправления и назначения
-            if (departureCity != null && destinationCity != null) {
-                String encodedDepartureCity = URLEncoder.encode(departureCity, StandardCharsets.UTF_8.name());
-                String encodedDestinationCity = URLEncoder.encode(destinationCity, StandardCharsets.UTF_8.name());
-                List<Route> cityRoutes = fetchRoutes("http://localhost:8080/routes/points?departurepoint=" + encodedDepartureCity + "&destinationpoint=" + encodedDestinationCity);
-                for (Route route : cityRoutes) {
-                    if (routeMap.containsKey(route.getIdRoute())) {
-                        filterCountMap.put(route.getIdRoute(), filterCountMap.get(route.getIdRoute()) + 1);
-                    }
-                }
-            } else if (departureCity != null) {
-                String encodedDepartureCity = URLEncoder.encode(departureCity, StandardCharsets.UTF_8.name());
-                List<Route> departureCityRoutes = fetchRoutes("http://localhost:8080/routes/departure/" + encodedDepartureCity);
-                for (Route route : departureCityRoutes) {
-                    if (routeMap.containsKey(route.getIdRoute())) {
-                        filterCountMap.put(route.getIdRoute(), filterCountMap.get(route.getIdRoute()) + 1);
-                    }
-                }
-            } else if (destinationCity != null) {
-                String encodedDestinationCity = URLEncoder.encode(destinationCity, StandardCharsets.UTF_8.name());
-                List<Route> destinationCityRoutes = fetchRoutes("http://localhost:8080/routes/destination/" + encodedDestinationCity);
-                for (Route route : destinationCityRoutes) {
-                    if (routeMap.containsKey(route.getIdRoute())) {
-                        filterCountMap.put(route.getIdRoute(), filterCountMap.get(route.getIdRoute()) + 1);
-                    }
-                }
+            if (departureCity != null) {
+                query.append("&departureCity=").append(URLEncoder.encode(departureCity, StandardCharsets.UTF_8));
             }
-
-            // Фильтр по точной дате
-            if (startDate != null && endDate == null) {
-                List<Route> exactDateRoutes = fetchRoutes("http://localhost:8080/routes/exactDate?exactDate=" + startDate);
-                for (Route route : exactDateRoutes) {
-                    if (routeMap.containsKey(route.getIdRoute())) {
-                        filterCountMap.put(route.getIdRoute(), filterCountMap.get(route.getIdRoute()) + 1);
-                    }
-                }
+            if (destinationCity != null) {
+                query.append("&destinationCity=").append(URLEncoder.encode(destinationCity, StandardCharsets.UTF_8));
             }
 
-            // Фильтр по диапазону дат
-            if (startDate != null && endDate != null) {
-                List<Route> dateRangeRoutes = fetchRoutes("http://localhost:8080/routes/dateRange?startDate=" + startDate + "&endDate=" + endDate);
-                for (Route route : dateRangeRoutes) {
-                    if (routeMap.containsKey(route.getIdRoute())) {
-                        filterCountMap.put(route.getIdRoute(), filterCountMap.get(route.getIdRoute()) + 1);
-                    }
-                }
-            }
-
-            // Определение количества фильтров
-            int totalFilters = 0;
-            if (transportType != null) {
-                totalFilters++;
-            }
-            if (departureCity != null || destinationCity != null) {
-                totalFilters++;
-            }
-            if (startDate != null && endDate == null) {
-                totalFilters++;
+            // Фильтр по точной дате или по диапазону дат
+            if (startDate != null) {
+                query.append("&startDate=").append(startDate);
             }
             if (startDate != null && endDate != null) {
-                totalFilters++;
-            }
-
-            // Отбор маршрутов, которые прошли все фильтры
-            List<Route> filteredRoutes = new ArrayList<>();
-            LocalDateTime now = LocalDateTime.now(); // Текущее время
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-
-            for (Map.Entry<Integer, Integer> entry : filterCountMap.entrySet()) {
-                if (entry.getValue() == totalFilters) {
-                    Route route = routeMap.get(entry.getKey());
-                    LocalDateTime departureTime = LocalDateTime.parse(route.getDepartureTime(), formatter);
-
-                    // Проверка, что до отправления осталось более 30 минут
-                    if (Duration.between(now, departureTime).toMinutes() > 30) {
-                        // Если условие выполняется, добавление маршрута в список отфильтрованных маршрутов
-                        filteredRoutes.add(route);
-                    }
-                }
+                query.append("&endDate=").append(endDate);
             }
 
             // Отображение отфильтрованных маршрутов
-            displayRoutes(filteredRoutes);
+            displayRoutes(fetchRoutes(query.toString()));
         } catch (Exception e) {
             showErrorAlert("Произошла ошибка при загрузке маршрутов. Сервер не отвечает.");
         }
@@ -192,6 +111,7 @@ public class RoutesWithFilterController {
             URL url = new URL(apiUrl);
             HttpURLConnection connection = (HttpURLConnection) url.openConnection();
             connection.setRequestMethod("GET");
+            connection.setRequestProperty("Accept", RoutePayloads.ACCEPT);
 
             // Получение кода ответа сервера
             int responseCode = connection.getResponseCode();
@@ -208,18 +128,8 @@ public class RoutesWithFilterController {
                 return Collections.emptyList();
             }
 
-            // Чтение ответа от сервера
-            BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-            StringBuilder response = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                response.append(line);
-            }
-            reader.close();
-
-            // Преобразование JSON в список маршрутов
-            Gson gson = new Gson();
-            List<Route> routes = gson.fromJson(response.toString(), new TypeToken<List<Route>>() {}.getType());
+            // Чтение ответа от сервера и преобразование (CBOR или JSON) в список маршрутов
+            List<Route> routes = RoutePayloads.toRoutes(connection.getContentType(), RoutePayloads.readBody(connection));
 
             // Если сервер вернул пустой список, это не ошибка
             return routes != null ? routes : Collections.emptyList();
@@ -0,0 +1,97 @@
+package com.example.frontendpassengertransportation.controller;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.function.BiConsumer;
+
+// Подписка на изменения количества свободных мест (Server-Sent Events, /routes/seat-events).
+// События читаются в отдельном потоке; при обрыве соединения подписка восстанавливается через паузу.
+// После каждого подключения обработчик получает событие resync: изменения до подключения (или за время обрыва)
+// могли быть пропущены, и каталог нужно проверить заново (повторная загрузка с ETag обычно получает 304)
+final class SeatEventsClient implements AutoCloseable {
+
+    private static final String SEAT_EVENTS_URL = "http://localhost:8080/routes/seat-events";
+
+    private static final long RECONNECT_DELAY_MS = 3000; // Пауза перед повторным подключением
+
+    private final BiConsumer<String, String> handler; // Обработчик события: имя и данные
+
+    private final Thread reader; // Поток чтения событий
+
+    private volatile boolean closed; // Признак закрытия подписки
+
+    private volatile HttpURLConnection connection; // Текущее соединение
+
+    // Конструктор с обработчиком событий; обработчик вызывается в потоке чтения
+    SeatEventsClient(BiConsumer<String, String> handler) {
+        this.handler = handler;
+        this.reader = new Thread(this::run, "seat-events");
+        this.reader.setDaemon(true);
+    }
+
+    // Запуск чтения событий
+    void start() {
+        reader.start();
+    }
+
+    // Закрытие подписки
+    @Override
+    public void close() {
+        closed = true;
+        HttpURLConnection current = connection;
+        if (current != null) {
+            current.disconnect();
+        }
+        reader.interrupt();
+    }
+
+    // Цикл подключения и чтения событий
+    private void run() {
+        while (!closed) {
+            try {
+                HttpURLConnection current = (HttpURLConnection) new URL(SEAT_EVENTS_URL).openConnection();
+                current.setRequestProperty("Accept", "text/event-stream");
+                connection = current;
+                if (current.getResponseCode() == HttpURLConnection.HTTP_OK) {
+                    handler.accept("resync", "[]");
+                    read(current);
+                }
+                current.disconnect();
+            } catch (IOException e) {
+                // Сервер недоступен или соединение оборвано - повторное подключение после паузы
+            }
+            try {
+                Thread.sleep(RECONNECT_DELAY_MS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    // Чтение событий: строки event: и data: накапливаются до пустой строки, завершающей событие
+    private void read(HttpURLConnection current) throws IOException {
+        try (BufferedReader in = new BufferedReader(
+                new InputStreamReader(current.getInputStream(), StandardCharsets.UTF_8))) {
+            String name = "message";
+            StringBuilder data = new StringBuilder();
+            String line;
+            while (!closed && (line = in.readLine()) != null) {
+                if (line.isEmpty()) {
+                    if (data.length() > 0) {
+                        handler.accept(name, data.toString());
+                    }
+                    name = "message";
+                    data.setLength(0);
+                } else if (line.startsWith("event:")) {
+                    name = line.substring("event:".length()).trim();
+                } else if (line.startsWith("data:")) {
+                    data.append(line.substring("data:".length()).trim());
+                }
+            }
+        }
+    }
+}